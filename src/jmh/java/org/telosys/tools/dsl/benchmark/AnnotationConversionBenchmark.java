@@ -0,0 +1,81 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.generic.converter.Converter;
+import org.telosys.tools.dsl.parser.DomainModelParser;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Conversion of an annotation-dense model ( all the fields with several annotations, no reference ) <br>
+ * ( cost of the annotations processing in the Converter ) 
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="AnnotationConversionBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class AnnotationConversionBenchmark {
+
+	@Param({ "500" })
+	public int entitiesCount ;
+
+	@Param({ "30" })
+	public int fieldsPerEntity ;
+
+	@Param({ "4" })
+	public int annotationsPerField ;
+
+	private DomainModel domainModel ;
+
+	@Setup
+	public void setup() throws IOException {
+		SyntheticModel syntheticModel = new SyntheticModel(entitiesCount, fieldsPerEntity, annotationsPerField, 0.0);
+		File folder = Files.createTempDirectory("telosys-benchmark").toFile();
+		try {
+			domainModel = new DomainModelParser().parse(syntheticModel.write(folder, "annotations"));
+		}
+		finally {
+			SyntheticModel.delete(folder);
+		}
+	}
+
+	@Benchmark
+	public Model conversion() {
+		return new Converter().convertToGenericModel(domainModel);
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.AnnotationDefinition;
+import org.telosys.tools.dsl.KeyWords;
+
+/**
+ * Annotation name resolution : former list copy + 'startsWith' scan vs definitions map <br>
+ * ( for the whole annotations parsing on annotation-heavy entities see 
+ * 'ParserStagesBenchmark.annotationParsing' with '-p annotationsPerField=6' )
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="AnnotationResolutionBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnnotationResolutionBenchmark {
+
+	// annotations of an annotation-heavy entity (the last ones of the keywords list are the slowest to find)
+	private final String[] names = { "Id", "NotNull", "SizeMax", "NotBlank", "LongText", "Min", "Max", "Past", 
+			"ObjectType", "Embedded", "UnsignedType", "PrimitiveType" };
+
+	/**
+	 * Former implementation of the annotation resolution in 'AnnotationParser'
+	 * @param annotationName
+	 * @return
+	 */
+	private static String legacyResolve(String annotationName) {
+		List<String> definedAnnotations = KeyWords.getAnnotations();
+		for (String annotationDefinition : definedAnnotations) {
+			if ( annotationDefinition.startsWith(annotationName) ) {
+				return annotationDefinition ;
+			}
+		}
+		return null ;
+	}
+
+	@Benchmark
+	public int legacyResolution() {
+		int found = 0 ;
+		for ( String name : names ) {
+			if ( legacyResolve(name) != null ) {
+				found++ ;
+			}
+		}
+		return found ;
+	}
+
+	@Benchmark
+	public int mapResolution() {
+		int found = 0 ;
+		for ( String name : names ) {
+			AnnotationDefinition definition = KeyWords.getAnnotationDefinition(name);
+			if ( definition != null ) {
+				found++ ;
+			}
+		}
+		return found ;
+	}
+}
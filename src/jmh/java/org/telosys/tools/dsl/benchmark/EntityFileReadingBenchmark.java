@@ -0,0 +1,117 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.parser.EntityFileReader;
+import org.telosys.tools.dsl.parser.utils.StringUtils;
+
+/**
+ * Entity file reading : 'StringUtils.readStream' (BufferedReader line by line) vs 'EntityFileReader' (NIO) <br>
+ * for 1 KB, 100 KB and 10 MB files <br>
+ * Parallel parsing (4 threads) : a new reader for each file vs a reader per thread <br>
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="EntityFileReadingBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityFileReadingBenchmark {
+
+	@Param({ "1024", "102400", "10485760" })
+	public int fileSize ;
+
+	private File file ;
+
+	private EntityFileReader reader ;
+
+	/**
+	 * Reader of each benchmark thread 
+	 */
+	@State(Scope.Thread)
+	public static class ThreadReader {
+		private final EntityFileReader reader = new EntityFileReader();
+	}
+
+	@Setup
+	public void setup() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Big {\n");
+		int i = 0 ;
+		while ( sb.length() < fileSize - 2 ) {
+			sb.append("\tfield").append(i).append(" : string { @NotNull, @SizeMax(").append(i % 100 + 1).append(") } ; // \u00e9\n");
+			i++ ;
+		}
+		sb.append("}\n");
+		file = File.createTempFile("Big", ".entity");
+		Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+		reader = new EntityFileReader();
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public String readStream() throws IOException {
+		return StringUtils.readStream(new FileInputStream(file));
+	}
+
+	@Benchmark
+	public CharBuffer nioReader() throws IOException {
+		// reused reader : no allocation once the buffers are large enough
+		return reader.read(file);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public CharBuffer parallelNewReaderPerFile() throws IOException {
+		// new buffers for each file 
+		return new EntityFileReader().read(file);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public CharBuffer parallelReaderPerThread(ThreadReader threadReader) throws IOException {
+		// same reader for all the files of a thread (as DomainModelParser in parallel mode)
+		return threadReader.reader.read(file);
+	}
+}
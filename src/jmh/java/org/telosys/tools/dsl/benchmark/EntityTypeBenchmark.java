@@ -0,0 +1,134 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.parser.EntityParser;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+
+/**
+ * Resolution of the fields referencing an entity in a large model <br>
+ * . legacyTypeResolution : former 'getEntityNames().contains()' for each field (sorted LinkedList built each time) <br>
+ * . typeResolution : 'hasEntity()' for each field <br>
+ * . parseEntity : parsing of an entity file with all its fields referencing an entity <br>
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="EntityTypeBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityTypeBenchmark {
+
+	@Param({ "2500" })
+	public int entitiesCount ;
+
+	@Param({ "200" })
+	public int fieldsCount ;
+
+	private DomainModel model ;
+
+	private String[] typeNames ;
+
+	private File entityFile ;
+
+	@Setup
+	public void setup() throws IOException {
+		model = new DomainModel("benchmark");
+		for ( int i = 0 ; i < entitiesCount ; i++ ) {
+			model.addEntity(new DomainEntity("Entity" + i));
+		}
+		typeNames = new String[fieldsCount];
+		StringBuilder sb = new StringBuilder();
+		sb.append("Entity0 {\n");
+		for ( int i = 0 ; i < fieldsCount ; i++ ) {
+			typeNames[i] = "Entity" + ( ( i * 7919 ) % entitiesCount ) ;
+			sb.append("\tfield").append(i).append(" : ").append(typeNames[i]).append(" ;\n");
+		}
+		sb.append("}\n");
+		entityFile = new File(Files.createTempDirectory("benchmark").toFile(), "Entity0.entity");
+		Files.write(entityFile.toPath(), sb.toString().getBytes());
+	}
+
+	@TearDown
+	public void tearDown() {
+		entityFile.delete();
+		entityFile.getParentFile().delete();
+	}
+
+	/**
+	 * Former implementation of 'DomainModel.getEntityNames()' 
+	 * @return
+	 */
+	private List<String> legacyEntityNames() {
+		List<String> names = new LinkedList<String>();
+		for ( DomainEntity entity : model.getEntities() ) {
+			names.add(entity.getName());
+		}
+		Collections.sort(names);
+		return names;
+	}
+
+	@Benchmark
+	public int legacyTypeResolution() {
+		int found = 0 ;
+		for ( String typeName : typeNames ) {
+			if ( legacyEntityNames().contains(typeName) ) {
+				found++ ;
+			}
+		}
+		return found ;
+	}
+
+	@Benchmark
+	public int typeResolution() {
+		int found = 0 ;
+		for ( String typeName : typeNames ) {
+			if ( model.hasEntity(typeName) ) {
+				found++ ;
+			}
+		}
+		return found ;
+	}
+
+	@Benchmark
+	public DomainEntity parseEntity() {
+		return new EntityParser(model).parse(entityFile.getAbsolutePath());
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.parser.model.DomainEntityField;
+import org.telosys.tools.dsl.parser.model.DomainEntityFieldAnnotation;
+import org.telosys.tools.dsl.parser.model.DomainNeutralTypes;
+import org.telosys.tools.dsl.parser.model.DomainType;
+import org.telosys.tools.dsl.parser.model.SourceSpan;
+
+/**
+ * Memory footprint of the fields annotations : compact representation vs former representation 
+ * ( a map of annotations for each field ) <br>
+ * Each operation builds and returns 'fieldsCount' fields with 0 to 3 annotations : 
+ * the 'gc.alloc.rate.norm' value given by '-prof gc' is the size of the fields <br>
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="FieldFootprintBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldFootprintBenchmark {
+
+	private static final String[] NAMES = { "id", "name", "code", "description", "createdAt" };
+
+	private static final DomainType TYPE = DomainNeutralTypes.getType(DomainNeutralTypes.STRING);
+
+	private static final Integer SIZE = Integer.valueOf(40);
+
+	@Param({ "10000" })
+	public int fieldsCount ;
+
+	/**
+	 * Former annotation : 3 fields + 1 boolean 
+	 */
+	private static class LegacyAnnotation {
+		final String  name ;
+		final String  stringParameter ;
+		final Number  numberParameter ;
+		final boolean hasParameter ;
+		SourceSpan sourceSpan ;
+		LegacyAnnotation(String name, Number numberParameter) {
+			this.name = name ;
+			this.stringParameter = null ;
+			this.numberParameter = numberParameter ;
+			this.hasParameter = numberParameter != null ;
+		}
+	}
+
+	/**
+	 * Former field : a map for each field even without annotation
+	 */
+	private static class LegacyField {
+		final String name ;
+		final DomainType type ;
+		final int cardinality ;
+		final Map<String, LegacyAnnotation> annotations = new LinkedHashMap<String, LegacyAnnotation>();
+		SourceSpan sourceSpan ;
+		LegacyField(String name, DomainType type) {
+			this.name = name ;
+			this.type = type ;
+			this.cardinality = 1 ;
+		}
+	}
+
+	@Benchmark
+	public List<LegacyField> legacyFields() {
+		List<LegacyField> fields = new ArrayList<LegacyField>(fieldsCount);
+		for ( int i = 0 ; i < fieldsCount ; i++ ) {
+			LegacyField field = new LegacyField(NAMES[i % NAMES.length], TYPE);
+			if ( i % 4 > 0 ) field.annotations.put("NotNull", new LegacyAnnotation("NotNull", null));
+			if ( i % 4 > 1 ) field.annotations.put("SizeMax", new LegacyAnnotation("SizeMax", SIZE));
+			if ( i % 4 > 2 ) field.annotations.put("Id", new LegacyAnnotation("Id", null));
+			fields.add(field);
+		}
+		return fields ;
+	}
+
+	@Benchmark
+	public List<DomainEntityField> compactFields() {
+		List<DomainEntityField> fields = new ArrayList<DomainEntityField>(fieldsCount);
+		for ( int i = 0 ; i < fieldsCount ; i++ ) {
+			DomainEntityField field = new DomainEntityField(NAMES[i % NAMES.length], TYPE);
+			if ( i % 4 > 0 ) field.addAnnotation(new DomainEntityFieldAnnotation("NotNull"));
+			if ( i % 4 > 1 ) field.addAnnotation(new DomainEntityFieldAnnotation("SizeMax", SIZE));
+			if ( i % 4 > 2 ) field.addAnnotation(new DomainEntityFieldAnnotation("Id"));
+			fields.add(field);
+		}
+		return fields ;
+	}
+}
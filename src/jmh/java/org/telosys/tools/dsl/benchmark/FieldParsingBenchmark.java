@@ -0,0 +1,97 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.parser.EntityLexer;
+import org.telosys.tools.dsl.parser.EntityParser;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+
+/**
+ * Fields parsing for an entity without annotations ( name, type and cardinality only ) <br>
+ * The allocation per field is given by : <br>
+ * ( entityParsing.gc.alloc.rate.norm - lexerOnly.gc.alloc.rate.norm ) / fieldsCount 
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="FieldParsingBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class FieldParsingBenchmark {
+
+	@Param({ "1000" })
+	public int fieldsCount ;
+
+	private String entityText ;
+
+	private BenchmarkEntityParser parser ;
+
+	/*
+	 * Gives access to the content parsing 
+	 */
+	private static final class BenchmarkEntityParser extends EntityParser {
+		private BenchmarkEntityParser(DomainModel model) {
+			super(model);
+		}
+		private DomainEntity parseText(String content) {
+			return parseContent(content, "Big");
+		}
+	}
+
+	@Setup
+	public void setup() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Big {\n");
+		for ( int i = 0 ; i < fieldsCount ; i++ ) {
+			if ( i % 4 == 0 ) {
+				sb.append("\tcodes").append(i).append(" : int [ 3 ] ;\n");
+			}
+			else {
+				sb.append("\tfield").append(i).append(" : string ;\n");
+			}
+		}
+		sb.append("}\n");
+		entityText = sb.toString();
+		parser = new BenchmarkEntityParser(new DomainModel("benchmark"));
+	}
+
+	@Benchmark
+	public EntityLexer lexerOnly() {
+		return new EntityLexer(entityText);
+	}
+
+	@Benchmark
+	public DomainEntity entityParsing() {
+		return parser.parseText(entityText);
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.IdentifierRules;
+
+/**
+ * Validation of entity and field names : former 'String.matches' (a new Pattern for each call) 
+ * vs static precompiled Patterns vs hand-written 'IdentifierRules' <br>
+ * Each operation validates all the identifiers ( 1 invalid identifier for 10 ) 
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="IdentifierValidationBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class IdentifierValidationBenchmark {
+
+	private static final Pattern FIELD_NAME_PATTERN  = Pattern.compile("^[\\w]*$");
+	private static final Pattern ENTITY_NAME_PATTERN = Pattern.compile("^[A-Z][\\w]*$");
+
+	@Param({ "100000" })
+	public int identifiersCount ;
+
+	private String[] fieldNames ;
+	private String[] entityNames ;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(SyntheticModel.DEFAULT_SEED);
+		fieldNames = new String[identifiersCount];
+		entityNames = new String[identifiersCount];
+		for ( int i = 0 ; i < identifiersCount ; i++ ) {
+			String suffix = ( i % 10 == 9 ) ? "-x" : "_" + random.nextInt(1000) ;
+			fieldNames[i] = "field" + suffix ;
+			entityNames[i] = "Entity" + suffix ;
+		}
+	}
+
+	@Benchmark
+	public int stringMatches() {
+		int count = 0 ;
+		for ( int i = 0 ; i < identifiersCount ; i++ ) {
+			if ( fieldNames[i].matches("^[\\w]*$") ) {
+				count++ ;
+			}
+			if ( entityNames[i].matches("^[A-Z][\\w]*$") ) {
+				count++ ;
+			}
+		}
+		return count ;
+	}
+
+	@Benchmark
+	public int precompiledPatterns() {
+		int count = 0 ;
+		for ( int i = 0 ; i < identifiersCount ; i++ ) {
+			if ( FIELD_NAME_PATTERN.matcher(fieldNames[i]).matches() ) {
+				count++ ;
+			}
+			if ( ENTITY_NAME_PATTERN.matcher(entityNames[i]).matches() ) {
+				count++ ;
+			}
+		}
+		return count ;
+	}
+
+	@Benchmark
+	public int identifierRules() {
+		int count = 0 ;
+		for ( int i = 0 ; i < identifiersCount ; i++ ) {
+			if ( IdentifierRules.isValidFieldName(fieldNames[i]) ) {
+				count++ ;
+			}
+			if ( IdentifierRules.isValidEntityName(entityNames[i]) ) {
+				count++ ;
+			}
+		}
+		return count ;
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.DslModelManager;
+import org.telosys.tools.dsl.generic.converter.Converter;
+import org.telosys.tools.dsl.parser.DomainModelParser;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Throughput of the model loading for a synthetic model written in a temporary folder : <br>
+ * . modelParsing : DomainModelParser ( files reading and parsing ) <br>
+ * . parallelModelParsing : DomainModelParser with a ForkJoinPool ( one task per entity file ) <br>
+ * . conversion : Converter ( DomainModel to generic model ) <br>
+ * . parallelConversion : Converter with a ForkJoinPool ( one task per entity ) <br>
+ * . loadModel : DslModelManager.loadModel ( end-to-end ) <br>
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="ModelLoadingBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class ModelLoadingBenchmark {
+
+	@Param({ "100", "1000" })
+	public int entitiesCount ;
+
+	@Param({ "20" })
+	public int fieldsPerEntity ;
+
+	@Param({ "2" })
+	public int annotationsPerField ;
+
+	@Param({ "0.2" })
+	public double referenceDensity ;
+
+	private File folder ;
+
+	private File modelFile ;
+
+	private DomainModel domainModel ;
+
+	private ForkJoinPool executor ;
+
+	@Setup
+	public void setup() throws IOException {
+		SyntheticModel syntheticModel = new SyntheticModel(entitiesCount, fieldsPerEntity, annotationsPerField, referenceDensity);
+		folder = Files.createTempDirectory("telosys-benchmark").toFile();
+		modelFile = syntheticModel.write(folder, "synthetic");
+		domainModel = new DomainModelParser().parse(modelFile);
+		executor = new ForkJoinPool();
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdown();
+		SyntheticModel.delete(folder);
+	}
+
+	@Benchmark
+	public DomainModel modelParsing() {
+		return new DomainModelParser().parse(modelFile);
+	}
+
+	@Benchmark
+	public DomainModel parallelModelParsing() {
+		return new DomainModelParser(executor).parse(modelFile);
+	}
+
+	@Benchmark
+	public Model conversion() {
+		return new Converter().convertToGenericModel(domainModel);
+	}
+
+	@Benchmark
+	public Model parallelConversion() {
+		return new Converter(executor).convertToGenericModel(domainModel);
+	}
+
+	@Benchmark
+	public Model loadModel() {
+		Model model = new DslModelManager().loadModel(modelFile);
+		if ( model == null ) {
+			throw new IllegalStateException("Invalid synthetic model");
+		}
+		return model ;
+	}
+}
@@ -0,0 +1,155 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.parser.DomainModelParser;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
+import org.telosys.tools.dsl.parser.model.DomainEntityField;
+import org.telosys.tools.dsl.parser.model.DomainEntityFieldAnnotation;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.dsl.parser.model.DomainNeutralTypes;
+
+/**
+ * Reading of a parsed model by several generator threads : former 'Hashtable' maps vs the current 
+ * unsynchronized maps of the model ( entities, annotations of each field, neutral types ) <br>
+ * The 'hashtableLookups' benchmark performs the same lookups on 'Hashtable' copies of the model maps. <br>
+ * The number of threads is 4 by default ( use '-t 1' for a single thread ) 
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="ModelLookupBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@Threads(4)
+public class ModelLookupBenchmark {
+
+	@Param({ "200" })
+	public int entitiesCount ;
+
+	@Param({ "20" })
+	public int fieldsPerEntity ;
+
+	@Param({ "2" })
+	public int annotationsPerField ;
+
+	private File folder ;
+
+	private DomainModel domainModel ;
+
+	private List<String> entityNames ;
+
+	//--- Former structures 
+	private Hashtable<String, DomainEntity> legacyEntities ;
+	private List<Hashtable<String, DomainEntityFieldAnnotation>> legacyAnnotations ; // in the fields reading order
+	private Hashtable<String, String> legacyNeutralTypes ;
+
+	@Setup
+	public void setup() throws IOException {
+		SyntheticModel syntheticModel = new SyntheticModel(entitiesCount, fieldsPerEntity, annotationsPerField, 0.2);
+		folder = Files.createTempDirectory("telosys-benchmark").toFile();
+		File modelFile = syntheticModel.write(folder, "synthetic");
+		domainModel = new DomainModelParser().parse(modelFile);
+		entityNames = new ArrayList<String>(domainModel.getEntityNames());
+
+		legacyEntities = new Hashtable<String, DomainEntity>();
+		legacyAnnotations = new ArrayList<Hashtable<String, DomainEntityFieldAnnotation>>();
+		for ( String entityName : entityNames ) {
+			DomainEntity entity = domainModel.getEntity(entityName);
+			legacyEntities.put(entity.getName(), entity);
+			for ( DomainEntityField field : entity.getFields() ) {
+				legacyAnnotations.add(new Hashtable<String, DomainEntityFieldAnnotation>(field.getAnnotations()));
+			}
+		}
+		legacyNeutralTypes = new Hashtable<String, String>();
+		for ( String name : DomainNeutralTypes.getNames() ) {
+			legacyNeutralTypes.put(name, name);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		SyntheticModel.delete(folder);
+	}
+
+	@Benchmark
+	public int modelLookups() {
+		int count = 0 ;
+		for ( String entityName : entityNames ) {
+			DomainEntity entity = domainModel.getEntity(entityName);
+			for ( DomainEntityField field : entity.getFields() ) {
+				if ( DomainNeutralTypes.exists(field.getTypeName()) ) {
+					count++ ;
+				}
+				Map<String, DomainEntityFieldAnnotation> annotations = field.getAnnotations();
+				if ( annotations.containsKey("Id") ) {
+					count++ ;
+				}
+				for ( DomainEntityFieldAnnotation annotation : annotations.values() ) {
+					count += annotation.getName().length();
+				}
+			}
+		}
+		return count ;
+	}
+
+	@Benchmark
+	public int hashtableLookups() {
+		int count = 0 ;
+		int fieldIndex = 0 ;
+		for ( String entityName : entityNames ) {
+			DomainEntity entity = legacyEntities.get(entityName);
+			for ( DomainEntityField field : entity.getFields() ) {
+				if ( legacyNeutralTypes.containsKey(field.getTypeName()) ) {
+					count++ ;
+				}
+				Hashtable<String, DomainEntityFieldAnnotation> annotations = legacyAnnotations.get(fieldIndex++);
+				if ( annotations.containsKey("Id") ) {
+					count++ ;
+				}
+				for ( DomainEntityFieldAnnotation annotation : annotations.values() ) {
+					count += annotation.getName().length();
+				}
+			}
+		}
+		return count ;
+	}
+}
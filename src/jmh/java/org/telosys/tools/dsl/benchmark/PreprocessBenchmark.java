@@ -0,0 +1,98 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.parser.EntityLexer;
+
+/**
+ * Entity file pre-processing : former regex + StringTokenizer implementation vs single pass lexer <br>
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="PreprocessBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreprocessBenchmark {
+
+	private final static String COMMENT_REGEXP = "(?:/\\*(?:[^*]|(?:\\*+[^*/]))*\\*+/)|(?://.*)" ;
+
+	@Param({ "10000" })
+	public int fieldsCount ;
+
+	private String entityText ;
+
+	@Setup
+	public void setup() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("/* Synthetic entity \n * with ").append(fieldsCount).append(" fields \n */\n");
+		sb.append("Big {\n");
+		for ( int i = 0 ; i < fieldsCount ; i++ ) {
+			sb.append("\tfield").append(i).append(" : string { @NotNull, @SizeMax(").append(i % 100 + 1).append(") } ; // field ").append(i).append("\n");
+			if ( i % 10 == 0 ) {
+				sb.append("\t/* block comment \n\t   on two lines */\n");
+			}
+		}
+		sb.append("}\n");
+		entityText = sb.toString();
+	}
+
+	/**
+	 * Former implementation of 'ParserUtil.preprocessText()' (regex + StringTokenizer)
+	 * @param initialText
+	 * @return
+	 */
+	private static String legacyPreprocessText(String initialText) {
+		String text = initialText.replaceAll(COMMENT_REGEXP, "");
+		StringTokenizer tokenizer = new StringTokenizer(text, "\r\n");
+		StringBuilder stringBuilder = new StringBuilder();
+		while (tokenizer.hasMoreElements()) {
+			String line = tokenizer.nextElement().toString();
+			if (line.length() > 0) {
+				stringBuilder.append(line.trim());
+			}
+		}
+		return stringBuilder.toString();
+	}
+
+	@Benchmark
+	public String legacyRegexPreprocess() {
+		return legacyPreprocessText(entityText);
+	}
+
+	@Benchmark
+	public EntityLexer singlePassLexer() {
+		// flat text and tokens
+		return new EntityLexer(entityText);
+	}
+}
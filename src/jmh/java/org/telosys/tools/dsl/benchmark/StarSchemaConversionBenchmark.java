@@ -0,0 +1,94 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.dsl.AnnotationName;
+import org.telosys.tools.dsl.generic.converter.Converter;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
+import org.telosys.tools.dsl.parser.model.DomainEntityField;
+import org.telosys.tools.dsl.parser.model.DomainEntityFieldAnnotation;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.dsl.parser.model.DomainNeutralTypes;
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Conversion of a star-schema model : one entity ( "Tenant" ) referenced by all the other entities <br>
+ * ( each reference is a "pseudo FK" based on the '@Id' field of the referenced entity ) 
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="StarSchemaConversionBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class StarSchemaConversionBenchmark {
+
+	@Param({ "2000" })
+	public int referencingEntities ;
+
+	@Param({ "40" })
+	public int tenantFields ;
+
+	private DomainModel domainModel ;
+
+	@Setup
+	public void setup() {
+		domainModel = new DomainModel("star");
+		//--- The central entity : '@Id' as the last field
+		DomainEntity tenant = new DomainEntity("Tenant");
+		for ( int i = 1 ; i < tenantFields ; i++ ) {
+			DomainEntityField field = new DomainEntityField("field" + i, DomainNeutralTypes.getType(DomainNeutralTypes.STRING));
+			field.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.NOT_NULL));
+			tenant.addField(field);
+		}
+		DomainEntityField tenantId = new DomainEntityField("code", DomainNeutralTypes.getType(DomainNeutralTypes.STRING));
+		tenantId.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.ID));
+		tenantId.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.SIZE_MAX, Integer.valueOf(20)));
+		tenant.addField(tenantId);
+		domainModel.addEntity(tenant);
+		//--- The entities referencing the central entity
+		for ( int e = 0 ; e < referencingEntities ; e++ ) {
+			DomainEntity entity = new DomainEntity(String.format("E%04d", e));
+			DomainEntityField id = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.LONG));
+			id.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.ID));
+			entity.addField(id);
+			entity.addField(new DomainEntityField("name", DomainNeutralTypes.getType(DomainNeutralTypes.STRING)));
+			entity.addField(new DomainEntityField("tenant", tenant));
+			domainModel.addEntity(entity);
+		}
+	}
+
+	@Benchmark
+	public Model conversion() {
+		return new Converter().convertToGenericModel(domainModel);
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telosys.tools.dsl.parser.model.SymbolTable;
+
+/**
+ * Symbol table shared by 4 parser threads ( parallel parsing ) : lookup of the usual names of a model 
+ * in the lock-free table vs the same table behind a global lock ( former implementation ) <br>
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="SymbolTableBenchmark"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SymbolTableBenchmark {
+
+	private static final int NAMES_COUNT = 200 ;
+
+	private final SymbolTable table = new SymbolTable();
+
+	private char[] buffer ;
+
+	private int[] starts ;
+
+	private int[] ends ;
+
+	@Setup
+	public void setup() {
+		// flat text with the names of the fields ( already known by the table, as after the first entities )
+		StringBuilder sb = new StringBuilder();
+		starts = new int[NAMES_COUNT];
+		ends = new int[NAMES_COUNT];
+		for ( int i = 0 ; i < NAMES_COUNT ; i++ ) {
+			starts[i] = sb.length();
+			sb.append("field").append(i);
+			ends[i] = sb.length();
+			sb.append(':');
+		}
+		buffer = sb.toString().toCharArray();
+		for ( int i = 0 ; i < NAMES_COUNT ; i++ ) {
+			table.intern(buffer, starts[i], ends[i]);
+		}
+	}
+
+	@Benchmark
+	public void lockFreeIntern(Blackhole blackhole) {
+		for ( int i = 0 ; i < NAMES_COUNT ; i++ ) {
+			blackhole.consume(table.intern(buffer, starts[i], ends[i]));
+		}
+	}
+
+	@Benchmark
+	public void globalLockIntern(Blackhole blackhole) {
+		for ( int i = 0 ; i < NAMES_COUNT ; i++ ) {
+			synchronized (this) {
+				blackhole.consume(table.intern(buffer, starts[i], ends[i]));
+			}
+		}
+	}
+}
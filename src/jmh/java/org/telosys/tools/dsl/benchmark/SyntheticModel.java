@@ -0,0 +1,238 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic DSL model generator for the benchmarks <br>
+ * The model is defined by : <br>
+ * . the number of entities <br>
+ * . the number of fields per entity ( including the 'id' field ) <br>
+ * . the number of annotations per field ( for the fields with a neutral type ) <br>
+ * . the reference density : probability for a field to reference another entity ( 0.0 to 1.0 ) <br>
+ * <br>
+ * The generation is driven by a seeded random generator : the same parameters always produce the same model 
+ * (reproducible results). <br>
+ * The entities are named 'E0000', 'E0001', etc and each one has an '@Id' field. <br>
+ *
+ */
+public class SyntheticModel {
+
+	public static final long DEFAULT_SEED = 20170101L ;
+
+	private static final String[] NEUTRAL_TYPES = { "string", "int", "long", "decimal", "boolean", "date", "timestamp" };
+
+	/*
+	 * Annotations compatible with each neutral type (same order as NEUTRAL_TYPES)
+	 */
+	private static final String[][] ANNOTATIONS = {
+		{ "@NotNull", "@NotEmpty", "@NotBlank", "@SizeMin(1)", "@SizeMax(%d)", "@LongText" },
+		{ "@NotNull", "@Min(0)", "@Max(%d)", "@PrimitiveType", "@UnsignedType", "@ObjectType" },
+		{ "@NotNull", "@Min(0)", "@Max(%d)", "@PrimitiveType", "@ObjectType" },
+		{ "@NotNull", "@Min(0.5)", "@Max(%d.99)" },
+		{ "@NotNull", "@PrimitiveType", "@ObjectType" },
+		{ "@NotNull", "@Past", "@Future" },
+		{ "@NotNull", "@Past" }
+	};
+
+	private final int entitiesCount ;
+	private final int fieldsPerEntity ;
+	private final int annotationsPerField ;
+	private final double referenceDensity ;
+
+	private final List<String> entityNames ;
+	private final List<List<String>> fieldsDefinitions ; // for each entity : 'name : type { annotations }'
+	private final List<List<String>> annotationsDefinitions ; // for each entity : annotations of each field ( without '{' and '}' )
+
+	/**
+	 * Constructor with the default seed
+	 * @param entitiesCount
+	 * @param fieldsPerEntity
+	 * @param annotationsPerField
+	 * @param referenceDensity
+	 */
+	public SyntheticModel(int entitiesCount, int fieldsPerEntity, int annotationsPerField, double referenceDensity) {
+		this(entitiesCount, fieldsPerEntity, annotationsPerField, referenceDensity, DEFAULT_SEED);
+	}
+
+	/**
+	 * Constructor
+	 * @param entitiesCount
+	 * @param fieldsPerEntity
+	 * @param annotationsPerField
+	 * @param referenceDensity
+	 * @param seed
+	 */
+	public SyntheticModel(int entitiesCount, int fieldsPerEntity, int annotationsPerField, double referenceDensity, long seed) {
+		super();
+		this.entitiesCount = entitiesCount;
+		this.fieldsPerEntity = Math.max(1, fieldsPerEntity);
+		this.annotationsPerField = annotationsPerField;
+		this.referenceDensity = referenceDensity;
+		this.entityNames = new ArrayList<String>(entitiesCount);
+		this.fieldsDefinitions = new ArrayList<List<String>>(entitiesCount);
+		this.annotationsDefinitions = new ArrayList<List<String>>(entitiesCount);
+		generate(new Random(seed));
+	}
+
+	private void generate(Random random) {
+		for ( int e = 0 ; e < entitiesCount ; e++ ) {
+			entityNames.add(String.format("E%04d", e));
+		}
+		for ( int e = 0 ; e < entitiesCount ; e++ ) {
+			List<String> fields = new ArrayList<String>(fieldsPerEntity);
+			List<String> annotations = new ArrayList<String>(fieldsPerEntity);
+			fields.add("id : int { @Id }");
+			annotations.add("@Id");
+			for ( int f = 1 ; f < fieldsPerEntity ; f++ ) {
+				if ( entitiesCount > 0 && random.nextDouble() < referenceDensity ) {
+					// reference to another entity ( 1 reference out of 4 is a collection )
+					String target = entityNames.get(random.nextInt(entitiesCount));
+					String cardinality = ( random.nextInt(4) == 0 ) ? "[]" : "" ;
+					fields.add("ref" + f + " : " + target + cardinality);
+					annotations.add("");
+				}
+				else {
+					int type = random.nextInt(NEUTRAL_TYPES.length);
+					String fieldAnnotations = buildAnnotations(random, type);
+					String definition = "field" + f + " : " + NEUTRAL_TYPES[type] ;
+					if ( fieldAnnotations.length() > 0 ) {
+						definition = definition + " { " + fieldAnnotations + " }" ;
+					}
+					fields.add(definition);
+					annotations.add(fieldAnnotations);
+				}
+			}
+			fieldsDefinitions.add(fields);
+			annotationsDefinitions.add(annotations);
+		}
+	}
+
+	private String buildAnnotations(Random random, int type) {
+		List<String> candidates = new ArrayList<String>();
+		for ( String annotation : ANNOTATIONS[type] ) {
+			candidates.add(annotation);
+		}
+		Collections.shuffle(candidates, random);
+		int count = Math.min(annotationsPerField, candidates.size());
+		StringBuilder sb = new StringBuilder();
+		for ( int i = 0 ; i < count ; i++ ) {
+			if ( i > 0 ) {
+				sb.append(", ");
+			}
+			sb.append(String.format(candidates.get(i), 10 + random.nextInt(990)));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the number of entities
+	 * @return
+	 */
+	public int getEntitiesCount() {
+		return entitiesCount ;
+	}
+
+	/**
+	 * Returns the name of the given entity
+	 * @param entityIndex
+	 * @return
+	 */
+	public String getEntityName(int entityIndex) {
+		return entityNames.get(entityIndex);
+	}
+
+	/**
+	 * Returns the definitions of the fields of the given entity ( e.g. 'field1 : string { @NotNull }' )
+	 * @param entityIndex
+	 * @return
+	 */
+	public List<String> getFieldsDefinitions(int entityIndex) {
+		return fieldsDefinitions.get(entityIndex);
+	}
+
+	/**
+	 * Returns the annotations of the fields of the given entity ( e.g. '@NotNull, @SizeMax(12)' )
+	 * @param entityIndex
+	 * @return
+	 */
+	public List<String> getAnnotationsDefinitions(int entityIndex) {
+		return annotationsDefinitions.get(entityIndex);
+	}
+
+	/**
+	 * Returns the content of the ".entity" file for the given entity
+	 * @param entityIndex
+	 * @return
+	 */
+	public String getEntityContent(int entityIndex) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("// Synthetic entity \n");
+		sb.append(getEntityName(entityIndex)).append(" {\n");
+		for ( String field : fieldsDefinitions.get(entityIndex) ) {
+			sb.append("\t").append(field).append(" ; // comment \n");
+		}
+		sb.append("}\n");
+		return sb.toString();
+	}
+
+	/**
+	 * Writes the model in the given folder : 'folder/name.model' and 'folder/name_model/*.entity'
+	 * @param folder
+	 * @param modelName
+	 * @return the ".model" file
+	 * @throws IOException
+	 */
+	public File write(File folder, String modelName) throws IOException {
+		File modelFile = new File(folder, modelName + ".model");
+		String properties = "name=" + modelName + "\nversion=1.0\ndescription=Synthetic model\n" ;
+		Files.write(modelFile.toPath(), properties.getBytes(StandardCharsets.UTF_8));
+		File modelFolder = new File(folder, modelName + "_model");
+		modelFolder.mkdirs();
+		for ( int e = 0 ; e < entitiesCount ; e++ ) {
+			File entityFile = new File(modelFolder, getEntityName(e) + ".entity");
+			Files.write(entityFile.toPath(), getEntityContent(e).getBytes(StandardCharsets.UTF_8));
+		}
+		return modelFile ;
+	}
+
+	/**
+	 * Deletes the model written in the given folder 
+	 * @param folder
+	 */
+	public static void delete(File folder) {
+		File[] files = folder.listFiles();
+		if ( files != null ) {
+			for ( File file : files ) {
+				if ( file.isDirectory() ) {
+					delete(file);
+				}
+				else {
+					file.delete();
+				}
+			}
+		}
+		folder.delete();
+	}
+}
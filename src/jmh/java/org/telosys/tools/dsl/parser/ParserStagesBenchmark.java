@@ -0,0 +1,121 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telosys.tools.dsl.benchmark.SyntheticModel;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+
+/**
+ * Throughput of each parsing stage for all the entities of a synthetic model (in memory, no I/O) : <br>
+ * . preprocess : comments removing and text flattening ( ParserUtil.preprocessText ) <br>
+ * . annotationParsing : annotations of each field ( AnnotationParser ) <br>
+ * . fieldParsing : each field definition ( FieldParser, including the annotations ) <br>
+ * . entityParsing : each entity content ( EntityParser, all the stages ) <br>
+ * <br>
+ * Located in the parser package to call the stages directly (as the unit tests do) <br>
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="ParserStagesBenchmark -prof gc"
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class ParserStagesBenchmark {
+
+	@Param({ "100", "1000" })
+	public int entitiesCount ;
+
+	@Param({ "20" })
+	public int fieldsPerEntity ;
+
+	@Param({ "2" })
+	public int annotationsPerField ;
+
+	@Param({ "0.2" })
+	public double referenceDensity ;
+
+	private SyntheticModel syntheticModel ;
+
+	private DomainModel model ;
+
+	private String[] entitiesContents ;
+
+	@Setup
+	public void setup() {
+		syntheticModel = new SyntheticModel(entitiesCount, fieldsPerEntity, annotationsPerField, referenceDensity);
+		model = new DomainModel("benchmark");
+		entitiesContents = new String[entitiesCount];
+		for ( int e = 0 ; e < entitiesCount ; e++ ) {
+			model.addEntity(new DomainEntity(syntheticModel.getEntityName(e)));
+			entitiesContents[e] = syntheticModel.getEntityContent(e);
+		}
+	}
+
+	@Benchmark
+	public void preprocess(Blackhole blackhole) {
+		for ( String content : entitiesContents ) {
+			blackhole.consume(ParserUtil.preprocessText(content));
+		}
+	}
+
+	@Benchmark
+	public void annotationParsing(Blackhole blackhole) {
+		AnnotationParser annotationParser = new AnnotationParser();
+		for ( int e = 0 ; e < entitiesCount ; e++ ) {
+			String entityName = syntheticModel.getEntityName(e);
+			for ( String annotations : syntheticModel.getAnnotationsDefinitions(e) ) {
+				blackhole.consume(annotationParser.parseAnnotations(entityName, "field", annotations));
+			}
+		}
+	}
+
+	@Benchmark
+	public void fieldParsing(Blackhole blackhole) {
+		FieldParser fieldParser = new FieldParser(model);
+		for ( int e = 0 ; e < entitiesCount ; e++ ) {
+			String entityName = syntheticModel.getEntityName(e);
+			for ( String field : syntheticModel.getFieldsDefinitions(e) ) {
+				blackhole.consume(fieldParser.parseField(entityName, field));
+			}
+		}
+	}
+
+	@Benchmark
+	public void entityParsing(Blackhole blackhole) {
+		EntityParser entityParser = new EntityParser(model);
+		for ( int e = 0 ; e < entitiesCount ; e++ ) {
+			blackhole.consume(entityParser.parseContent(entitiesContents[e], syntheticModel.getEntityName(e)));
+		}
+	}
+}
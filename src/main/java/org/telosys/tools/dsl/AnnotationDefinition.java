@@ -0,0 +1,78 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl;
+
+/**
+ * Definition of a known annotation : its name, the kind of parameter it expects and the validator of this parameter
+ *
+ */
+public final class AnnotationDefinition {
+
+	private final String name ;
+	private final AnnotationParameterKind parameterKind ;
+	private final AnnotationParameterValidator parameterValidator ;
+
+	/**
+	 * Constructor with the standard validator for the given kind of parameter
+	 * @param name the annotation name ( e.g. 'Id', 'Max' )
+	 * @param parameterKind
+	 */
+	public AnnotationDefinition(String name, AnnotationParameterKind parameterKind) {
+		this(name, parameterKind, AnnotationParameterValidators.forKind(parameterKind));
+	}
+
+	/**
+	 * Constructor with a specific validator 
+	 * @param name the annotation name ( e.g. 'Id', 'Max' )
+	 * @param parameterKind
+	 * @param parameterValidator the validator (or null if no parameter is expected)
+	 */
+	public AnnotationDefinition(String name, AnnotationParameterKind parameterKind, AnnotationParameterValidator parameterValidator) {
+		super();
+		this.name = name;
+		this.parameterKind = parameterKind;
+		this.parameterValidator = parameterValidator;
+	}
+
+	/**
+	 * Returns the annotation name ( e.g. 'Id', 'Max' )
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the kind of parameter expected by the annotation
+	 * @return
+	 */
+	public AnnotationParameterKind getParameterKind() {
+		return parameterKind;
+	}
+
+	/**
+	 * Returns the validator of the parameter 
+	 * @return the validator (or null if the annotation has no parameter)
+	 */
+	public AnnotationParameterValidator getParameterValidator() {
+		return parameterValidator;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + parameterKind + ")" ;
+	}
+}
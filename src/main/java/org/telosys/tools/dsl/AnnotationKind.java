@@ -0,0 +1,89 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kind of a known annotation <br>
+ * Resolved once when the annotation is created ( no more name comparisons after the parsing ) <br>
+ * Each kind has a bit in an 'int' mask ( the annotations of a field are summarized in a single mask )
+ *
+ */
+public enum AnnotationKind {
+
+	ID(AnnotationName.ID),
+	AUTO_INCREMENTED(AnnotationName.AUTO_INCREMENTED),
+
+	NOT_NULL(AnnotationName.NOT_NULL),
+	NOT_EMPTY(AnnotationName.NOT_EMPTY),
+	NOT_BLANK(AnnotationName.NOT_BLANK),
+
+	MIN(AnnotationName.MIN),
+	MAX(AnnotationName.MAX),
+	SIZE_MIN(AnnotationName.SIZE_MIN),
+	SIZE_MAX(AnnotationName.SIZE_MAX),
+	PAST(AnnotationName.PAST),
+	FUTURE(AnnotationName.FUTURE),
+
+	PRIMITIVE_TYPE(AnnotationName.PRIMITIVE_TYPE),
+	UNSIGNED_TYPE(AnnotationName.UNSIGNED_TYPE),
+	OBJECT_TYPE(AnnotationName.OBJECT_TYPE),
+	SQL_TYPE(AnnotationName.SQL_TYPE),
+
+	LONG_TEXT(AnnotationName.LONG_TEXT),
+
+	EMBEDDED(AnnotationName.EMBEDDED);
+
+	private static final Map<String, AnnotationKind> kindsByName = new HashMap<String, AnnotationKind>();
+	static {
+		for ( AnnotationKind kind : values() ) {
+			kindsByName.put(kind.annotationName, kind);
+		}
+	}
+
+	private final String annotationName ;
+
+	private AnnotationKind(String annotationName) {
+		this.annotationName = annotationName ;
+	}
+
+	/**
+	 * Returns the annotation name ( e.g. 'Id', 'Max' )
+	 * @return
+	 */
+	public String getAnnotationName() {
+		return annotationName ;
+	}
+
+	/**
+	 * Returns the bit of this kind in a mask of kinds
+	 * @return
+	 */
+	public int getMask() {
+		return 1 << ordinal() ;
+	}
+
+	/**
+	 * Returns the kind of the given annotation
+	 * @param annotationName the annotation name without '@' ( e.g. 'Id', 'Max' )
+	 * @return the kind (or null if the annotation is unknown)
+	 */
+	public static AnnotationKind fromName(String annotationName) {
+		return kindsByName.get(annotationName);
+	}
+}
@@ -0,0 +1,28 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl;
+
+/**
+ * Kind of parameter expected by an annotation
+ *
+ */
+public enum AnnotationParameterKind {
+
+	NONE,     // no parameter, e.g. '@Id'
+	INTEGER,  // integer parameter required, e.g. '@SizeMax(20)' ( '%' marker in the keywords list )
+	DECIMAL   // decimal parameter required, e.g. '@Min(0.5)' ( '#' marker in the keywords list )
+
+}
@@ -0,0 +1,157 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl;
+
+import java.math.BigDecimal;
+
+/**
+ * Standard validators for the annotations parameters ( stateless, shared by all the definitions ) 
+ *
+ */
+public final class AnnotationParameterValidators {
+
+	/**
+	 * Integer parameter required, e.g. '@SizeMax(20)' 
+	 */
+	public static final AnnotationParameterValidator INTEGER = new AnnotationParameterValidator() {
+		@Override
+		public Number validate(String parameterValue) {
+			// Integer value ( checked before conversion : no NumberFormatException )
+			if ( ! isInteger(parameterValue) ) {
+				return null ;
+			}
+			long value = Long.parseLong(parameterValue);
+			if ( value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ) {
+				return null ;
+			}
+			return Integer.valueOf((int) value) ;
+		}
+		@Override
+		public String getErrorMessage() {
+			return "integer parameter required " ;
+		}
+	};
+
+	/**
+	 * Decimal parameter required, e.g. '@Min(0.5)' 
+	 */
+	public static final AnnotationParameterValidator DECIMAL = new AnnotationParameterValidator() {
+		@Override
+		public Number validate(String parameterValue) {
+			// Decimal value ( checked before conversion : no NumberFormatException )
+			if ( ! isDecimal(parameterValue) ) {
+				return null ;
+			}
+			return new BigDecimal(parameterValue) ;
+		}
+		@Override
+		public String getErrorMessage() {
+			return "numeric parameter required " ;
+		}
+	};
+
+	private AnnotationParameterValidators() {
+	}
+
+	/**
+	 * Returns the standard validator for the given kind of parameter 
+	 * @param parameterKind
+	 * @return the validator (or null if no parameter is expected)
+	 */
+	public static AnnotationParameterValidator forKind(AnnotationParameterKind parameterKind) {
+		switch ( parameterKind ) {
+		case INTEGER :
+			return INTEGER ;
+		case DECIMAL :
+			return DECIMAL ;
+		default :
+			return null ;
+		}
+	}
+
+	/**
+	 * Returns true if the given value is an integer with at most 18 digits ( optional sign + digits )
+	 * @param value
+	 * @return
+	 */
+	private static boolean isInteger(String value) {
+		if ( value == null ) {
+			return false ;
+		}
+		int start = ( value.length() > 0 && ( value.charAt(0) == '-' || value.charAt(0) == '+' ) ) ? 1 : 0 ;
+		int digits = value.length() - start ;
+		if ( digits == 0 || digits > 18 ) {
+			return false ;
+		}
+		for ( int i = start ; i < value.length() ; i++ ) {
+			if ( value.charAt(i) < '0' || value.charAt(i) > '9' ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	/**
+	 * Returns true if the given value is a decimal accepted by BigDecimal <br>
+	 * ( optional sign, digits with an optional '.', optional exponent ) 
+	 * @param value
+	 * @return
+	 */
+	private static boolean isDecimal(String value) {
+		if ( value == null ) {
+			return false ;
+		}
+		int length = value.length();
+		int i = 0 ;
+		if ( i < length && ( value.charAt(i) == '-' || value.charAt(i) == '+' ) ) {
+			i++ ;
+		}
+		int digits = 0 ;
+		boolean dotFound = false ;
+		while ( i < length ) {
+			char c = value.charAt(i);
+			if ( c >= '0' && c <= '9' ) {
+				digits++ ;
+			}
+			else if ( c == '.' && ! dotFound ) {
+				dotFound = true ;
+			}
+			else {
+				break ;
+			}
+			i++ ;
+		}
+		if ( digits == 0 ) {
+			return false ;
+		}
+		if ( i < length && ( value.charAt(i) == 'e' || value.charAt(i) == 'E' ) ) {
+			// exponent : at least one digit ( the exponent must be an int : 9 digits max )
+			i++ ;
+			if ( i < length && ( value.charAt(i) == '-' || value.charAt(i) == '+' ) ) {
+				i++ ;
+			}
+			int exponentDigits = 0 ;
+			while ( i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9' ) {
+				exponentDigits++ ;
+				i++ ;
+			}
+			if ( exponentDigits == 0 || exponentDigits > 9 ) {
+				return false ;
+			}
+		}
+		return i == length ;
+	}
+}
@@ -16,16 +16,25 @@
 package org.telosys.tools.dsl;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.Map;
 import java.util.Properties;
 
 import org.telosys.tools.commons.PropertiesManager;
 import org.telosys.tools.dsl.generic.converter.Converter;
 import org.telosys.tools.dsl.parser.DomainModelParser;
-import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.dsl.parser.DomainModelParsingResult;
+import org.telosys.tools.dsl.parser.IncrementalDomainModelParser;
 import org.telosys.tools.dsl.parser.model.DomainModelInfo;
 import org.telosys.tools.generic.model.Model;
 
+/**
+ * Model loading <br>
+ * The 'load' methods are stateless (the errors are returned in a 'ModelLoadResult') <br>
+ * The 'loadModel' methods keep the errors of the last loading in the manager ( not thread-safe )
+ *
+ */
 public class DslModelManager {
 
     //static Logger logger = LoggerFactory.getLogger(DslModelManager.class);
@@ -73,36 +82,102 @@ public class DslModelManager {
 //        Model model = converter.convertToGenericModel(domainModel);
 //        logger.info(model.toString());
 
+        //--- Stateless loading, then keep error information
+        return keepErrors(load(modelFile));
+    }
+
+    /**
+     * Loads (parse) the given model file with the given incremental parser <br>
+     * ( only the entities changed since the previous call with the same parser are parsed )
+     *
+     * @param modelFile the ".model" file 
+     * @param incrementalParser the parser to be reused for each loading of the same model file
+     * 
+     * @return the model or null if errors during parsing 
+     */
+    public Model loadModel(File modelFile, IncrementalDomainModelParser incrementalParser) {
+        return keepErrors(load(modelFile, incrementalParser));
+    }
+
+    private Model keepErrors(ModelLoadResult result) {
+    	if ( result.hasErrors() ) {
+        	parsingErrorMessage = result.getErrorMessage();
+        	parsingErrors = new Hashtable<String,String>(result.getErrors());
+    	}
+    	return result.getModel();
+    }
+
+    /**
+     * Loads (parse and convert) the given model file <br>
+     * Stateless method : the errors are returned in the result (the manager can be shared by several threads)
+     *
+     * @param modelFile the ".model" file 
+     * @return the result (never null)
+     */
+    public ModelLoadResult load(File modelFile) {
         //--- 1) Parse the model 
-        DomainModelParser domainModelParser = new DomainModelParser();
-        DomainModel domainModel = null ;
-        Exception parsingException = null ;
-		try {
-			domainModel = domainModelParser.parse(modelFile);
-		} catch (EntityParserException e) {
-			parsingException = e ;
-		}
-		
-        if ( parsingException != null ) {
-        	//--- 2) Keep error information
-        	parsingErrorMessage   = parsingException.getMessage();
-        	parsingErrors = domainModelParser.getErrors();
-            return null;
+    	long start = System.nanoTime();
+        DomainModelParsingResult parsingResult ;
+        try {
+        	parsingResult = new DomainModelParser().parseModel(modelFile);
+        } catch (EntityParserException e) {
+        	// invalid model file, duplicated entity name, etc
+        	return parsingError(e, System.nanoTime() - start);
         }
-        else {
-            //--- 2) Convert the "domain model" to "generic model" 
-            Converter converter = new Converter();
-			try {
-				return converter.convertToGenericModel(domainModel);
-			} catch (Exception e) {
-				parsingErrorMessage = "Converter error : " + e.getMessage() ;
-				parsingErrors = new Hashtable<String,String>();
-				parsingErrors.put("", parsingErrorMessage );
-				return null ;
-			}
-            //logger.info(model.toString());
-            //return model;
+        return convertModel(parsingResult, System.nanoTime() - start);
+    }
+
+    /**
+     * Loads (parse and convert) the given model file with the given incremental parser <br>
+     * Stateless method : the errors are returned in the result (the manager can be shared by several threads)
+     *
+     * @param modelFile the ".model" file 
+     * @param incrementalParser the parser to be reused for each loading of the same model file
+     * @return the result (never null)
+     */
+    public ModelLoadResult load(File modelFile, IncrementalDomainModelParser incrementalParser) {
+        //--- 1) Parse the model (changes only)
+    	long start = System.nanoTime();
+        DomainModelParsingResult parsingResult ;
+        try {
+        	parsingResult = incrementalParser.parseModel(modelFile);
+        } catch (EntityParserException e) {
+        	// invalid model file, duplicated entity name, etc
+        	return parsingError(e, System.nanoTime() - start);
         }
+        return convertModel(parsingResult, System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the result for a parsing error not related to an entity file ( no error per file )
+     * @param exception
+     * @param parsingTime
+     * @return
+     */
+    private ModelLoadResult parsingError(EntityParserException exception, long parsingTime) {
+		return new ModelLoadResult(null, exception.getMessage(), new HashMap<String,String>(), 
+				exception.getDiagnostics(), parsingTime, 0);
+    }
+
+    private ModelLoadResult convertModel(DomainModelParsingResult parsingResult, long parsingTime) {
+    	if ( parsingResult.hasErrors() ) {
+    		return new ModelLoadResult(null, parsingResult.getErrorMessage(), parsingResult.getErrors(), 
+    				parsingResult.getDiagnostics(), parsingTime, 0);
+    	}
+        //--- 2) Convert the "domain model" to "generic model" 
+    	long start = System.nanoTime();
+        Converter converter = new Converter();
+		try {
+			Model model = converter.convertToGenericModel(parsingResult.getModel());
+			return new ModelLoadResult(model, null, parsingResult.getErrors(), parsingResult.getDiagnostics(), 
+					parsingTime, System.nanoTime() - start);
+		} catch (Exception e) {
+			String errorMessage = "Converter error : " + e.getMessage() ;
+			Map<String,String> errors = new HashMap<String,String>();
+			errors.put("", errorMessage );
+			return new ModelLoadResult(null, errorMessage, errors, parsingResult.getDiagnostics(), 
+					parsingTime, System.nanoTime() - start);
+		}
     }
 
     /**
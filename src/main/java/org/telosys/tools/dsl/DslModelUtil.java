@@ -16,8 +16,19 @@
 package org.telosys.tools.dsl;
 
 import java.io.File;
-import java.util.LinkedList;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.telosys.tools.commons.DirUtil;
 import org.telosys.tools.commons.FileUtil;
@@ -29,8 +40,11 @@ public class DslModelUtil {
 	
 	private static final String MODELS_FOLDER_NAME  = TelosysToolsEnv.getInstance().getModelsFolder() ;
     private static final String DOT_MODEL           = ".model"  ;
-    private static final String DOT_ENTITY          = ".entity" ;
+    static final String DOT_ENTITY                  = ".entity" ;
     private static final String MODEL_FOLDER_SUFFIX = "_model"  ;
+    
+    // number of files 'stat-ed' by each task in a concurrent scan
+    private static final int ENTITIES_PER_STAT_TASK = 64 ;
 
     //-------------------------------------------------------------------------------------------------
     // Names from file name
@@ -90,10 +104,17 @@ public class DslModelUtil {
      * @return
      */
     public static File getModelFolder(File modelFile) {
+    	return getModelFolderPath(modelFile).toFile();
+    }
+    
+    /**
+     * Returns the absolute path of the model folder "xxx_model" for the given model file "xxx.model"
+     * @param modelFile
+     * @return
+     */
+    private static Path getModelFolderPath(File modelFile) {
     	String modelName = getModelName(modelFile) ;
-    	String modelFolderAbsolutePath = modelFile.getParentFile().getAbsolutePath() 
-    			+ "/" + modelName + MODEL_FOLDER_SUFFIX ;
-    	return new File(modelFolderAbsolutePath);
+    	return modelFile.getAbsoluteFile().toPath().resolveSibling(modelName + MODEL_FOLDER_SUFFIX);
     }
     
     /**
@@ -104,23 +125,123 @@ public class DslModelUtil {
      * @return
      */
     public static List<String> getEntitiesAbsoluteFileNames(File modelFile) {
-
-    	File modelFolder = getModelFolder(modelFile);
-    	if ( modelFolder.exists() ) {
-            List<String> entities = new LinkedList<String>();
-
-            String[] allFiles = modelFolder.list();
-            for (String fileName : allFiles) {
-            	if ( fileName.endsWith(DslModelUtil.DOT_ENTITY)) {
-            		entities.add( modelFolder.getAbsolutePath() + "/" + fileName ) ;
-            	}
-            }
-            return entities;
+    	List<EntityFileDescriptor> entitiesFiles = getEntitiesFiles(modelFile, null);
+    	List<String> entities = new ArrayList<String>(entitiesFiles.size());
+    	for ( EntityFileDescriptor entityFile : entitiesFiles ) {
+    		entities.add( entityFile.getPath().toString() ) ;
     	}
-    	else {
-            String textError = "Model folder '"+ modelFolder.getAbsolutePath() + "' not found";
+    	return entities;
+    }
+    
+    /**
+     * Returns all the entities files located in the model folder (sorted by file name) <br>
+     * The folder is listed once and each file is 'stat-ed' once (size and modification time) <br>
+     * If an executor is given, the files attributes are read concurrently (useful on network file systems)
+     * 
+     * @param modelFile
+     * @param executor the executor used to read the files attributes (or null to read them in the current thread)
+     * @return
+     */
+    public static List<EntityFileDescriptor> getEntitiesFiles(File modelFile, ExecutorService executor) {
+    	Path modelFolder = getModelFolderPath(modelFile);
+    	if ( ! Files.isDirectory(modelFolder) ) {
+            String textError = "Model folder '"+ modelFolder + "' not found";
             throw new RuntimeException(textError);
     	}
+    	//--- Single listing of the folder 
+    	List<Path> paths = new ArrayList<Path>();
+    	try {
+    		DirectoryStream<Path> directoryStream = Files.newDirectoryStream(modelFolder, "*" + DOT_ENTITY);
+    		try {
+    			for ( Path path : directoryStream ) {
+    				paths.add(path);
+    			}
+    		} finally {
+    			directoryStream.close();
+    		}
+    	} catch (IOException e) {
+            throw new RuntimeException("Cannot list model folder '"+ modelFolder + "'", e);
+    	}
+    	//--- Files attributes 
+    	List<EntityFileDescriptor> entitiesFiles ;
+    	if ( executor != null && paths.size() > ENTITIES_PER_STAT_TASK ) {
+    		entitiesFiles = readEntitiesFilesConcurrently(paths, executor);
+    	}
+    	else {
+    		entitiesFiles = readEntitiesFiles(paths, 0, paths.size());
+    	}
+    	// always the same order ( whatever the files system ) 
+    	Collections.sort(entitiesFiles);
+    	return entitiesFiles ;
+    }
+    
+    private static List<EntityFileDescriptor> readEntitiesFilesConcurrently(final List<Path> paths, ExecutorService executor) {
+    	List<Future<List<EntityFileDescriptor>>> futures = new ArrayList<Future<List<EntityFileDescriptor>>>();
+    	for ( int start = 0 ; start < paths.size() ; start += ENTITIES_PER_STAT_TASK ) {
+    		final int from = start ;
+    		final int to = Math.min(start + ENTITIES_PER_STAT_TASK, paths.size());
+    		futures.add( executor.submit(new Callable<List<EntityFileDescriptor>>() {
+				@Override
+				public List<EntityFileDescriptor> call() {
+					return readEntitiesFiles(paths, from, to);
+				}
+			}) );
+    	}
+    	List<EntityFileDescriptor> entitiesFiles = new ArrayList<EntityFileDescriptor>(paths.size());
+    	for ( Future<List<EntityFileDescriptor>> future : futures ) {
+    		try {
+    			entitiesFiles.addAll(future.get());
+    		} catch (ExecutionException e) {
+    			Throwable cause = e.getCause();
+				if ( cause instanceof RuntimeException ) {
+					throw (RuntimeException) cause ;
+				}
+				throw new IllegalStateException("Cannot read entities files attributes", cause);
+    		} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while reading entities files attributes");
+    		}
+    	}
+    	return entitiesFiles ;
+    }
+    
+    /**
+     * Reads the attributes of the given entities files (from index 'from' to index 'to' excluded) <br>
+     * A file removed after the listing is ignored <br>
+     * A file that cannot be 'stat-ed' for any other reason is kept with an unknown size and time, 
+     * so that the parser reports the error when reading it
+     * @param paths
+     * @param from
+     * @param to
+     * @return
+     */
+    static List<EntityFileDescriptor> readEntitiesFiles(List<Path> paths, int from, int to) {
+    	List<EntityFileDescriptor> entitiesFiles = new ArrayList<EntityFileDescriptor>(to - from);
+    	for ( int i = from ; i < to ; i++ ) {
+    		Path path = paths.get(i);
+    		String fileName = path.getFileName().toString();
+    		if ( fileName.length() <= DOT_ENTITY.length() ) {
+    			continue ; // no entity name 
+    		}
+    		String entityName = fileName.substring(0, fileName.length() - DOT_ENTITY.length());
+    		BasicFileAttributes attributes ;
+    		try {
+    			// a single 'stat' for the type, the size and the time
+    			attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    		} catch (NoSuchFileException e) {
+    			continue ; // removed after the listing 
+    		} catch (IOException e) {
+    			// not readable : "Cannot read file" error reported by the parser 
+    			entitiesFiles.add(new EntityFileDescriptor(path, entityName, 
+    					EntityFileDescriptor.UNKNOWN, EntityFileDescriptor.UNKNOWN));
+    			continue ;
+    		}
+    		if ( attributes.isRegularFile() ) {
+    			entitiesFiles.add(new EntityFileDescriptor(path, entityName, 
+    					attributes.size(), attributes.lastModifiedTime().toMillis()));
+    		}
+    	}
+    	return entitiesFiles ;
     }
     
     /**
@@ -130,13 +251,12 @@ public class DslModelUtil {
      * @return
      */
     public static File buildEntityFile(File modelFile, String entityName) {
-    	File modelFolder = getModelFolder(modelFile);
-    	if ( modelFolder.exists() && modelFolder.isDirectory() ) {
-    		String absoluteFileName = modelFolder.getAbsolutePath() + "/" + entityName + DOT_ENTITY ;
-    		return new File(absoluteFileName);
+    	Path modelFolder = getModelFolderPath(modelFile);
+    	if ( Files.isDirectory(modelFolder) ) {
+    		return modelFolder.resolve(entityName + DOT_ENTITY).toFile();
     	}
     	else {
-            throw new RuntimeException("Invalid model folder '" + modelFolder.getName() + "'");
+            throw new RuntimeException("Invalid model folder '" + modelFolder.getFileName() + "'");
     	}
     }
     
@@ -224,9 +344,11 @@ public class DslModelUtil {
      * @param modelFile the model file defining the model for the entity to be created
      * @param entityName the entity name ( e.g. 'Book' or 'Car' )
      * @return the entity file 
+     * @throws IllegalArgumentException if the entity name is invalid
      */
     public static File createNewEntity(File modelFile, String entityName) {
     	String entityNameInModel = StrUtil.capitalize(entityName);
+    	IdentifierRules.checkEntityName(entityNameInModel);
     	StringBuffer sb = new StringBuffer();
     	sb.append("// Entity "); sb.append(entityNameInModel); sb.append("\n");
     	sb.append("\n");
@@ -249,7 +371,14 @@ public class DslModelUtil {
     	}
     }
 
+    /**
+     * Renames the given entity file 
+     * @param currentEntityFile
+     * @param newEntityName
+     * @throws IllegalArgumentException if the new entity name is invalid
+     */
     public static void renameEntity(File currentEntityFile, String newEntityName) {
+    	IdentifierRules.checkEntityName(newEntityName);
     	String newEntityFileName = currentEntityFile.getParentFile().getAbsolutePath() + "/" + newEntityName + DOT_ENTITY ;
     	File newEntityFile = new File(newEntityFileName) ;
     	boolean renamed = currentEntityFile.renameTo( newEntityFile );
@@ -0,0 +1,116 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * Entity file found in a model folder ( path, entity name, size and last modification time ) <br>
+ * Built by 'DslModelUtil.getEntitiesFiles' with a single 'stat' per file
+ *
+ */
+public final class EntityFileDescriptor implements Comparable<EntityFileDescriptor> {
+
+	/**
+	 * Size or time of a file whose attributes cannot be read
+	 */
+	public static final long UNKNOWN = -1 ;
+
+	private final Path   path ;
+	private final String fileName ;
+	private final String entityName ;
+	private final long   size ;
+	private final long   lastModified ;
+
+	/**
+	 * Constructor
+	 * @param path the absolute path of the entity file
+	 * @param entityName the entity name ( e.g. 'Car' for 'Car.entity' )
+	 * @param size the file size (in bytes)
+	 * @param lastModified the last modification time (in milliseconds)
+	 */
+	public EntityFileDescriptor(Path path, String entityName, long size, long lastModified) {
+		super();
+		this.path = path;
+		this.fileName = path.getFileName().toString();
+		this.entityName = entityName;
+		this.size = size;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Returns the absolute path of the entity file
+	 * @return
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Returns the entity file 
+	 * @return
+	 */
+	public File getFile() {
+		return path.toFile();
+	}
+
+	/**
+	 * Returns the entity file name ( e.g. 'Car.entity' )
+	 * @return
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * Returns the entity name ( e.g. 'Car' )
+	 * @return
+	 */
+	public String getEntityName() {
+		return entityName;
+	}
+
+	/**
+	 * Returns the file size (in bytes) or UNKNOWN if the file attributes cannot be read
+	 * @return
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the last modification time (in milliseconds, same value as 'File.lastModified()') <br>
+	 * or UNKNOWN if the file attributes cannot be read
+	 * @return
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Order by file name
+	 */
+	@Override
+	public int compareTo(EntityFileDescriptor other) {
+		return fileName.compareTo(other.fileName);
+	}
+
+	@Override
+	public String toString() {
+		return path + " (" + size + " bytes)" ;
+	}
+}
@@ -15,6 +15,11 @@
  */
 package org.telosys.tools.dsl;
 
+import java.util.Collections;
+import java.util.List;
+
+import org.telosys.tools.dsl.parser.Diagnostic;
+
 public class EntityParserException extends RuntimeException {
 
     /**
@@ -22,7 +27,45 @@ public class EntityParserException extends RuntimeException {
      */
     private static final long serialVersionUID = 1L;
 
+    private final List<Diagnostic> diagnostics ;
+
     public EntityParserException(String message) {
         super(message);
+        this.diagnostics = Collections.emptyList();
+    }
+
+    /**
+     * Constructor for the parsing errors reported with diagnostics <br>
+     * ( lightweight exception : no stack trace, the diagnostics give the errors positions )
+     * @param message
+     * @param diagnostics
+     */
+    public EntityParserException(String message, List<Diagnostic> diagnostics) {
+        super(message, null, false, false);
+        this.diagnostics = Collections.unmodifiableList(diagnostics);
+    }
+
+    /**
+     * Returns the parsing errors at the origin of this exception (void list if none)
+     * @return
+     */
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Returns the line of the first parsing error (starting at 1, or 0 if unknown)
+     * @return
+     */
+    public int getLine() {
+        return diagnostics.isEmpty() ? 0 : diagnostics.get(0).getLine();
+    }
+
+    /**
+     * Returns the column of the first parsing error (starting at 1, or 0 if unknown)
+     * @return
+     */
+    public int getColumn() {
+        return diagnostics.isEmpty() ? 0 : diagnostics.get(0).getColumn();
     }
 }
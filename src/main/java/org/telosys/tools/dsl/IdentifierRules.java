@@ -0,0 +1,114 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl;
+
+/**
+ * Rules for the identifiers of the DSL ( entity names and field names ) <br>
+ * Hand-written validators (no regular expression) shared by the parsers and the model utilities <br>
+ * . field name  : word chars only, same as "^[\w]*$" (not void) <br>
+ * . entity name : an upper case letter followed by word chars, same as "^[A-Z][\w]*$" <br>
+ * A word char is an ASCII letter, a digit or '_' ( same as '\w' in a regular expression ) <br>
+ * <br>
+ * Each rule exists for a String and for a slice of a char buffer ( e.g. the lexer flat text )
+ *
+ */
+public final class IdentifierRules {
+
+	private IdentifierRules() {
+	}
+
+	/**
+	 * Returns true if the given char is a word char ( ASCII letter, digit or '_' )
+	 * @param c
+	 * @return
+	 */
+	public static boolean isWordChar(char c) {
+		return ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' ) || ( c >= '0' && c <= '9' ) || c == '_' ;
+	}
+
+	private static boolean isWordChars(CharSequence s, int start, int end) {
+		for ( int i = start ; i < end ; i++ ) {
+			if ( ! isWordChar(s.charAt(i)) ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	private static boolean isWordChars(char[] buffer, int start, int end) {
+		for ( int i = start ; i < end ; i++ ) {
+			if ( ! isWordChar(buffer[i]) ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	/**
+	 * Returns true if the given name is a valid field name ( word chars only )
+	 * @param name
+	 * @return
+	 */
+	public static boolean isValidFieldName(CharSequence name) {
+		return name != null && name.length() > 0 && isWordChars(name, 0, name.length()) ;
+	}
+
+	/**
+	 * Returns true if the given slice is a valid field name ( word chars only )
+	 * @param buffer
+	 * @param start first char (included)
+	 * @param end last char (excluded)
+	 * @return
+	 */
+	public static boolean isValidFieldName(char[] buffer, int start, int end) {
+		return end > start && isWordChars(buffer, start, end) ;
+	}
+
+	/**
+	 * Returns true if the given name is a valid entity name ( 'A' to 'Z' followed by word chars )
+	 * @param name
+	 * @return
+	 */
+	public static boolean isValidEntityName(CharSequence name) {
+		return name != null && name.length() > 0 && isUpperCaseLetter(name.charAt(0)) && isWordChars(name, 1, name.length()) ;
+	}
+
+	/**
+	 * Returns true if the given slice is a valid entity name ( 'A' to 'Z' followed by word chars )
+	 * @param buffer
+	 * @param start first char (included)
+	 * @param end last char (excluded)
+	 * @return
+	 */
+	public static boolean isValidEntityName(char[] buffer, int start, int end) {
+		return end > start && isUpperCaseLetter(buffer[start]) && isWordChars(buffer, start + 1, end) ;
+	}
+
+	private static boolean isUpperCaseLetter(char c) {
+		return c >= 'A' && c <= 'Z' ;
+	}
+
+	/**
+	 * Checks the given entity name 
+	 * @param name
+	 * @throws IllegalArgumentException if the name is not a valid entity name
+	 */
+	public static void checkEntityName(String name) {
+		if ( ! isValidEntityName(name) ) {
+			throw new IllegalArgumentException("Invalid entity name '" + name + "'");
+		}
+	}
+}
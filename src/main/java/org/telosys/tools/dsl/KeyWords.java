@@ -16,8 +16,11 @@
 package org.telosys.tools.dsl;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.telosys.tools.dsl.parser.model.DomainNeutralTypes;
 
@@ -61,6 +64,29 @@ public class KeyWords {
 		// etc
 	} ;
 	
+	/**
+	 * Annotations definitions by annotation name (immutable, built once from the annotations list)
+	 */
+	private final static Map<String, AnnotationDefinition> annotationsDefinitions = buildAnnotationsDefinitions() ;
+	
+	private final static Map<String, AnnotationDefinition> buildAnnotationsDefinitions() {
+		Map<String, AnnotationDefinition> map = new HashMap<String, AnnotationDefinition>();
+		for ( String annotation : annotations ) {
+			AnnotationDefinition definition ;
+			if ( annotation.endsWith("%") ) {
+				definition = new AnnotationDefinition(annotation.substring(0, annotation.length()-1), AnnotationParameterKind.INTEGER);
+			}
+			else if ( annotation.endsWith("#") ) {
+				definition = new AnnotationDefinition(annotation.substring(0, annotation.length()-1), AnnotationParameterKind.DECIMAL);
+			}
+			else {
+				definition = new AnnotationDefinition(annotation, AnnotationParameterKind.NONE);
+			}
+			map.put(definition.getName(), definition);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+	
 	/**
 	 * Return the single line comment string (ie '//' )  <br>
 	 * @return
@@ -87,4 +113,13 @@ public class KeyWords {
 		return new LinkedList<String>(Arrays.asList(annotations));
 	}
 	
+	/**
+	 * Return the definition of the given annotation 
+	 * @param annotationName the annotation name without '@' ( e.g. 'Id', 'Max' )
+	 * @return the definition (or null if the annotation is unknown)
+	 */
+	public final static AnnotationDefinition getAnnotationDefinition(String annotationName) {
+		return annotationsDefinitions.get(annotationName);
+	}
+	
 }
\ No newline at end of file
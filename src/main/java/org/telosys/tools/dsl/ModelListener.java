@@ -0,0 +1,41 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl;
+
+import java.util.Map;
+
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Listener notified by a 'ModelWatcher' after each (re)loading of the model <br>
+ * The methods are called by the watcher thread (they are supposed to return quickly)
+ *
+ */
+public interface ModelListener {
+
+	/**
+	 * Called when a new version of the model has been loaded 
+	 * @param model the new model (a new instance for each loading)
+	 */
+	public void modelLoaded(Model model);
+
+	/**
+	 * Called when the model cannot be loaded ( the previous model is kept by the watcher )
+	 * @param errorMessage
+	 * @param errors the parsing errors ( Key : entity file name, Value : error ) in the files order
+	 */
+	public void modelLoadingFailed(String errorMessage, Map<String,String> errors);
+}
@@ -0,0 +1,120 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.telosys.tools.dsl.parser.Diagnostic;
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Immutable result of a model loading : the model or the errors, with the loading durations <br>
+ * ( returned by the stateless methods of 'DslModelManager' )
+ *
+ */
+public final class ModelLoadResult {
+
+	private final Model model ;
+	private final String errorMessage ;
+	private final Map<String,String> errors ;
+	private final List<Diagnostic> diagnostics ;
+	private final long parsingTime ;
+	private final long conversionTime ;
+
+	/**
+	 * Constructor 
+	 * @param model the model (or null if errors)
+	 * @param errorMessage the global error message (or null if no error)
+	 * @param errors the errors ( Key : entity file name, Value : first error of the file )
+	 * @param diagnostics all the parsing errors 
+	 * @param parsingTime the parsing duration (in nanoseconds)
+	 * @param conversionTime the conversion duration (in nanoseconds, 0 if no conversion)
+	 */
+	public ModelLoadResult(Model model, String errorMessage, Map<String,String> errors, List<Diagnostic> diagnostics,
+			long parsingTime, long conversionTime) {
+		super();
+		this.model = model;
+		this.errorMessage = errorMessage;
+		this.errors = Collections.unmodifiableMap(new LinkedHashMap<String,String>(errors));
+		this.diagnostics = Collections.unmodifiableList(new ArrayList<Diagnostic>(diagnostics));
+		this.parsingTime = parsingTime;
+		this.conversionTime = conversionTime;
+	}
+
+	/**
+	 * Returns the model or null if the model cannot be loaded
+	 * @return
+	 */
+	public Model getModel() {
+		return model;
+	}
+
+	public boolean hasErrors() {
+		return model == null ;
+	}
+
+	/**
+	 * Returns the global error message (or null if no error)
+	 * @return
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * Returns the errors ( Key : entity file name, Value : first error of the file ) 
+	 * @return
+	 */
+	public Map<String,String> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Returns all the parsing errors (with file, line and column)
+	 * @return
+	 */
+	public List<Diagnostic> getDiagnostics() {
+		return diagnostics;
+	}
+
+	/**
+	 * Returns the parsing duration (in nanoseconds)
+	 * @return
+	 */
+	public long getParsingTime() {
+		return parsingTime;
+	}
+
+	/**
+	 * Returns the conversion duration (in nanoseconds)
+	 * @return
+	 */
+	public long getConversionTime() {
+		return conversionTime;
+	}
+
+	/**
+	 * Returns the total loading duration (in nanoseconds)
+	 * @return
+	 */
+	public long getTotalTime() {
+		return parsingTime + conversionTime ;
+	}
+}
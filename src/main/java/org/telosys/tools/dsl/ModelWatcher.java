@@ -0,0 +1,288 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.telosys.tools.dsl.parser.IncrementalDomainModelParser;
+import org.telosys.tools.generic.model.Model;
+
+/**
+ * Live model reloading based on the file system notifications ( no polling ) <br>
+ * The watcher observes the ".model" file and the entities files in the "xxx_model" folder. <br>
+ * A burst of events (editor saving several files, copy of a folder, etc) is collected until 
+ * no more event occurs during the "debounce delay", then the model is reloaded with an 
+ * incremental parser ( only the changed entities are parsed ) and the new model is published 
+ * to the listeners. <br>
+ * <br>
+ * Each published 'Model' is a new instance (never modified after its publication). <br>
+ * If the model cannot be loaded the listeners are notified and the last valid model is kept. 
+ *
+ */
+public class ModelWatcher {
+
+	public static final long DEFAULT_DEBOUNCE_DELAY = 200 ; // milliseconds
+
+	// maximum time spent collecting a continuous flow of events ( in number of debounce delays )
+	private static final int MAX_DEBOUNCE_DELAYS = 10 ;
+
+	private final File modelFile ;
+	private final Path modelFilePath ;
+	private final Path modelFolderPath ;
+	private final long debounceDelay ;
+
+	private final IncrementalDomainModelParser parser = new IncrementalDomainModelParser();
+	private final List<ModelListener> listeners = new CopyOnWriteArrayList<ModelListener>();
+
+	private volatile Model model = null ;
+
+	private WatchService watchService = null ;
+	private WatchKey modelFolderKey = null ;
+	private Thread thread = null ;
+
+	/**
+	 * Constructor 
+	 * @param modelFile the ".model" file 
+	 */
+	public ModelWatcher(File modelFile) {
+		this(modelFile, DEFAULT_DEBOUNCE_DELAY);
+	}
+
+	/**
+	 * Constructor 
+	 * @param modelFile the ".model" file 
+	 * @param debounceDelay the delay without event before reloading the model (in milliseconds)
+	 */
+	public ModelWatcher(File modelFile, long debounceDelay) {
+		if ( modelFile == null ) {
+			throw new IllegalArgumentException("model file is null");
+		}
+		this.modelFile = modelFile.getAbsoluteFile() ;
+		this.modelFilePath = this.modelFile.toPath() ;
+		this.modelFolderPath = DslModelUtil.getModelFolder(this.modelFile).toPath() ;
+		this.debounceDelay = debounceDelay ;
+	}
+
+	public void addListener(ModelListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(ModelListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Returns the last valid model (or null if the model has never been loaded)
+	 * @return
+	 */
+	public Model getModel() {
+		return model ;
+	}
+
+	/**
+	 * Returns true if the watcher is started
+	 * @return
+	 */
+	public synchronized boolean isStarted() {
+		return thread != null ;
+	}
+
+	/**
+	 * Loads the model a first time and starts watching the files (in a daemon thread)
+	 */
+	public synchronized void start() {
+		if ( thread != null ) {
+			throw new IllegalStateException("Model watcher already started");
+		}
+		try {
+			watchService = modelFilePath.getFileSystem().newWatchService();
+			// the parent folder contains the ".model" file and the "xxx_model" folder
+			modelFilePath.getParent().register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+		} catch (IOException e) {
+			throw new RuntimeException("Cannot watch model '" + modelFile.getName() + "'", e);
+		}
+		registerModelFolder();
+		reload();
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				watch();
+			}
+		}, "ModelWatcher-" + modelFile.getName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops watching the files (waits for the end of the current reloading if any)
+	 */
+	public void stop() {
+		Thread watcherThread ;
+		synchronized (this) {
+			watcherThread = thread ;
+			thread = null ;
+			if ( watchService != null ) {
+				try {
+					watchService.close();
+				} catch (IOException e) {
+					// nothing to do : the watcher thread ends anyway
+				}
+				watchService = null ;
+			}
+		}
+		if ( watcherThread != null && watcherThread != Thread.currentThread() ) {
+			watcherThread.interrupt();
+			try {
+				watcherThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Reloads the model immediately (only the changed entities are parsed) and notifies the listeners
+	 * @return the new model or null if the model cannot be loaded
+	 */
+	public synchronized Model reload() {
+		Model newModel ;
+		String errorMessage ;
+		Map<String,String> errors ;
+		try {
+			ModelLoadResult result = new DslModelManager().load(modelFile, parser);
+			newModel = result.getModel();
+			errorMessage = result.getErrorMessage();
+			errors = result.getErrors();
+		} catch (RuntimeException e) {
+			// no model folder, model file removed, etc 
+			newModel = null ;
+			errorMessage = e.getMessage();
+			errors = Collections.emptyMap();
+		}
+		if ( newModel != null ) {
+			model = newModel ;
+			for ( ModelListener listener : listeners ) {
+				listener.modelLoaded(newModel);
+			}
+		}
+		else {
+			for ( ModelListener listener : listeners ) {
+				listener.modelLoadingFailed(errorMessage, errors);
+			}
+		}
+		return newModel ;
+	}
+
+	private void watch() {
+		try {
+			while ( true ) {
+				WatchService service = getWatchService();
+				if ( service == null ) {
+					return ; // stopped
+				}
+				WatchKey key = service.take();
+				boolean changed = processEvents(key);
+				//--- Debounce : collect the events until no event during the delay
+				long deadline = System.currentTimeMillis() + debounceDelay * MAX_DEBOUNCE_DELAYS ;
+				while ( System.currentTimeMillis() < deadline ) {
+					key = service.poll(debounceDelay, TimeUnit.MILLISECONDS);
+					if ( key == null ) {
+						break ;
+					}
+					changed |= processEvents(key);
+				}
+				if ( changed && isStarted() ) {
+					reload();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ClosedWatchServiceException e) {
+			// stopped
+		}
+	}
+
+	private synchronized WatchService getWatchService() {
+		return watchService ;
+	}
+
+	/**
+	 * Processes the events of the given key 
+	 * @param key
+	 * @return true if the model is concerned by at least one event
+	 */
+	private boolean processEvents(WatchKey key) {
+		boolean changed = false ;
+		Path folder = (Path) key.watchable();
+		for ( WatchEvent<?> event : key.pollEvents() ) {
+			if ( event.kind() == OVERFLOW ) {
+				changed = true ; // events lost 
+				continue;
+			}
+			Path name = (Path) event.context();
+			Path path = folder.resolve(name);
+			if ( path.equals(modelFolderPath) ) {
+				// "xxx_model" folder created, removed or renamed
+				if ( event.kind() == ENTRY_CREATE ) {
+					registerModelFolder();
+				}
+				changed = true ;
+			}
+			else if ( path.equals(modelFilePath) ) {
+				changed = true ;
+			}
+			else if ( folder.equals(modelFolderPath) && name.toString().endsWith(DslModelUtil.DOT_ENTITY) ) {
+				changed = true ;
+			}
+		}
+		key.reset();
+		return changed ;
+	}
+
+	private synchronized void registerModelFolder() {
+		if ( watchService == null ) {
+			return ;
+		}
+		if ( modelFolderKey != null && modelFolderKey.isValid() ) {
+			return ; // already registered
+		}
+		modelFolderKey = null ;
+		if ( Files.isDirectory(modelFolderPath) ) {
+			try {
+				modelFolderKey = modelFolderPath.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+			} catch (IOException e) {
+				// the folder has been removed meanwhile : the error is reported by the reloading
+			}
+		}
+	}
+}
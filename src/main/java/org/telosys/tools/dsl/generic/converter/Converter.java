@@ -15,11 +15,17 @@
  */
 package org.telosys.tools.dsl.generic.converter;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.telosys.tools.commons.logger.ConsoleLogger;
-import org.telosys.tools.dsl.AnnotationName;
+import org.telosys.tools.dsl.AnnotationKind;
 import org.telosys.tools.dsl.generic.model.GenericAttribute;
 import org.telosys.tools.dsl.generic.model.GenericEntity;
 import org.telosys.tools.dsl.generic.model.GenericLink;
@@ -49,7 +55,29 @@ public class Converter {
 		}
 	}
 
-	private int linkIdCounter = 0 ;
+	/*
+	 * Executor used to convert the entities concurrently ( null for a sequential conversion ) 
+	 */
+	private final ExecutorService executor ;
+
+	/**
+	 * Constructor for a sequential conversion
+	 */
+	public Converter() {
+		this(null);
+	}
+
+	/**
+	 * Constructor for a parallel conversion : the attributes and links of each entity are converted 
+	 * by a task submitted to the given executor <br>
+	 * ( e.g. a ForkJoinPool or a fixed thread pool, the executor is not shut down by the converter )
+	 * 
+	 * @param executor the executor to be used (or null for a sequential conversion)
+	 */
+	public Converter(ExecutorService executor) {
+		super();
+		this.executor = executor;
+	}
 
 	/**
 	 * Converts the DSL model to the Generic model <br>
@@ -118,49 +146,106 @@ public class Converter {
 			return;
 		}
 
-		// STEP 1 : Convert all the existing "DomainEntity" to "GenericEntity"
-		for(DomainEntity domainEntity : domainModel.getEntities()) {
-			GenericEntity genericEntity = convertEntity( domainEntity );
-			genericModel.getEntities().add(genericEntity);
+		// STEP 1 : Convert all the existing "DomainEntity" to "GenericEntity" (in the current thread)
+		List<DomainEntity> domainEntities = new ArrayList<DomainEntity>(domainModel.getEntities());
+		GenericEntity[] genericEntities = new GenericEntity[domainEntities.size()];
+		for ( int i = 0 ; i < domainEntities.size() ; i++ ) {
+			genericEntities[i] = convertEntity( domainEntities.get(i) );
+			genericModel.getEntities().add(genericEntities[i]);
 		}
 		
-		// STEP 2 : Convert basic attributes ( attributes with neutral type ) 
-		for(DomainEntity domainEntity : domainModel.getEntities()) {
-			// Get the GenericEntity built previously
-			GenericEntity genericEntity = (GenericEntity) genericModel.getEntityByClassName(domainEntity.getName());
-			// Convert all attributes to "basic type" or "void pseudo FK attribute" (to keep the initial attributes order)
-			convertAttributes(domainEntity, genericEntity, genericModel);
+		// STEPS 2 to 4 for each entity ( barrier : all the entities are defined in the generic model )
+		// NB : each entity only populates its own "GenericEntity", the generic model is only read 
+		if ( executor != null ) {
+			convertEntitiesContentConcurrently(domainEntities, genericEntities, genericModel);
 		}
-		
-		// STEP x : Create the links ( from attributes referencing an entity ) 
-		for(DomainEntity domainEntity : domainModel.getEntities()) {
-			// Get the GenericEntity built previously
-			GenericEntity genericEntity = (GenericEntity) genericModel.getEntityByClassName(domainEntity.getName());
-			// Creates a link for each field referencing an entity
-			createLinks(domainEntity, genericEntity, genericModel);
+		else {
+			for ( int i = 0 ; i < domainEntities.size() ; i++ ) {
+				convertEntityContent(domainEntities.get(i), genericEntities[i], genericModel);
+			}
 		}
-		
-		// STEP 3 : Build and set "pseudo Foreign Key Attributes"
-		for ( DomainEntity domainEntity : domainModel.getEntities() ) {
-			// Get the GenericEntity built previously
-			GenericEntity genericEntity = (GenericEntity) genericModel.getEntityByClassName(domainEntity.getName());
-			// Replaces the "pseudo FK" attributes if any
-			for ( DomainEntityField field : domainEntity.getFields() ) {
-	            //if ( field.getType().isEntity() ) {
-	            if ( isPseudoForeignKey(field) ) {
-	            	// Build the "pseudo FK attribute"
-	            	GenericAttribute pseudoFKAttribute = convertAttributePseudoForeignKey(field);
-	            	// Search the original "void attribute" in the "GenericEntity" and replace it by the "pseudo FK attribute"
-	            	String originalName = field.getName() ;
-	            	Attribute old = genericEntity.replaceAttribute(originalName, pseudoFKAttribute);
-	            	check(old != null, "Attribute '" + originalName + "' not found");
-	            }
+	}
+	
+	/**
+	 * Converts the content of each entity concurrently (one task per entity) and waits for all the tasks 
+	 * @param domainEntities
+	 * @param genericEntities
+	 * @param genericModel
+	 */
+	private void convertEntitiesContentConcurrently(final List<DomainEntity> domainEntities, final GenericEntity[] genericEntities, 
+			final GenericModel genericModel) {
+		//--- Submit a conversion task for each entity 
+		// ( the conversion error is the result of the task : not wrapped/rebuilt by the executor )
+		List<Future<RuntimeException>> futures = new ArrayList<Future<RuntimeException>>(domainEntities.size());
+		for ( int i = 0 ; i < domainEntities.size() ; i++ ) {
+			final int index = i ;
+			futures.add( executor.submit(new Callable<RuntimeException>() {
+				@Override
+				public RuntimeException call() {
+					try {
+						convertEntityContent(domainEntities.get(index), genericEntities[index], genericModel);
+						return null ;
+					} catch (RuntimeException e) {
+						return e ;
+					}
+				}
+			}) );
+		}
+		//--- Wait for all the tasks ( the first error in the entities order is thrown )
+		RuntimeException firstError = null ;
+		for ( int i = 0 ; i < futures.size() ; i++ ) {
+			try {
+				RuntimeException error = futures.get(i).get();
+				if ( firstError == null ) {
+					firstError = error ;
+				}
+			} catch (ExecutionException executionException) {
+				// unexpected error (not a conversion error)
+				throw new IllegalStateException("Cannot convert entity '" + domainEntities.get(i).getName() + "'", 
+						executionException.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Conversion interrupted");
 			}
 		}
+		if ( firstError != null ) {
+			throw firstError ;
+		}
+	}
+	
+	/**
+	 * Converts the attributes and the links of the given entity 
+	 * ( all the entities must be defined in the generic model )
+	 * @param domainEntity
+	 * @param genericEntity
+	 * @param genericModel
+	 */
+	private void convertEntityContent(DomainEntity domainEntity, GenericEntity genericEntity, GenericModel genericModel) {
+		// STEP 2 : Convert all attributes to "basic type" or "void pseudo FK attribute" (to keep the initial attributes order)
+		convertAttributes(domainEntity, genericEntity, genericModel);
+		
+		// STEP 3 : Creates a link for each field referencing an entity
+		createLinks(domainEntity, genericEntity, genericModel);
+		
+		// STEP 4 : Build and set "pseudo Foreign Key Attributes" ( replaces the "void attributes" if any )
+		for ( DomainEntityField field : domainEntity.getFields() ) {
+            if ( isPseudoForeignKey(field) ) {
+            	// Build the "pseudo FK attribute"
+            	GenericAttribute pseudoFKAttribute = convertAttributePseudoForeignKey(field);
+            	// Search the original "void attribute" in the "GenericEntity" and replace it by the "pseudo FK attribute"
+            	String originalName = field.getName() ;
+            	Attribute old = genericEntity.replaceAttribute(originalName, pseudoFKAttribute);
+            	if ( old == null ) {
+            		throw new IllegalStateException("Attribute '" + originalName + "' not found");
+            	}
+            }
+		}
 	}
 	
 	private GenericEntity convertEntity( DomainEntity domainEntity ) {
-		log("convertEntity("+ domainEntity.getName() +")...");
+		if ( LOG ) {
+			log("convertEntity("+ domainEntity.getName() +")...");
+		}
 		GenericEntity genericEntity = new GenericEntity();
 		genericEntity.setClassName(notNull(domainEntity.getName()));
 		genericEntity.setFullName(notNull(domainEntity.getName()));
@@ -191,7 +276,9 @@ public class Converter {
             DomainType domainFieldType = domainEntityField.getType();
             if (domainFieldType.isNeutralType() ) {
             	// STANDARD NEUTRAL TYPE = BASIC ATTRIBUTE
-        		log("convertEntityAttributes() : " + domainEntityField.getName() + " : neutral type");
+        		if ( LOG ) {
+        			log("convertEntityAttributes() : " + domainEntityField.getName() + " : neutral type");
+        		}
             	// Simple type attribute
             	GenericAttribute genericAttribute = convertAttributeNeutralType( domainEntityField );
             	check(genericAttribute != null, "convertAttributeNeutralType returns null");
@@ -230,10 +317,11 @@ public class Converter {
 
             if ( domainEntityField.getType().isEntity() ) { // If this field references an entity 
             	// REFERENCE TO AN ENTITY = LINK
-        		log("createLinks() : " + domainEntityField.getName() + " : entity type (link)");
+        		if ( LOG ) {
+        			log("createLinks() : " + domainEntityField.getName() + " : entity type (link)");
+        		}
             	// Link type attribute (reference to 1 or N other entity )
-        		linkIdCounter++;
-            	GenericLink genericLink = convertAttributeLink( domainEntityField, genericModel );
+            	GenericLink genericLink = convertAttributeLink( domainEntity, domainEntityField, genericModel );
             	// Add the new link to the entity 
                	genericEntity.getLinks().add(genericLink);
             }
@@ -247,7 +335,9 @@ public class Converter {
 	 * @return
 	 */
 	private GenericAttribute convertAttributeNeutralType( DomainEntityField domainEntityField ) {
-		log("convertAttributeNeutralType() : name = " + domainEntityField.getName() );
+		if ( LOG ) {
+			log("convertAttributeNeutralType() : name = " + domainEntityField.getName() );
+		}
 
 		DomainType domainFieldType = domainEntityField.getType();
 		check(domainFieldType.isNeutralType(), "Invalid field type. Neutral type expected");
@@ -270,36 +360,9 @@ public class Converter {
         initAttributeDefaultValues(genericAttribute, domainEntityField);
         
         // Populate field from annotations if any
-        if(domainEntityField.getAnnotations() != null) {
+        if(domainEntityField.getNumberOfAnnotations() > 0) {
     		log("Converter : annotations found" );
-    		Collection<DomainEntityFieldAnnotation> fieldAnnotations = domainEntityField.getAnnotations().values();
-            for(DomainEntityFieldAnnotation annotation : fieldAnnotations ) {
-        		log("Converter : annotation '"+ annotation.getName() + "'");
-        		// The annotation name is like "Id", "NotNull", "Max", etc
-        		// without "@" at the beginning and without "#" at the end
-                if(AnnotationName.ID.equals(annotation.getName())) {
-            		log("Converter : annotation @Id" );
-                    genericAttribute.setKeyElement(true);
-                    // If "@Id" => "@NotNull" 
-                    genericAttribute.setNotNull(true);
-                }
-                if(AnnotationName.AUTO_INCREMENTED.equals(annotation.getName())) {
-            		log("Converter : annotation @AutoIncremented" );
-                    genericAttribute.setAutoIncremented(true);
-                }
-                
-                // TODO 
-                // @DefaultValue(xxx)
-                // @Comment(xxx) --> used as DbComment ?
-                //
-                // GUI info 
-                // @Label(xxx)
-                // @InputType(xxx) or config ???
-                //
-            }
-            populateAttributeConstraints(genericAttribute, fieldAnnotations);
-            populateAttributeTypeInfo(genericAttribute, fieldAnnotations);
-            populateAttributeDbInfo(genericAttribute, fieldAnnotations);
+            populateAttribute(genericAttribute, domainEntityField.getAnnotations().values(), true);
         }
         else {
     		log("Converter : no annotation" );
@@ -328,109 +391,99 @@ public class Converter {
 	}
 	
 	/**
-	 * Populates generic attribute constraints from the given annotations
+	 * Populates the generic attribute from the given annotations in a single pass <br>
+	 * The kind of each annotation is resolved at parsing time (no annotation name comparison here) <br>
 	 * @param genericAttribute
 	 * @param fieldAnnotations
+	 * @param keyAndDatabaseInfo true to apply all the annotations, 
+	 * false to apply only the constraints and the type information (e.g. '@Id' field of a referenced entity for a "pseudo FK")
 	 */
-	private void populateAttributeConstraints(GenericAttribute genericAttribute, Collection<DomainEntityFieldAnnotation> fieldAnnotations) {
+	private void populateAttribute(GenericAttribute genericAttribute, Collection<DomainEntityFieldAnnotation> fieldAnnotations, 
+			boolean keyAndDatabaseInfo) {
         for(DomainEntityFieldAnnotation annotation : fieldAnnotations ) {
-    		log("Converter / populateAttributeConstraints : annotation '"+ annotation.getName() + "'");
-    		
-	        if(AnnotationName.NOT_NULL.equals(annotation.getName())) {
-	    		log("Converter : annotation @NotNull " );
+        	AnnotationKind kind = annotation.getKind();
+        	if ( kind == null ) {
+        		continue ; // unknown annotation : no effect
+        	}
+        	if ( LOG ) {
+        		log("Converter / populateAttribute : annotation @" + annotation.getName());
+        	}
+        	switch ( kind ) {
+        	//--- Key 
+        	case ID :
+        		if ( keyAndDatabaseInfo ) {
+                    genericAttribute.setKeyElement(true);
+                    // If "@Id" => "@NotNull" 
+                    genericAttribute.setNotNull(true);
+                    genericAttribute.setDatabaseNotNull(true);
+        		}
+        		break;
+        	case AUTO_INCREMENTED :
+        		if ( keyAndDatabaseInfo ) {
+                    genericAttribute.setAutoIncremented(true);
+        		}
+        		break;
+        	//--- Constraints 
+        	case NOT_NULL :
 	            genericAttribute.setNotNull(true);
-	            //genericAttribute.setDatabaseNotNull(true);
-	        }
-	        if(AnnotationName.NOT_EMPTY.equals(annotation.getName())) {
-	    		log("Converter : annotation @NotEmpty " );
+        		if ( keyAndDatabaseInfo ) {
+    	            genericAttribute.setDatabaseNotNull(true);
+        		}
+        		break;
+        	case NOT_EMPTY :
 	            genericAttribute.setNotEmpty(true);
-	        }
-	        if(AnnotationName.NOT_BLANK.equals(annotation.getName())) {
-	    		log("Converter : annotation @NotBlank " );
+        		break;
+        	case NOT_BLANK :
 	            genericAttribute.setNotBlank(true);
-	        }
-	        if(AnnotationName.MIN.equals(annotation.getName())) {
-	    		log("Converter : annotation @Min " );
-	            genericAttribute.setMinValue(annotation.getParameterAsBigDecimal() ); 
-	        }
-	        if(AnnotationName.MAX.equals(annotation.getName())) {
-	    		log("Converter : annotation @Max " );
+        		break;
+        	case MIN :
+	            genericAttribute.setMinValue(annotation.getParameterAsBigDecimal());
+        		break;
+        	case MAX :
 	            genericAttribute.setMaxValue(annotation.getParameterAsBigDecimal());
-	        }
-	        if(AnnotationName.SIZE_MIN.equals(annotation.getName())) {
-	    		log("Converter : annotation @SizeMin " );
-	            genericAttribute.setMinLength(annotation.getParameterAsInteger() );
-	        }
-	        if(AnnotationName.SIZE_MAX.equals(annotation.getName())) {
-	    		log("Converter : annotation @SizeMax " );
-//	            Integer parameterValue = annotation.getParameterAsInteger();
-//	            genericAttribute.setMaxLength(parameterValue);
-//	            genericAttribute.setDatabaseSize(parameterValue);
+        		break;
+        	case SIZE_MIN :
+	            genericAttribute.setMinLength(annotation.getParameterAsInteger());
+        		break;
+        	case SIZE_MAX :
 	            genericAttribute.setMaxLength(annotation.getParameterAsInteger());
-	        }
-	        if(AnnotationName.PAST.equals(annotation.getName())) {
-	    		log("Converter : annotation @Past " );
+        		if ( keyAndDatabaseInfo ) {
+    	            genericAttribute.setDatabaseSize(annotation.getParameterAsInteger());
+        		}
+        		break;
+        	case PAST :
 	            genericAttribute.setDatePast(true);
-	        }
-	        if(AnnotationName.FUTURE.equals(annotation.getName())) {
-	    		log("Converter : annotation @Future " );
+        		break;
+        	case FUTURE :
 	            genericAttribute.setDateFuture(true);
-	        }
-	        if(AnnotationName.LONG_TEXT.equals(annotation.getName())) {
-	    		log("Converter : annotation @LongText" );
+        		break;
+        	case LONG_TEXT :
 	            genericAttribute.setLongText(true);
-	        }
-	        // TODO :
-            // @After(DateISO/TimeISO)
-            // @Before(DateISO/TimeISO)
-            // @Pattern(xxx) or @RegExp ???
-        }
-	}
-	
-	/**
-	 * Populates generic attribute type information from the given annotations
-	 * @param genericAttribute
-	 * @param fieldAnnotations
-	 */
-	private void populateAttributeTypeInfo(GenericAttribute genericAttribute, Collection<DomainEntityFieldAnnotation> fieldAnnotations) {
-        for(DomainEntityFieldAnnotation annotation : fieldAnnotations ) {
-    		log("Converter / populateAttributeTypeInfo : annotation '"+ annotation.getName() + "'");
-
-        	if(AnnotationName.PRIMITIVE_TYPE.equals(annotation.getName())) {
-        		log("Converter : annotation @PrimitiveType" );
+        		break;
+        	//--- Type information 
+        	case PRIMITIVE_TYPE :
                 genericAttribute.setPrimitiveTypeExpected(true);
-            }
-            if(AnnotationName.UNSIGNED_TYPE.equals(annotation.getName())) {
-        		log("Converter : annotation @UnsignedType" );
+        		break;
+        	case UNSIGNED_TYPE :
                 genericAttribute.setUnsignedTypeExpected(true);
-            }
-            if(AnnotationName.OBJECT_TYPE.equals(annotation.getName())) {
-        		log("Converter : annotation @ObjectType" );
+        		break;
+        	case OBJECT_TYPE :
                 genericAttribute.setObjectTypeExpected(true);
-            }
-            if(AnnotationName.SQL_TYPE.equals(annotation.getName())) {
-        		log("Converter : annotation @SqlType" );
+        		break;
+        	case SQL_TYPE :
                 genericAttribute.setSqlTypeExpected(true);
-            }
-        }
-	}
-
-	private void populateAttributeDbInfo(GenericAttribute genericAttribute, Collection<DomainEntityFieldAnnotation> fieldAnnotations) {
-        for(DomainEntityFieldAnnotation annotation : fieldAnnotations ) {
-    		log("Converter / populateAttributeDbInfo : annotation '"+ annotation.getName() + "'");
-            if(AnnotationName.ID.equals(annotation.getName())) {
-	    		log("Converter : annotation @Id " );
-	            genericAttribute.setDatabaseNotNull(true); // @Id => Not Null 
-            }
-	        if(AnnotationName.NOT_NULL.equals(annotation.getName())) {
-	    		log("Converter : annotation @NotNull " );
-	            genericAttribute.setDatabaseNotNull(true);
-	        }
-	        if(AnnotationName.SIZE_MAX.equals(annotation.getName())) {
-	    		log("Converter : annotation @SizeMax " );
-	            genericAttribute.setDatabaseSize(annotation.getParameterAsInteger());
-	        }
+        		break;
+        	default :
+        		// no effect on the attribute ( e.g. '@Embedded' for a link )
+        		break;
+        	}
 	        // TODO :
+            // @DefaultValue(xxx)
+            // @Comment(xxx) --> used as DbComment ?
+            // @Label(xxx)
+            // @After(DateISO/TimeISO)
+            // @Before(DateISO/TimeISO)
+            // @Pattern(xxx) or @RegExp ???
             // @DbColumn(xxx)
             // @DbType(xxx)
             // @DbDefaultValue(xxx)
@@ -458,7 +511,9 @@ public class Converter {
 	 * @return
 	 */
 	private GenericAttribute convertAttributePseudoForeignKey( DomainEntityField domainEntityField ) {
-		log("convertAttributePseudoForeignKey() : name = " + domainEntityField.getName() );
+		if ( LOG ) {
+			log("convertAttributePseudoForeignKey() : name = " + domainEntityField.getName() );
+		}
 
 		DomainType domainFieldType = domainEntityField.getType();
 		check(domainFieldType.isEntity(), "Invalid field type. Entity type expected");
@@ -481,10 +536,8 @@ public class Converter {
         genericAttribute.setNeutralType( attributeType );
         initAttributeDefaultValues(genericAttribute, domainEntityField);
         
-        //--- Use referenced entity id field annotations
-		Collection<DomainEntityFieldAnnotation> fieldAnnotations = referencedEntityIdField.getAnnotations().values();
-        populateAttributeConstraints(genericAttribute, fieldAnnotations) ;
-        populateAttributeTypeInfo(genericAttribute, fieldAnnotations);
+        //--- Use referenced entity id field annotations ( constraints and type information only )
+        populateAttribute(genericAttribute, referencedEntityIdField.getAnnotations().values(), false);
         
         //--- Set flag as "Pseudo Foreign Key" (Simple FK) 
         genericAttribute.setFKSimple(true);
@@ -512,41 +565,30 @@ public class Converter {
 	 * @return
 	 */
 	private DomainEntityField getReferencedEntityIdField( DomainEntity domainEntity ) {
-		DomainEntityField id = null ;
-		int idCount = 0 ;
-		check(domainEntity.getFields().size() > 0, "No field in entity " + domainEntity );
-		for ( DomainEntityField field : domainEntity.getFields() ) {
-			if ( isId( field ) ) {
-				id = field ;
-				idCount++ ;
-			}
+		// NB : called for each reference to the entity => no error message built if not necessary
+		if ( domainEntity.getNumberOfFields() == 0 ) {
+			throw new IllegalStateException("No field in entity " + domainEntity );
 		}
-		if ( idCount == 0 ) {
+		// '@Id' fields resolved once by the entity ( kept until a change of its own fields )
+		List<DomainEntityField> idFields = domainEntity.getIdFields();
+		if ( idFields.isEmpty() ) {
 			throw new IllegalStateException("Entity '" + domainEntity.getName() + "' : no @Id" );
 		}
-		if ( idCount > 1 ) {
+		if ( idFields.size() > 1 ) {
 			throw new IllegalStateException("Entity '" + domainEntity.getName() + "' has more than 1 @Id" );
 		}
-		return id ;
-	}
-	
-	private boolean isId( DomainEntityField field ) {
-		for ( String annotationName : field.getAnnotationNames() ) {
-			if ( AnnotationName.ID.equals(annotationName) ) {
-				return true ;
-			}
-		}
-		return false ;
+		return idFields.get(0) ;
 	}
 	
 	/**
 	 * Converts a "LINK" attribute <br>
 	 * eg : car : Car ; <br>
+	 * @param domainEntity the entity holding the field
 	 * @param domainEntityField
 	 * @param genericModel
 	 * @return
 	 */
-	private GenericLink convertAttributeLink( DomainEntityField domainEntityField, GenericModel genericModel ) {
+	private GenericLink convertAttributeLink( DomainEntity domainEntity, DomainEntityField domainEntityField, GenericModel genericModel ) {
 		
 		DomainType domainFieldType = domainEntityField.getType();
 		check(domainFieldType.isEntity(), "Invalid field type. Entity type expected");
@@ -559,11 +601,13 @@ public class Converter {
 		// Check target existence
 		GenericEntity genericEntityTarget =
 				(GenericEntity) genericModel.getEntityByClassName(domainEntityTarget.getName());
-		check( ( genericEntityTarget != null ), "No target entity for field '" + domainEntityField.getName() + "'. Cannot create Link");
+		if ( genericEntityTarget == null ) {
+			throw new IllegalStateException("No target entity for field '" + domainEntityField.getName() + "'. Cannot create Link");
+		}
 
 		GenericLink genericLink = new GenericLink();
 
-		genericLink.setId("Link"+linkIdCounter); // Link ID : generated (just to ensure not null )
+		genericLink.setId(buildLinkId(domainEntity, domainEntityField)); // Link ID : stable (same id for each conversion)
 		//genericLink.setSelected(true); // nothing for link selection => selected by default
 		
 		// Set target entity info
@@ -609,18 +653,30 @@ public class Converter {
 		genericLink.setOptional(Optional.UNDEFINED);
 		genericLink.setSourceTableName(null);
 
-        // Annotation
-        if(domainEntityField.getAnnotations() != null) {
-            for(DomainEntityFieldAnnotation annotation : domainEntityField.getAnnotations().values()) {
-                if("@Embedded".equals(annotation.getName())) {
-                    genericLink.setIsEmbedded(true);
-                }
-            }
+        // Annotation ( kind resolved at parsing time )
+        if ( domainEntityField.hasAnnotation(AnnotationKind.EMBEDDED) ) {
+            genericLink.setIsEmbedded(true);
         }
 
         return genericLink;
 	}
 	
+	/**
+	 * Builds the id of the link defined by the given field : "EntityName.fieldName" <br>
+	 * Unique in the model ( the entity name is unique in the model, the field name is unique in the entity 
+	 * and '.' is not allowed in these names ) and independent of the conversion order and mode <br>
+	 * eg : "Car.driver" <br>
+	 * @param domainEntity the entity holding the field
+	 * @param domainEntityField the field referencing an entity
+	 * @return
+	 */
+	private static String buildLinkId(DomainEntity domainEntity, DomainEntityField domainEntityField) {
+		String entityName = domainEntity.getName() ;
+		String fieldName = domainEntityField.getName() ;
+		return new StringBuilder(entityName.length() + 1 + fieldName.length())
+				.append(entityName).append('.').append(fieldName).toString();
+	}
+	
 	/**
 	 * Conversion rule to determine the table name for a given entity
 	 * @param domainEntity
@@ -27,6 +27,9 @@ public class GenericAttribute implements Attribute {
 //	private final static TypeConverter typeConverter = new TypeConverterForJava() ;
 	
 	private String name = "";
+
+	// key changes counters of the indexed lists holding this attribute ( notified by 'setName' )
+	private KeyChanges[] keyChanges = KeyChanges.NONE ;
 	private String neutralType = "";
 	
 	private String booleanFalseValue;
@@ -100,6 +103,16 @@ public class GenericAttribute implements Attribute {
 	}
 	public void setName(String name) {
 		this.name = name;
+		KeyChanges.notifyChange(keyChanges);
+	}
+
+	/**
+	 * Registers the key changes counter of an indexed list holding this attribute 
+	 * ( notified when the name is changed )
+	 * @param changes
+	 */
+	void watchKeys(KeyChanges changes) {
+		keyChanges = KeyChanges.add(keyChanges, changes);
 	}
 
 	@Override
@@ -28,7 +28,7 @@ public class GenericEntity implements Entity {
 
 	private String className;
 	private String packageName;
-	private List<Attribute> attributes = new ArrayList<Attribute>();
+	private List<Attribute> attributes = new AttributesList();
 	private String databaseCatalog;
 	private List<ForeignKey> databaseForeignKeys = new ArrayList<ForeignKey>();
 	private String databaseSchema;
@@ -40,7 +40,46 @@ public class GenericEntity implements Entity {
 	private Boolean tableType;
 	private Boolean viewType;
 
+	// key changes counters of the indexed lists holding this entity ( notified by the keys setters )
+	private KeyChanges[] keyChanges = KeyChanges.NONE ;
+
+	/*
+	 * List of attributes indexed by name
+	 */
+	private static class AttributesList extends KeyIndexedList<Attribute> {
+		private static final long serialVersionUID = 1L;
+		private static final int NAME = 0 ;
+		AttributesList() {
+			super(1);
+		}
+		@Override
+		protected String getKey(Attribute attribute, int keyNumber) {
+			return attribute != null ? attribute.getName() : null ;
+		}
+		@Override
+		protected boolean watchKeys(Attribute attribute, KeyChanges keyChanges) {
+			if ( attribute instanceof GenericAttribute ) {
+				((GenericAttribute) attribute).watchKeys(keyChanges);
+				return true ;
+			}
+			return false ;
+		}
+	}
+
+	/**
+	 * Registers the key changes counter of an indexed list holding this entity 
+	 * ( notified when the class name or the table name is changed )
+	 * @param changes
+	 */
+	void watchKeys(KeyChanges changes) {
+		keyChanges = KeyChanges.add(keyChanges, changes);
+	}
+
 	public Attribute getAttributeByName(String name) {
+		if ( attributes instanceof AttributesList ) {
+			return ((AttributesList) attributes).findFirst(AttributesList.NAME, name);
+		}
+		// list set from outside : linear search
 		for(Attribute attribute : getAttributes()) {
 			if(name.equals(attribute.getName())) {
 				return attribute;
@@ -51,6 +90,7 @@ public class GenericEntity implements Entity {
 
 	public void setClassName(String className) {
 		this.className = className;
+		KeyChanges.notifyChange(keyChanges);
 	}
 	public List<Attribute> getAttributes() {
 		return attributes;
@@ -87,6 +127,7 @@ public class GenericEntity implements Entity {
 	}
 	public void setDatabaseTable(String databaseTable) {
 		this.databaseTable = databaseTable;
+		KeyChanges.notifyChange(keyChanges);
 	}
 	public String getDatabaseType() {
 		return databaseType;
@@ -146,6 +187,10 @@ public class GenericEntity implements Entity {
 	 */
 	public Attribute replaceAttribute(String name, Attribute newAttribute) {
 		List<Attribute> list = this.attributes  ;
+		if ( list instanceof AttributesList ) {
+			int index = ((AttributesList) list).indexOfKey(AttributesList.NAME, name);
+			return index >= 0 ? list.set(index, newAttribute) : null ;
+		}
 		for ( int index = 0 ; index < list.size() ; index++ ) {
 			Attribute attribute = list.get(index);
 			if ( name.equals(attribute.getName()) ) { // Found
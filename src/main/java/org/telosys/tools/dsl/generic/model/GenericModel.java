@@ -15,7 +15,6 @@
  */
 package org.telosys.tools.dsl.generic.model;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -33,26 +32,42 @@ public class GenericModel implements Model {
 	private String description = "";
 	private Integer databaseId;
 	private String databaseProductName	;
-	private List<Entity> entities = new ArrayList<Entity>();
+	private EntitiesList entities = new EntitiesList();
 
-	@Override
-	public Entity getEntityByClassName(String entityClassName) {
-		for(Entity entity : getEntities()) {
-			if ( entityClassName.equals(entity.getClassName()) ) {
-				return entity;
+	/*
+	 * List of entities indexed by class name and by table name
+	 */
+	private static class EntitiesList extends KeyIndexedList<Entity> {
+		private static final long serialVersionUID = 1L;
+		private static final int CLASS_NAME = 0 ;
+		private static final int TABLE_NAME = 1 ;
+		EntitiesList() {
+			super(2);
+		}
+		@Override
+		protected String getKey(Entity entity, int keyNumber) {
+			if ( entity == null ) {
+				return null ;
 			}
+			return keyNumber == CLASS_NAME ? entity.getClassName() : entity.getDatabaseTable() ;
+		}
+		@Override
+		protected boolean watchKeys(Entity entity, KeyChanges keyChanges) {
+			if ( entity instanceof GenericEntity ) {
+				((GenericEntity) entity).watchKeys(keyChanges);
+				return true ;
+			}
+			return false ;
 		}
-		return null;
+	}
+
+	@Override
+	public Entity getEntityByClassName(String entityClassName) {
+		return entities.findFirst(EntitiesList.CLASS_NAME, entityClassName);
 	}
 	@Override
 	public Entity getEntityByTableName(String entityTableName) {
-		for(Entity entity : getEntities()) {
-//			if ( entityTableName.equals(entity.getFullName()) ) {
-			if ( entityTableName.equals(entity.getDatabaseTable() ) ) {
-				return entity;
-			}
-		}
-		return null;
+		return entities.findFirst(EntitiesList.TABLE_NAME, entityTableName);
 	}
 
 	@Override
@@ -0,0 +1,68 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.generic.model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counter of the key changes of the elements of a 'KeyIndexedList' <br>
+ * Each list has its own counter, held by its elements able to notify a key change ( e.g. 'GenericEntity' ). <br>
+ * An element increments the counters of its lists when one of its keys is changed, 
+ * so a list knows that its indexes are stale without scanning its elements. 
+ *
+ */
+final class KeyChanges {
+
+	static final KeyChanges[] NONE = new KeyChanges[0] ;
+
+	private final AtomicInteger count = new AtomicInteger();
+
+	/**
+	 * Returns the number of key changes notified since the creation 
+	 * @return
+	 */
+	int getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Adds the given counter in the given array ( if not already present )
+	 * @param array the counters held by an element 
+	 * @param keyChanges
+	 * @return the same array if the counter is already present, else a new array
+	 */
+	static KeyChanges[] add(KeyChanges[] array, KeyChanges keyChanges) {
+		for ( KeyChanges c : array ) {
+			if ( c == keyChanges ) {
+				return array ;
+			}
+		}
+		KeyChanges[] newArray = Arrays.copyOf(array, array.length + 1);
+		newArray[array.length] = keyChanges ;
+		return newArray ;
+	}
+
+	/**
+	 * Notifies a key change to all the given counters 
+	 * @param array the counters held by an element 
+	 */
+	static void notifyChange(KeyChanges[] array) {
+		for ( KeyChanges c : array ) {
+			c.count.incrementAndGet();
+		}
+	}
+}
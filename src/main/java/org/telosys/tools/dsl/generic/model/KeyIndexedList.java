@@ -0,0 +1,277 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.generic.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * List with hash indexes on one or more keys of its elements ( e.g. the entity class name ) <br>
+ * The indexes are built lazily and rebuilt after each structural change of the list 
+ * ( detected with the list 'modCount' ), so the list can be used as a standard list. <br>
+ * A 'set' keeping the same keys doesn't invalidate the indexes 
+ * ( 'set' through an iterator or a sub-list included ). <br>
+ * <br>
+ * The keys of an element are supposed to be set before adding it in the list. 
+ * If a key is changed after ( e.g. with a public setter ) : <br>
+ * . an element able to notify its key changes ( see 'watchKeys' ) invalidates the indexes immediately <br>
+ * . for the other elements the change is detected when the old key is found in the index 
+ * or when a key not found in the index is found by a linear search 
+ * ( a missing key costs a linear search, as without index, only if the list contains such elements ) <br>
+ * For duplicated keys the first element is returned (same result as a linear search). 
+ *
+ * @param <E>
+ */
+abstract class KeyIndexedList<E> extends ArrayList<E> {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * Immutable indexes (published as a whole, so the list can be read by concurrent threads)
+	 */
+	private static class Indexes {
+		final int modCount ;
+		final int keyChangesCount ;
+		final boolean allElementsWatched ; // true if a missing key is really missing (no key change ignored)
+		final List<Map<String, Integer>> maps ;
+		Indexes(int modCount, int keyChangesCount, boolean allElementsWatched, List<Map<String, Integer>> maps) {
+			this.modCount = modCount ;
+			this.keyChangesCount = keyChangesCount ;
+			this.allElementsWatched = allElementsWatched ;
+			this.maps = maps ;
+		}
+	}
+
+	private final int keysCount ;
+
+	private transient volatile Indexes indexes = null ;
+
+	// key changes notified by the elements of this list ( created with the first indexes )
+	private transient volatile KeyChanges keyChanges = null ;
+
+	/**
+	 * Constructor
+	 * @param keysCount number of keys (indexes)
+	 */
+	protected KeyIndexedList(int keysCount) {
+		super();
+		this.keysCount = keysCount ;
+	}
+
+	/**
+	 * Returns the key of the given element (or null if the element has no key)
+	 * @param element
+	 * @param keyNumber the key number (from 0 to keysCount-1)
+	 * @return
+	 */
+	protected abstract String getKey(E element, int keyNumber) ;
+
+	/**
+	 * Registers the key changes counter of this list in the given element if the element supports it <br>
+	 * ( the element must notify the counter each time one of its keys is changed ) 
+	 * @param element
+	 * @param keyChanges
+	 * @return true if the element notifies its key changes, false if not (default)
+	 */
+	protected boolean watchKeys(E element, KeyChanges keyChanges) {
+		return false ;
+	}
+
+	/**
+	 * Returns the first element having the given key 
+	 * @param keyNumber the key number (from 0 to keysCount-1)
+	 * @param key
+	 * @return the element found (or null if none)
+	 */
+	protected E findFirst(int keyNumber, String key) {
+		if ( key == null ) {
+			return null ;
+		}
+		Indexes current = getIndexes();
+		Integer position = current.maps.get(keyNumber).get(key);
+		if ( position == null ) {
+			if ( current.allElementsWatched ) {
+				return null ; // up to date index : no search
+			}
+			// not in the index : the key can be a new key set after the insertion 
+			for ( int i = 0 ; i < size() ; i++ ) {
+				if ( key.equals(getKey(get(i), keyNumber)) ) {
+					indexes = buildIndexes();
+					return findFirstInIndex(keyNumber, key);
+				}
+			}
+			return null ;
+		}
+		E element = get(position);
+		if ( key.equals(getKey(element, keyNumber)) ) {
+			return element ;
+		}
+		// the key has been changed after the insertion : rebuild and search again
+		indexes = buildIndexes();
+		return findFirstInIndex(keyNumber, key);
+	}
+
+	private E findFirstInIndex(int keyNumber, String key) {
+		Integer position = getIndexes().maps.get(keyNumber).get(key);
+		return position != null ? get(position) : null ;
+	}
+
+	/**
+	 * Returns the position of the first element having the given key 
+	 * @param keyNumber the key number (from 0 to keysCount-1)
+	 * @param key
+	 * @return the position (or -1 if none)
+	 */
+	protected int indexOfKey(int keyNumber, String key) {
+		E element = findFirst(keyNumber, key);
+		return element != null ? getIndexes().maps.get(keyNumber).get(key) : -1 ;
+	}
+
+	private KeyChanges getKeyChanges() {
+		KeyChanges current = keyChanges ;
+		if ( current == null ) {
+			synchronized (this) {
+				current = keyChanges ;
+				if ( current == null ) {
+					current = new KeyChanges();
+					keyChanges = current ;
+				}
+			}
+		}
+		return current ;
+	}
+
+	private Indexes getIndexes() {
+		Indexes current = indexes ;
+		if ( current == null || current.modCount != modCount 
+				|| current.keyChangesCount != getKeyChanges().getCount() ) {
+			current = buildIndexes();
+			indexes = current ;
+		}
+		return current ;
+	}
+
+	private Indexes buildIndexes() {
+		KeyChanges changes = getKeyChanges();
+		// read the counter before the keys : a key changed during the build invalidates the new indexes 
+		int keyChangesCount = changes.getCount();
+		boolean allElementsWatched = true ;
+		List<Map<String, Integer>> maps = new ArrayList<Map<String, Integer>>(keysCount);
+		for ( int k = 0 ; k < keysCount ; k++ ) {
+			maps.add(new HashMap<String, Integer>(size() * 2));
+		}
+		for ( int i = 0 ; i < size() ; i++ ) {
+			E element = get(i);
+			if ( element != null && ! watchKeys(element, changes) ) {
+				allElementsWatched = false ;
+			}
+			for ( int k = 0 ; k < keysCount ; k++ ) {
+				String key = getKey(element, k);
+				if ( key != null && ! maps.get(k).containsKey(key) ) {
+					maps.get(k).put(key, i); // keep the first one 
+				}
+			}
+		}
+		return new Indexes(modCount, keyChangesCount, allElementsWatched, maps);
+	}
+
+	@Override
+	public E set(int index, E element) {
+		E previous = super.set(index, element);
+		// not a structural modification : the indexes are still valid if the keys are unchanged
+		if ( keysChanged(previous, element) ) {
+			indexes = null ;
+		}
+		else if ( element != null && ! watchKeys(element, getKeyChanges()) ) {
+			// same keys but the new element doesn't notify its key changes
+			Indexes current = indexes ;
+			if ( current != null && current.allElementsWatched ) {
+				indexes = null ;
+			}
+		}
+		return previous ;
+	}
+
+	private boolean keysChanged(E previous, E element) {
+		for ( int k = 0 ; k < keysCount ; k++ ) {
+			String previousKey = previous != null ? getKey(previous, k) : null ;
+			String newKey = element != null ? getKey(element, k) : null ;
+			if ( previousKey == null ? newKey != null : ! previousKey.equals(newKey) ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	/**
+	 * Returns a view of a part of the list <br>
+	 * The changes are done through this list ( 'set' keeps the indexes consistent )
+	 */
+	@Override
+	public List<E> subList(int fromIndex, int toIndex) {
+		return new IndexedSubList(super.subList(fromIndex, toIndex), fromIndex);
+	}
+
+	/*
+	 * Sub-list view : 'set' is done by the list (the 'set' of the standard sub-list bypasses the list 'set')
+	 * the other operations are delegated to the standard sub-list ( structural changes detected by the 'modCount' )
+	 */
+	private class IndexedSubList extends AbstractList<E> {
+		private final List<E> subList ;
+		private final int offset ;
+		IndexedSubList(List<E> subList, int offset) {
+			this.subList = subList ;
+			this.offset = offset ;
+		}
+		@Override
+		public E get(int index) {
+			return subList.get(index);
+		}
+		@Override
+		public int size() {
+			return subList.size();
+		}
+		@Override
+		public E set(int index, E element) {
+			rangeCheck(index);
+			return KeyIndexedList.this.set(offset + index, element);
+		}
+		@Override
+		public void add(int index, E element) {
+			subList.add(index, element);
+			modCount++ ;
+		}
+		@Override
+		public E remove(int index) {
+			E removed = subList.remove(index);
+			modCount++ ;
+			return removed ;
+		}
+		@Override
+		protected void removeRange(int fromIndex, int toIndex) {
+			subList.subList(fromIndex, toIndex).clear();
+			modCount++ ;
+		}
+		private void rangeCheck(int index) {
+			if ( index < 0 || index >= subList.size() ) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + subList.size());
+			}
+		}
+	}
+}
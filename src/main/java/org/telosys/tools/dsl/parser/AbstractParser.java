@@ -15,8 +15,6 @@
  */
 package org.telosys.tools.dsl.parser;
 
-import org.telosys.tools.dsl.EntityParserException;
-
 /**
  * Generic ancestor class for parser classes
  * 
@@ -37,9 +35,17 @@ public abstract class AbstractParser {
 //		//logger.info(message);
 //	}
 	
-	protected void throwParsingError(String entityName, String message) {
+	/**
+	 * Reports a parsing error in the given collector ( no exception )
+	 * @param diagnostics the collector 
+	 * @param code the error code
+	 * @param sourceOffset position in the original content (or -1 if unknown)
+	 * @param entityName
+	 * @param message
+	 */
+	protected void reportParsingError(DiagnosticCollector diagnostics, DiagnosticCode code, int sourceOffset, String entityName, String message) {
         String errorMessage = entityName + " : " + message ;
         //this.logger.error(errorMessage);
-        throw new EntityParserException(errorMessage);
+        diagnostics.report(code, sourceOffset, errorMessage);
 	}
 }
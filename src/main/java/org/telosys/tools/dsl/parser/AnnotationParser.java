@@ -19,6 +19,10 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.telosys.tools.dsl.AnnotationDefinition;
+import org.telosys.tools.dsl.AnnotationParameterValidator;
+import org.telosys.tools.dsl.AnnotationParameterValidators;
+import org.telosys.tools.dsl.EntityParserException;
 import org.telosys.tools.dsl.KeyWords;
 import org.telosys.tools.dsl.parser.model.DomainEntityFieldAnnotation;
 
@@ -38,14 +42,18 @@ public class AnnotationParser extends AbstractParser  {
     }
     
     /**
-     * Throws an annotation parsing exception
+     * Reports an annotation parsing error
+     * @param diagnostics
+     * @param code
+     * @param sourceOffset
      * @param entityName
      * @param fieldName
      * @param annotationString
      * @param message
      */
-    private void throwAnnotationParsingError(String entityName, String fieldName, String annotationString, String message) {
-    	throwParsingError(entityName + "." + fieldName, "Annotation error '" + annotationString + "' (" + message + ")");
+    private void reportAnnotationParsingError(DiagnosticCollector diagnostics, DiagnosticCode code, int sourceOffset, 
+    		String entityName, String fieldName, String annotationString, String message) {
+    	reportParsingError(diagnostics, code, sourceOffset, entityName + "." + fieldName, "Annotation error '" + annotationString + "' (" + message + ")");
     }
     
     /**
@@ -54,8 +62,26 @@ public class AnnotationParser extends AbstractParser  {
      * @param fieldName
      * @param annotations the annotations string without '{' and '}'
      * @return
+     * @throws EntityParserException if the annotations are invalid
      */
     List<DomainEntityFieldAnnotation> parseAnnotations(String entityName, String fieldName, String annotations) {
+    	DiagnosticCollector diagnostics = new DiagnosticCollector(entityName, null);
+    	List<DomainEntityFieldAnnotation> list = parseAnnotations(entityName, fieldName, annotations, diagnostics, -1);
+    	diagnostics.throwIfErrors();
+    	return list ;
+    }
+    
+    /**
+     * Parse field annotations located between brackets : '{ @xxx, @xxx }'
+     * @param entityName
+     * @param fieldName
+     * @param annotations the annotations string without '{' and '}'
+     * @param diagnostics the collector for the errors
+     * @param sourceOffset the position of the field in the original content (or -1 if unknown)
+     * @return the annotations (or null if errors)
+     */
+    List<DomainEntityFieldAnnotation> parseAnnotations(String entityName, String fieldName, String annotations, 
+    		DiagnosticCollector diagnostics, int sourceOffset) {
 
     	if ( annotations == null || "".equals(annotations) ) {
     		// return void list
@@ -74,7 +100,11 @@ public class AnnotationParser extends AbstractParser  {
         List<DomainEntityFieldAnnotation> list = new ArrayList<DomainEntityFieldAnnotation>();
         // extract annotations
         for (String annotationString : annotationList) {
-            DomainEntityFieldAnnotation annotation = this.parseSingleAnnotation(entityName, fieldName, annotationString.trim());
+            DomainEntityFieldAnnotation annotation = this.parseSingleAnnotation(entityName, fieldName, annotationString.trim(), 
+            		diagnostics, sourceOffset);
+            if ( annotation == null ) {
+            	return null ; // error reported
+            }
             list.add(annotation);
         }
 
@@ -86,100 +116,86 @@ public class AnnotationParser extends AbstractParser  {
      * @param entityName
      * @param fieldName
      * @param annotationString e.g. "@Id", "@Max(12)", etc
-     * @return
+     * @param diagnostics
+     * @param sourceOffset
+     * @return the annotation (or null if error)
      */
-    private DomainEntityFieldAnnotation parseSingleAnnotation(String entityName, String fieldName, String annotationString) {
+    private DomainEntityFieldAnnotation parseSingleAnnotation(String entityName, String fieldName, String annotationString, 
+    		DiagnosticCollector diagnostics, int sourceOffset) {
     	
         // must start with a '@'
-        if (annotationString.charAt(0) != '@') {
-            throwAnnotationParsingError( entityName, fieldName, annotationString, "must start with '@'");
+        if (annotationString.length() == 0 || annotationString.charAt(0) != '@') {
+            reportAnnotationParsingError(diagnostics, DiagnosticCode.ANNOTATION_SYNTAX, sourceOffset, 
+            		entityName, fieldName, annotationString, "must start with '@'");
+            return null ;
         }
 
         //--- get the annotation name 
-//        String annotationName = getAnnotationName(annotationString);
-//        if ( ! annotationName.equals( getAnnotationWithoutParameter(annotationString)) ) {
-//    		throwAnnotationParsingError( entityName, fieldName, annotationString, "invalid syntax" );
-//        }
-        String annotationName = null;
-		try {
-			annotationName = getAnnotationName(annotationString);
-		} catch (Exception e) {
-			// invalid syntax in the annotation name  
-    		throwAnnotationParsingError( entityName, fieldName, annotationString, e.getMessage() );
-		}
+        String annotationName = getAnnotationName(annotationString, diagnostics, sourceOffset, entityName, fieldName);
+        if ( annotationName == null ) {
+			// invalid syntax in the annotation name ( error reported )
+        	return null ;
+        }
 
         //--- get the parameter value if any 
-    	String parameterValue = null ;
-    	try {
-			parameterValue = getParameterValue(annotationString, '(', ')' ) ;
-		} catch (Exception e) {
-			// invalid syntax in the parameter 
-    		throwAnnotationParsingError( entityName, fieldName, annotationString, e.getMessage() );
-		}
+        int errorsCount = diagnostics.getErrorsCount();
+    	String parameterValue = getParameterValue(annotationString, '(', ')', diagnostics, sourceOffset, entityName, fieldName);
+    	if ( diagnostics.getErrorsCount() > errorsCount ) {
+			// invalid syntax in the parameter ( error reported )
+    		return null ;
+    	}
         
-        // check annotation exist
-        List<String> definedAnnotations = KeyWords.getAnnotations();
-
-        // is it a known annotation ?
-        for (String annotationDefinition : definedAnnotations) { // "Id", "SizeMin%", "SizeMax%", "Max#", "Min#", ""...
-            if ( annotationDefinition.startsWith(annotationName) ) {
-                // Annotation name found in defined annotations
-                if ( annotationDefinition.endsWith("%") ) {
-                	// this annotation must have an integer parameter between ( and )
-//                	if ( parameterValue == null || parameterValue.length() == 0 ) {
-//                		throwAnnotationParsingError( entityName, fieldName, annotationString, "parameter required ");
-//                	}
-                	// Integer parameter required
-                	Integer numberValue = null ;
-                	try {
-                		numberValue = getParameterValueAsInteger(parameterValue);
-						//new BigDecimal(parameterValue) ;
-					} catch (Exception e) {
-                		throwAnnotationParsingError( entityName, fieldName, annotationString, "integer parameter required ");
-					}
-                	return new DomainEntityFieldAnnotation(annotationName, numberValue);
-                }
-                else if ( annotationDefinition.endsWith("#") ) {
-                	// Decimal parameter required
-                	BigDecimal numberValue = null ;
-                	try {
-                		numberValue = getParameterValueAsBigDecimal(parameterValue);
-					} catch (Exception e) {
-                		throwAnnotationParsingError( entityName, fieldName, annotationString, "numeric parameter required ");
-					}
-                	return new DomainEntityFieldAnnotation(annotationName, numberValue);
-                }
-                else {
-                	// annotation without parameter
-                	if ( parameterValue != null ) {
-                		throwAnnotationParsingError( entityName, fieldName, annotationString, "unexpected parameter");
-                	}
-                	return new DomainEntityFieldAnnotation(annotationName);
-                }
-            }
+        // is it a known annotation ? ( exact name )
+        AnnotationDefinition annotationDefinition = KeyWords.getAnnotationDefinition(annotationName);
+        if ( annotationDefinition == null ) {
+            reportAnnotationParsingError(diagnostics, DiagnosticCode.ANNOTATION_UNKNOWN, sourceOffset, 
+            		entityName, fieldName, annotationString, "unknown annotation");
+            return null ;
         }
-
-        throwAnnotationParsingError( entityName, fieldName, annotationString, "unknown annotation");
-        return null ; // never reached
+        // NB : the name of the definition is used in the annotation ( a single instance for each annotation name )
+        AnnotationParameterValidator validator = annotationDefinition.getParameterValidator();
+        if ( validator == null ) {
+        	// annotation without parameter
+        	if ( parameterValue != null ) {
+        		reportAnnotationParsingError(diagnostics, DiagnosticCode.ANNOTATION_PARAMETER, sourceOffset, 
+        				entityName, fieldName, annotationString, "unexpected parameter");
+        		return null ;
+        	}
+        	return new DomainEntityFieldAnnotation(annotationDefinition.getName());
+        }
+        // parameter checked by the validator of the definition
+        Number value = validator.validate(parameterValue);
+        if ( value == null ) {
+        	reportAnnotationParsingError(diagnostics, DiagnosticCode.ANNOTATION_PARAMETER, sourceOffset, 
+        			entityName, fieldName, annotationString, validator.getErrorMessage());
+        	return null ;
+        }
+        return new DomainEntityFieldAnnotation(annotationDefinition.getName(), value);
     }
 
     /**
      * Returns the annotation name <br>
      * 
      * @param annotation e.g. "@Id", "@Max(12)", etc
-     * @return "Id", "Max", etc
-     * @throws Exception
+     * @param diagnostics
+     * @param sourceOffset
+     * @param entityName
+     * @param fieldName
+     * @return "Id", "Max", etc (or null if error)
      */
-    /* package */ String getAnnotationName (String annotation) throws Exception {
+    /* package */ String getAnnotationName (String annotation, 
+    		DiagnosticCollector diagnostics, int sourceOffset, String entityName, String fieldName) {
     	boolean blankCharFound = false ;
-    	StringBuffer sb = new StringBuffer();
+    	StringBuilder sb = new StringBuilder();
     	// skip the first char (supposed to be @)
     	for ( int i = 1 ; i < annotation.length() ; i++ ) {
     		char c = annotation.charAt(i);
             if ( Character.isLetter(c) ) {
             	if ( blankCharFound ) { 
             		// Case letter after a blank char : "Id xxx" or "aaa bbb" 
-            		throw new Exception("Invalid annotation name '" + annotation + "'");
+            		reportAnnotationParsingError(diagnostics, DiagnosticCode.ANNOTATION_SYNTAX, sourceOffset, 
+            				entityName, fieldName, annotation, "Invalid annotation name '" + annotation + "'");
+            		return null ;
             	}
         		sb.append(c);
         	}
@@ -191,7 +207,9 @@ public class AnnotationParser extends AbstractParser  {
         	}
         	else {
         		// Unexpected ending character 
-        		throw new Exception("Invalid annotation syntaxe '" + annotation + "'");
+        		reportAnnotationParsingError(diagnostics, DiagnosticCode.ANNOTATION_SYNTAX, sourceOffset, 
+        				entityName, fieldName, annotation, "Invalid annotation syntaxe '" + annotation + "'");
+        		return null ;
         	}
     	}
     	return sb.toString();
@@ -224,10 +242,14 @@ public class AnnotationParser extends AbstractParser  {
      * @param annotation e.g. "@Id", "@Max(12)", etc
      * @param openChar  typically '('
      * @param closeChar typically ')'
-     * @return the parameter value or null if none
-     * @throws Exception
+     * @param diagnostics
+     * @param sourceOffset
+     * @param entityName
+     * @param fieldName
+     * @return the parameter value or null if none (or if error)
      */
-    /* package */ String getParameterValue(String annotation, char openChar, char closeChar) throws Exception {
+    /* package */ String getParameterValue(String annotation, char openChar, char closeChar, 
+    		DiagnosticCollector diagnostics, int sourceOffset, String entityName, String fieldName) {
         int openIndex  = annotation.lastIndexOf(openChar);
         int closeIndex = annotation.lastIndexOf(closeChar);
     	if ( openIndex < 0 && closeIndex < 0 ) {
@@ -236,6 +258,7 @@ public class AnnotationParser extends AbstractParser  {
     	}
     	else {
     		// 1 or 2 chars found
+    		String error ;
         	if ( openIndex >= 0 && closeIndex >= 0 ) {
         		// open and close char found
         		if ( openIndex < closeIndex ) {
@@ -247,44 +270,39 @@ public class AnnotationParser extends AbstractParser  {
         		}
         		else {
         			// unbalanced ( and ) eg ")aa("
-        	        throw new Exception("unbalanced " + openChar + " and " + closeChar );
+        	        error = "unbalanced " + openChar + " and " + closeChar ;
         		}
         	}
         	else {
     			// unbalanced ( and ) eg "(aa" or "aa)"
             	if ( openIndex < 0 ) {
-	    	        throw new Exception(" '" + openChar + "' missing");
+	    	        error = " '" + openChar + "' missing" ;
             	}
             	else {
-	    	        throw new Exception(" '" + closeChar + "' missing");
+	    	        error = " '" + closeChar + "' missing" ;
             	}
         	}
+        	reportAnnotationParsingError(diagnostics, DiagnosticCode.ANNOTATION_SYNTAX, sourceOffset, 
+        			entityName, fieldName, annotation, error);
+        	return null ;
     	}
     }
 
-    private void checkParameterExistence(String parameterValue) throws Exception {
-    	if ( parameterValue == null || parameterValue.length() == 0 ) {
-    		throw new Exception("Parameter required");
-    	}
-    }
-    
-    /* package */ Integer getParameterValueAsInteger(String parameterValue) throws Exception {
-		// Integer value
-    	checkParameterExistence(parameterValue);
-		try {
-			return new Integer(parameterValue) ;
-		} catch (NumberFormatException e) {
-			throw new Exception("Invalid integer parameter '" + parameterValue + "'");
-		}
+    /**
+     * Returns the given parameter as an Integer 
+     * @param parameterValue
+     * @return the integer value (or null if void or invalid)
+     */
+    /* package */ Integer getParameterValueAsInteger(String parameterValue) {
+    	return (Integer) AnnotationParameterValidators.INTEGER.validate(parameterValue) ;
     }
 
-    /* package */ BigDecimal getParameterValueAsBigDecimal(String parameterValue) throws Exception {
-		// Decimal value
-    	checkParameterExistence(parameterValue);
-    	try {
-			return new BigDecimal(parameterValue) ;
-		} catch (NumberFormatException e) {
-			throw new Exception("Invalid decimal parameter '" + parameterValue + "'");
-		}
+    /**
+     * Returns the given parameter as a BigDecimal 
+     * @param parameterValue
+     * @return the decimal value (or null if void or invalid)
+     */
+    /* package */ BigDecimal getParameterValueAsBigDecimal(String parameterValue) {
+    	return (BigDecimal) AnnotationParameterValidators.DECIMAL.validate(parameterValue) ;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser;
+
+import java.io.Serializable;
+
+/**
+ * Error reported by the parsers for an entity file <br>
+ * ( error code, file name, position in the file and message ) 
+ *
+ */
+public final class Diagnostic implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final DiagnosticCode code ;
+	private final String fileName ;
+	private final int line ;
+	private final int column ;
+	private final String message ;
+
+	/**
+	 * Constructor
+	 * @param code the error code
+	 * @param fileName the entity file name ( e.g. 'Car.entity' ) 
+	 * @param line the line number (starting at 1, or 0 if unknown)
+	 * @param column the column number (starting at 1, or 0 if unknown)
+	 * @param message the error message 
+	 */
+	public Diagnostic(DiagnosticCode code, String fileName, int line, int column, String message) {
+		super();
+		this.code = code;
+		this.fileName = fileName;
+		this.line = line;
+		this.column = column;
+		this.message = message;
+	}
+
+	public DiagnosticCode getCode() {
+		return code;
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * Returns the line number (starting at 1, or 0 if unknown)
+	 * @return
+	 */
+	public int getLine() {
+		return line;
+	}
+
+	/**
+	 * Returns the column number (starting at 1, or 0 if unknown)
+	 * @return
+	 */
+	public int getColumn() {
+		return column;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return fileName + ":" + line + ":" + column + " " + code + " " + message ;
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser;
+
+/**
+ * Codes of the errors reported by the parsers
+ *
+ */
+public enum DiagnosticCode {
+
+	FILE_ERROR,            // the file cannot be read
+	COMMENT_NOT_CLOSED,    // multi-line comment without end ( '/*' without '*/' ) 
+	ENTITY_STRUCTURE,      // invalid entity body ( '{', '}', ';', no field )
+	ENTITY_NAME,           // invalid entity name or name not matching the file name 
+	ENTITY_ID,             // invalid '@Id' definition ( more than once, array, binary )
+	FIELD_SYNTAX,          // invalid field syntax ( ':', '[]', '{}' ) 
+	FIELD_NAME,            // invalid or missing field name 
+	FIELD_TYPE,            // invalid or missing field type 
+	FIELD_CARDINALITY,     // invalid cardinality 
+	FIELD_DUPLICATED,      // field defined more than once 
+	ANNOTATION_SYNTAX,     // invalid annotation syntax 
+	ANNOTATION_UNKNOWN,    // unknown annotation 
+	ANNOTATION_PARAMETER,  // missing, unexpected or invalid parameter 
+	ANNOTATION_DUPLICATED  // annotation defined more than once for the same field 
+
+}
@@ -0,0 +1,125 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.telosys.tools.dsl.EntityParserException;
+
+/**
+ * Collector for the errors found while parsing an entity file <br>
+ * The parsers report the errors in the collector (no exception), 
+ * an exception is thrown only at the API boundary ( see 'throwIfErrors' ) <br>
+ * <br>
+ * A collector is not thread-safe : one collector per entity file 
+ *
+ */
+public class DiagnosticCollector {
+
+	private final String fileName ;
+
+	private final CharSequence source ;
+
+	private SourceLines sourceLines ; // built on the first error if not provided
+
+	private final List<Diagnostic> diagnostics = new ArrayList<Diagnostic>();
+
+	/**
+	 * Constructor
+	 * @param fileName the entity file name ( e.g. 'Car.entity' ) 
+	 * @param source the original file content used to compute the lines and columns (or null if unknown)
+	 */
+	public DiagnosticCollector(String fileName, CharSequence source) {
+		super();
+		this.fileName = fileName;
+		this.source = source;
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * Sets the lines table of the source ( built by the lexer, avoids another scan of the source )
+	 * @param sourceLines
+	 */
+	void setSourceLines(SourceLines sourceLines) {
+		this.sourceLines = sourceLines;
+	}
+
+	/**
+	 * Reports an error 
+	 * @param code
+	 * @param sourceOffset position in the original content (or -1 if unknown)
+	 * @param message
+	 */
+	public void report(DiagnosticCode code, int sourceOffset, String message) {
+		int line = 0 ;
+		int column = 0 ;
+		if ( sourceLines == null && source != null ) {
+			sourceLines = SourceLines.build(source);
+		}
+		if ( sourceLines != null ) {
+			line = sourceLines.getLine(sourceOffset);
+			column = sourceLines.getColumn(sourceOffset);
+		}
+		diagnostics.add(new Diagnostic(code, fileName, line, column, message));
+	}
+
+	/**
+	 * Returns true if at least one error has been reported 
+	 * @return
+	 */
+	public boolean hasErrors() {
+		return ! diagnostics.isEmpty() ;
+	}
+
+	/**
+	 * Returns the number of errors reported 
+	 * @return
+	 */
+	public int getErrorsCount() {
+		return diagnostics.size() ;
+	}
+
+	/**
+	 * Returns all the errors reported (in the reporting order)
+	 * @return
+	 */
+	public List<Diagnostic> getDiagnostics() {
+		return Collections.unmodifiableList(diagnostics) ;
+	}
+
+	/**
+	 * Returns the first error reported (or null if none)
+	 * @return
+	 */
+	public Diagnostic getFirstError() {
+		return diagnostics.isEmpty() ? null : diagnostics.get(0) ;
+	}
+
+	/**
+	 * Throws an EntityParserException (without stack trace) if at least one error has been reported <br>
+	 * ( the exception message is the message of the first error )
+	 */
+	public void throwIfErrors() {
+		if ( ! diagnostics.isEmpty() ) {
+			throw new EntityParserException(diagnostics.get(0).getMessage(), new ArrayList<Diagnostic>(diagnostics));
+		}
+	}
+}
@@ -16,15 +16,27 @@
 package org.telosys.tools.dsl.parser;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.telosys.tools.commons.PropertiesManager;
 import org.telosys.tools.dsl.DslModelUtil;
+import org.telosys.tools.dsl.EntityFileDescriptor;
 import org.telosys.tools.dsl.EntityParserException;
 import org.telosys.tools.dsl.parser.model.DomainEntity;
 import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.dsl.parser.utils.HashUtils;
 
 /**
  * DSL model parser <br>
@@ -34,34 +46,151 @@ import org.telosys.tools.dsl.parser.model.DomainModel;
  * . foo_model/Country.entity <br>
  * . foo_model/Employee.entity <br>
  * . etc <br>
+ * <br>
+ * The entities can be parsed concurrently if an executor is provided ( the model is always 
+ * populated in the same order, whatever the parsing order ) <br>
+ * <br>
+ * If a parsing cache is provided, the entities files that are unchanged since the last parsing 
+ * are not parsed again ( the entities are loaded from the cache ) 
  *
  */
 public class DomainModelParser {
 
 	/*
-	 * Entities files with errors 
-	 * Key   : entity absolute file name 
+	 * Entities files with errors after the last call to 'parse(File)'
+	 * Key   : entity file name 
 	 * Value : parsing error
+	 * ( immutable map in the files order, replaced after each call, the errors are collected 
+	 *   in a new 'ParsingErrors' for each parsing )
 	 */
-	private final Hashtable<String,String> entitiesErrors = new Hashtable<String,String>();
+	private volatile Map<String,String> entitiesErrors = Collections.emptyMap();
 	
+	/*
+	 * All the errors reported during the last call to 'parse(File)' ( in the entities files order ) 
+	 * ( all the errors of each file, the entities are parsed in 'recovery mode' )
+	 */
+	private volatile List<Diagnostic> diagnostics = Collections.emptyList();
+	
+	/*
+	 * Executor used to parse the entities concurrently ( null for a sequential parsing ) 
+	 */
+	private final ExecutorService executor ;
+	
+	/*
+	 * Persistent cache for the parsed entities ( null if no cache ) 
+	 */
+	private final EntityParsingCache cache ;
+	
+	/*
+	 * Reader of each executor thread for the parallel parsing ( its buffers are reused for all the files 
+	 * parsed by the thread instead of new buffers for each file ) 
+	 */
+	private final ThreadLocal<EntityFileReader> fileReaders = new ThreadLocal<EntityFileReader>() {
+		@Override
+		protected EntityFileReader initialValue() {
+			return new EntityFileReader();
+		}
+	};
+	
+    /**
+     * Constructor for a sequential parsing
+     */
+    public DomainModelParser() {
+		this(null, null);
+	}
+
+    /**
+     * Constructor for a parallel parsing : each entity file is parsed by a task submitted to the given executor <br>
+     * ( e.g. a ForkJoinPool or a fixed thread pool, the executor is not shut down by the parser )
+     * 
+     * @param executor the executor to be used (or null for a sequential parsing)
+     */
+    public DomainModelParser(ExecutorService executor) {
+		this(executor, null);
+	}
+
     /**
-     * Parse the given model file
+     * Constructor with a persistent cache for the parsed entities 
+     * 
+     * @param executor the executor to be used (or null for a sequential parsing)
+     * @param cache the cache to be used (or null for no cache)
+     */
+    public DomainModelParser(ExecutorService executor, EntityParsingCache cache) {
+		super();
+		this.executor = executor;
+		this.cache = cache;
+	}
+
+    /**
+     * Parse the given model file <br>
+     * The errors are available with 'getErrors()' and 'getDiagnostics()' until the next call
      *
      * @param file the ".model" file 
      * @return
+     * @throws EntityParserException if at least one entity is invalid
      */
     public final DomainModel parse(File file) {
+    	DomainModelParsingResult result = parseModel(file);
+    	entitiesErrors = result.getErrors();
+    	diagnostics = result.getDiagnostics();
+    	if ( result.hasErrors() ) {
+    		throw new EntityParserException(result.getErrorMessage()) ;
+    	}
+    	return result.getModel();
+    }
+    
+    /**
+     * Parse the given model file without exception for the parsing errors and without any state 
+     * kept in the parser ( a single parser can be used by concurrent threads )
+     *
+     * @param file the ".model" file 
+     * @return the result containing the model or the errors 
+     */
+    public final DomainModelParsingResult parseModel(File file) {
     	ParserUtil.checkModelFile(file);
-    	return parseModelFile(file);
+    	ParsingErrors errors = new ParsingErrors();
+    	DomainModel model = parseModelFile(file, errors);
+    	if ( errors.count > 0 ) {
+    		return new DomainModelParsingResult(null, 
+    				"Parsing error(s) : " + errors.count + " invalid entity(ies) ", errors.entitiesErrors, errors.diagnostics);
+    	}
+    	return new DomainModelParsingResult(model, null, errors.entitiesErrors, errors.diagnostics);
     }
     
+    /**
+     * Returns the errors of the last call to 'parse(File)' ( Key : entity file name, Value : first error ) <br>
+     * ( a copy, the 'Hashtable' type is kept for compatibility )
+     * @return
+     */
     public Hashtable<String,String> getErrors() {
-    	return entitiesErrors ;
+    	return new Hashtable<String,String>(entitiesErrors) ;
+    }
+    
+    /**
+     * Returns all the errors reported during the last call to 'parse(File)' (with file, line and column) 
+     * @return
+     */
+    public List<Diagnostic> getDiagnostics() {
+    	return diagnostics ;
+    }
+    
+    /**
+     * Errors collected during a single parsing ( only populated by the thread calling the parser )
+     */
+    private static final class ParsingErrors {
+    	private final Map<String,String> entitiesErrors = new LinkedHashMap<String,String>();
+    	private final List<Diagnostic> diagnostics = new ArrayList<Diagnostic>();
+    	private int count = 0 ;
+    	
+        private void register(EntityFileDescriptor entityFile, DiagnosticCollector entityDiagnostics) {
+        	count++ ;
+        	entitiesErrors.put(entityFile.getFileName(), entityDiagnostics.getFirstError().getMessage() );
+    		diagnostics.addAll(entityDiagnostics.getDiagnostics());
+        }
     }
     
 //    private final DomainModel parseModelFile(File file, String modelName) {
-    private final DomainModel parseModelFile(File file) {
+    private final DomainModel parseModelFile(File file, ParsingErrors errors) {
 
     	//String modelName = ParserUtil.getModelName(file) ;
     	
@@ -82,39 +211,149 @@ public class DomainModelParser {
 
         // ENTITIES ( all the ".entity" files located in the model folder)
 //        List<String> entitiesFileNames = getEntitiesAbsoluteFileNames(file, modelName);
-        List<String> entitiesFileNames = DslModelUtil.getEntitiesAbsoluteFileNames(file);
+        // always the same order ( whatever the files system and the parsing mode ) 
+        List<EntityFileDescriptor> entitiesFiles = DslModelUtil.getEntitiesFiles(file, executor);
         
         //--- Step 1 : build void entities in the model
-        for (String entityFileName : entitiesFileNames) {
-            //File entityFile = new File(entity);
-            String entityName = DslModelUtil.getEntityName(new File(entityFileName));
-            model.addEntity(new DomainEntity(entityName));
+        for (EntityFileDescriptor entityFile : entitiesFiles) {
+            model.addEntity(new DomainEntity(entityFile.getEntityName()));
         }
 
         //--- Step 2 : parse each entity and populate it in the model
-        int errorsCount = 0 ;
-        EntityParser entityParser = new EntityParser(model);
-        for (String entityFileName : entitiesFileNames) {
+        if ( executor != null ) {
+        	parseEntitiesConcurrently(file, model, entitiesFiles, errors);
+        }
+        else {
+        	parseEntities(file, model, entitiesFiles, errors);
+        }
+        return model ;
+    }
+
+    /**
+     * Parses the given entities files sequentially and populates the model 
+     * @param modelFile
+     * @param model
+     * @param entitiesFiles
+     * @param errors
+     */
+    private void parseEntities(File modelFile, DomainModel model, List<EntityFileDescriptor> entitiesFiles, ParsingErrors errors) {
+        EntityParser entityParser = new EntityParser(model, true);
+        for (EntityFileDescriptor entityFile : entitiesFiles) {
         	//--- Parse
-        	DomainEntity domainEntity;
-			try {
-				domainEntity = entityParser.parse(entityFileName);
+        	EntityParsingResult result = parseEntity(entityParser, modelFile, model, entityFile);
+        	if ( result.entity != null ) {
 	        	//--- Populate
-	            model.populateEntityFileds(domainEntity.getName(), domainEntity.getFields() );
-			} catch (EntityParserException parsingException) {
-				errorsCount++ ;
-				File entityFile = new File(entityFileName);
-				entitiesErrors.put(entityFile.getName(), parsingException.getMessage() );
-			}
+	            model.populateEntityFileds(result.entity.getName(), result.entity.getFields() );
+        	}
+        	else {
+				errors.register(entityFile, result.diagnostics);
+        	}
         }
-        if ( errorsCount == 0 ) {
-            return model;
+    }
+    
+    /**
+     * Parses the given entities files concurrently (one task per file) <br>
+     * then populates the model in the files order 
+     * @param modelFile
+     * @param model
+     * @param entitiesFiles
+     * @param errors
+     */
+    private void parseEntitiesConcurrently(final File modelFile, final DomainModel model, List<EntityFileDescriptor> entitiesFiles, 
+    		ParsingErrors errors) {
+    	//--- Submit a parsing task for each file 
+    	// ( during this step the model is only read by the tasks : the void entities are already defined )
+    	List<Future<EntityParsingResult>> futures = new ArrayList<Future<EntityParsingResult>>(entitiesFiles.size());
+        for (final EntityFileDescriptor entityFile : entitiesFiles) {
+        	futures.add( executor.submit(new Callable<EntityParsingResult>() {
+				@Override
+				public EntityParsingResult call() {
+					// Parser instances and collectors are not shared between tasks ( the reader is shared by the tasks of a thread )
+					return parseEntity(new EntityParser(model, true, fileReaders.get()), modelFile, model, entityFile);
+				}
+			}) );
         }
-        else {
-        	throw new EntityParserException( "Parsing error(s) : " + errorsCount + " invalid entity(ies) ") ;
+    	//--- Wait for each result and populate the model (in the current thread)
+        for ( int i = 0 ; i < futures.size() ; i++ ) {
+        	EntityFileDescriptor entityFile = entitiesFiles.get(i);
+			try {
+				EntityParsingResult result = futures.get(i).get();
+	        	if ( result.entity != null ) {
+		            model.populateEntityFileds(result.entity.getName(), result.entity.getFields() );
+	        	}
+	        	else {
+					errors.register(entityFile, result.diagnostics);
+	        	}
+			} catch (ExecutionException executionException) {
+				// unexpected error (not a parsing error)
+				Throwable cause = executionException.getCause();
+				if ( cause instanceof RuntimeException ) {
+					throw (RuntimeException) cause ;
+				}
+				else {
+					throw new IllegalStateException("Cannot parse entity file '" + entityFile.getPath() + "'", cause);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new EntityParserException("Parsing interrupted");
+			}
         }
     }
-
+    
+    /**
+     * Result of the parsing of a single entity file 
+     */
+    private static final class EntityParsingResult {
+    	private final DomainEntity entity ; // null if errors
+    	private final DiagnosticCollector diagnostics ;
+    	
+		private EntityParsingResult(DomainEntity entity, DiagnosticCollector diagnostics) {
+			super();
+			this.entity = entity;
+			this.diagnostics = diagnostics;
+		}
+    }
+    
+    /**
+     * Parses the given entity file or loads it from the cache if the file is unchanged <br>
+     * The errors are reported in the collector of the result (no exception) <br>
+     * The parser is supposed to be in recovery mode in order to report all the errors of the file
+     * @param entityParser
+     * @param modelFile
+     * @param model
+     * @param entityFile
+     * @return
+     */
+    private EntityParsingResult parseEntity(EntityParser entityParser, File modelFile, DomainModel model, EntityFileDescriptor entityFile) {
+    	DiagnosticCollector diagnostics = new DiagnosticCollector(entityFile.getFileName(), null);
+    	if ( cache == null ) {
+    		// NIO reading in the parser buffers
+    		DomainEntity domainEntity = entityParser.parse(entityFile.getFile(), diagnostics);
+    		return new EntityParsingResult(diagnostics.hasErrors() ? null : domainEntity, diagnostics);
+    	}
+        String entityName = entityFile.getEntityName();
+    	byte[] content ;
+    	try {
+    		content = Files.readAllBytes(entityFile.getPath());
+    	} catch (IOException e) {
+    		diagnostics.report(DiagnosticCode.FILE_ERROR, -1, "Cannot read file : "+ entityFile.getPath());
+    		return new EntityParsingResult(null, diagnostics);
+    	}
+    	byte[] contentHash = HashUtils.hash(content);
+    	DomainEntity domainEntity = cache.load(modelFile, entityName, contentHash, model);
+    	if ( domainEntity != null ) {
+    		return new EntityParsingResult(domainEntity, diagnostics);
+    	}
+    	domainEntity = entityParser.parseContent(content, entityName, diagnostics);
+    	if ( diagnostics.hasErrors() ) {
+    		// partial entity (recovery mode) : not used in the model
+    		return new EntityParsingResult(null, diagnostics);
+    	}
+		// only the valid entities are stored 
+		cache.store(modelFile, domainEntity, contentHash);
+    	return new EntityParsingResult(domainEntity, diagnostics);
+    }
+    
     public List<String> getEntitiesAbsoluteFileNames(File modelFile) {
     	ParserUtil.checkModelFile(modelFile);
     	return DslModelUtil.getEntitiesAbsoluteFileNames(modelFile);
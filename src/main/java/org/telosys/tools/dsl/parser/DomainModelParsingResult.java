@@ -0,0 +1,88 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.telosys.tools.dsl.parser.model.DomainModel;
+
+/**
+ * Immutable result of a model parsing ( the model or the errors ) <br>
+ * Built for each call, so a parser can be used by several threads without sharing any error state 
+ *
+ */
+public final class DomainModelParsingResult {
+
+	private final DomainModel model ;
+	private final String errorMessage ;
+	private final Map<String,String> errors ;
+	private final List<Diagnostic> diagnostics ;
+
+	/**
+	 * Constructor 
+	 * @param model the model (or null if errors)
+	 * @param errorMessage the global error message (or null if no error)
+	 * @param errors the errors ( Key : entity file name, Value : first error ) in the files order
+	 * @param diagnostics all the errors 
+	 */
+	public DomainModelParsingResult(DomainModel model, String errorMessage, Map<String,String> errors, List<Diagnostic> diagnostics) {
+		super();
+		this.model = model;
+		this.errorMessage = errorMessage;
+		this.errors = Collections.unmodifiableMap(new LinkedHashMap<String,String>(errors));
+		this.diagnostics = Collections.unmodifiableList(new ArrayList<Diagnostic>(diagnostics));
+	}
+
+	/**
+	 * Returns the model (or null if at least one entity is invalid)
+	 * @return
+	 */
+	public DomainModel getModel() {
+		return model;
+	}
+
+	public boolean hasErrors() {
+		return model == null ;
+	}
+
+	/**
+	 * Returns the global error message (or null if no error)
+	 * @return
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * Returns the errors ( Key : entity file name, Value : first error of the file ) in the files order
+	 * @return
+	 */
+	public Map<String,String> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Returns all the errors (with file, line and column) in the files order
+	 * @return
+	 */
+	public List<Diagnostic> getDiagnostics() {
+		return diagnostics;
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * NIO reader for the entity files (UTF-8) <br>
+ * . small files are read with a FileChannel in a reusable direct ByteBuffer <br>
+ * . large files are memory-mapped <br>
+ * The bytes are decoded (UTF-8, invalid bytes replaced) in a reusable CharBuffer : 
+ * no String, no line by line reading. <br>
+ * <br>
+ * The CharBuffer returned by 'read' or 'decode' is only valid until the next call 
+ * (it can be given to the EntityLexer). <br>
+ * A reader instance is not thread-safe (one reader per parser).
+ *
+ */
+public class EntityFileReader {
+
+	/**
+	 * Files larger than this size (in bytes) are memory-mapped 
+	 */
+	public static final int DEFAULT_MAPPING_THRESHOLD = 1024 * 1024 ;
+
+	private static final int MIN_CAPACITY = 8 * 1024 ;
+
+	private final int mappingThreshold ;
+
+	private final CharsetDecoder decoder ;
+
+	private ByteBuffer byteBuffer ; // reusable direct buffer (null until the first read)
+
+	private CharBuffer charBuffer ; // reusable char buffer 
+
+	/**
+	 * Constructor 
+	 */
+	public EntityFileReader() {
+		this(DEFAULT_MAPPING_THRESHOLD);
+	}
+
+	/**
+	 * Constructor 
+	 * @param mappingThreshold files larger than this size (in bytes) are memory-mapped
+	 */
+	public EntityFileReader(int mappingThreshold) {
+		super();
+		this.mappingThreshold = mappingThreshold ;
+		this.decoder = StandardCharsets.UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.charBuffer = CharBuffer.allocate(MIN_CAPACITY);
+	}
+
+	/**
+	 * Reads the given file and returns its content 
+	 * @param file
+	 * @return the content (valid until the next call)
+	 * @throws IOException
+	 */
+	public CharBuffer read(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if ( size > Integer.MAX_VALUE ) {
+				throw new IOException("File too large : " + file.getAbsolutePath());
+			}
+			if ( size > mappingThreshold ) {
+				// large file : no copy in the java heap (mapping released by the GC)
+				return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+			}
+			ByteBuffer buffer = getByteBuffer((int) size);
+			while ( buffer.hasRemaining() && channel.read(buffer) >= 0 ) {
+				// read until the buffer is full or EOF
+			}
+			buffer.flip();
+			return decode(buffer);
+		}
+		finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Decodes the given file content 
+	 * @param content the file content (UTF-8)
+	 * @return the content (valid until the next call)
+	 */
+	public CharBuffer decode(byte[] content) {
+		return decode(ByteBuffer.wrap(content));
+	}
+
+	private ByteBuffer getByteBuffer(int size) {
+		if ( byteBuffer == null || byteBuffer.capacity() < size ) {
+			byteBuffer = ByteBuffer.allocateDirect(Math.max(MIN_CAPACITY, size));
+		}
+		byteBuffer.clear();
+		byteBuffer.limit(size);
+		return byteBuffer ;
+	}
+
+	private CharBuffer decode(ByteBuffer bytes) {
+		// UTF-8 : never more chars than bytes 
+		int capacity = bytes.remaining();
+		if ( charBuffer.capacity() < capacity ) {
+			charBuffer = CharBuffer.allocate(capacity);
+		}
+		charBuffer.clear();
+		decoder.reset();
+		CoderResult result = decoder.decode(bytes, charBuffer, true);
+		if ( ! result.isUnderflow() ) {
+			// cannot happen with the REPLACE actions and a buffer large enough 
+			throw new IllegalStateException("Cannot decode the file content (" + result + ")");
+		}
+		decoder.flush(charBuffer);
+		charBuffer.flip();
+		return charBuffer ;
+	}
+}
@@ -0,0 +1,435 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser;
+
+import java.util.Arrays;
+
+import org.telosys.tools.dsl.IdentifierRules;
+import org.telosys.tools.dsl.parser.model.SourceSpan;
+
+/**
+ * Single pass lexer for the entity files <br>
+ * In one forward pass over the original text it : <br>
+ * - removes the comments ( single-line and multi-line comments ) <br>
+ * - removes all EOL characters (CR-LF) <br>
+ * - removes whitespaces and TABS at the beginning/end of each line (trim) <br>
+ * - splits the resulting "flat text" in tokens <br>
+ * <br>
+ * The tokens are stored in parallel arrays (no object per token) : <br>
+ * . kind : WORD or the symbol character itself ( '{', '}', ';', ':', etc ) <br>
+ * . start/end : position in the flat text <br>
+ * . source offset : position of the first char in the original text <br>
+ * . identifier : true if the token contains only word chars ( see 'IdentifierRules' ) <br>
+ * <br>
+ * The lines table of the original text is built during the same pass 
+ * ( used to convert a source offset to a line/column ) <br>
+ *
+ */
+public class EntityLexer {
+
+	/**
+	 * Token kind for a sequence of characters that are neither whitespaces nor symbols
+	 * ( entity name, field name, type name, annotation name, parameter value, etc )
+	 */
+	public static final char WORD = 'w' ;
+
+	private static final int MIN_TOKENS_CAPACITY = 64 ;
+
+	// average number of chars per token in a usual entity file (used to size the tokens arrays)
+	private static final int CHARS_PER_TOKEN = 6 ;
+
+	//--- Flat text
+	private final char[] flat ;
+	private int flatLength = 0 ;
+
+	//--- Tokens (parallel arrays)
+	private char[] kinds ;
+	private int[]  starts ;
+	private int[]  ends ;
+	private int[]  sourceOffsets ;
+	private boolean[] identifiers ;
+	private int    tokensCount = 0 ;
+
+	//--- Lines of the original text
+	private final SourceLines sourceLines ;
+
+	//--- Position of the multi-line comment not closed in the original text (or -1 if none)
+	private int unclosedCommentOffset = -1 ;
+
+	/**
+	 * Constructor : performs the lexical analysis of the given text (String, CharBuffer, StringBuilder, etc)
+	 * @param text the original text
+	 */
+	public EntityLexer(CharSequence text) {
+		// the flat text cannot be longer than the original text
+		this.flat = new char[text.length()];
+		int capacity = Math.max(MIN_TOKENS_CAPACITY, text.length() / CHARS_PER_TOKEN);
+		this.kinds = new char[capacity];
+		this.starts = new int[capacity];
+		this.ends = new int[capacity];
+		this.sourceOffsets = new int[capacity];
+		this.identifiers = new boolean[capacity];
+		SourceLines.Builder linesBuilder = new SourceLines.Builder(text.length());
+		run(text, linesBuilder);
+		this.sourceLines = linesBuilder.build();
+	}
+
+	/**
+	 * Returns true if the given char is a symbol (a single char token)
+	 * @param c
+	 * @return
+	 */
+	public static boolean isSymbolChar(char c) {
+		switch (c) {
+		case '{' :
+		case '}' :
+		case '[' :
+		case ']' :
+		case '(' :
+		case ')' :
+		case ':' :
+		case ';' :
+		case ',' :
+		case '@' :
+			return true ;
+		default :
+			return false ;
+		}
+	}
+
+	private static boolean isBlank(char c) {
+		// same definition as String.trim()
+		return c <= ' ' ;
+	}
+
+	private static boolean isEndOfLine(char c) {
+		return c == '\n' || c == '\r' ;
+	}
+
+	private void run(CharSequence text, SourceLines.Builder linesBuilder) {
+		final int length = text.length();
+		int lineEnd = 0 ;             // flat text length after the last significant char of the current line
+		boolean lineStarted = false ; // at least one significant char written for the current line
+		boolean inWord = false ;
+		int i = 0 ;
+		while ( i < length ) {
+			char c = text.charAt(i);
+			//--- Comments
+			if ( c == '/' && i + 1 < length ) {
+				char next = text.charAt(i+1);
+				if ( next == '*' ) {
+					// multi-line comment : skip everything until "*/" (or until the end if not closed)
+					int j = i + 2 ;
+					while ( j < length && ! ( text.charAt(j) == '*' && j + 1 < length && text.charAt(j+1) == '/' ) ) {
+						if ( isEndOfLine(text.charAt(j)) ) {
+							linesBuilder.check(text, j);
+						}
+						j++;
+					}
+					if ( j < length ) {
+						i = j + 2 ;
+					}
+					else {
+						// not closed : the rest of the text is ignored (error reported by 'reportErrors')
+						unclosedCommentOffset = i ;
+						i = length ;
+					}
+					// a comment separates tokens (the current line goes on)
+					inWord = false ;
+					continue;
+				}
+				else if ( next == '/' ) {
+					// single-line comment : skip everything until the end of line (EOL not included)
+					int j = i + 2 ;
+					while ( j < length && ! isEndOfLine(text.charAt(j)) ) {
+						j++;
+					}
+					i = j ;
+					inWord = false ;
+					continue;
+				}
+			}
+			//--- End of line : the trailing blank chars are dropped
+			if ( isEndOfLine(c) ) {
+				linesBuilder.check(text, i);
+				flatLength = lineEnd ;
+				lineStarted = false ;
+				inWord = false ;
+				i++;
+				continue;
+			}
+			//--- Blank chars : the leading blank chars are dropped, the others are kept (for the moment)
+			if ( isBlank(c) ) {
+				if ( lineStarted ) {
+					flat[flatLength++] = c ;
+				}
+				inWord = false ;
+				i++;
+				continue;
+			}
+			//--- Significant char
+			lineStarted = true ;
+			if ( isSymbolChar(c) ) {
+				addToken(c, flatLength, flatLength + 1, i);
+				inWord = false ;
+			}
+			else {
+				if ( inWord ) {
+					ends[tokensCount-1] = flatLength + 1 ;
+					identifiers[tokensCount-1] &= IdentifierRules.isWordChar(c) ;
+				}
+				else {
+					addToken(WORD, flatLength, flatLength + 1, i);
+					identifiers[tokensCount-1] = IdentifierRules.isWordChar(c) ;
+					inWord = true ;
+				}
+			}
+			flat[flatLength++] = c ;
+			lineEnd = flatLength ;
+			i++;
+		}
+		flatLength = lineEnd ;
+	}
+
+	/**
+	 * Returns the position of the multi-line comment not closed in the original text 
+	 * @return the position of the '/*' (or -1 if all the comments are closed)
+	 */
+	public int getUnclosedCommentOffset() {
+		return unclosedCommentOffset ;
+	}
+
+	/**
+	 * Reports the lexical errors in the given collector ( multi-line comment not closed ) 
+	 * @param diagnostics the collector (its lines table is set if not yet defined)
+	 * @param entityName the entity name used in the messages
+	 */
+	public void reportErrors(DiagnosticCollector diagnostics, String entityName) {
+		if ( unclosedCommentOffset >= 0 ) {
+			diagnostics.setSourceLines(sourceLines);
+			diagnostics.report(DiagnosticCode.COMMENT_NOT_CLOSED, unclosedCommentOffset, 
+					entityName + " : Comment not closed ( '/*' without '*/' )");
+		}
+	}
+
+	private void addToken(char kind, int start, int end, int sourceOffset) {
+		if ( tokensCount == kinds.length ) {
+			int newCapacity = tokensCount * 2 ;
+			kinds = Arrays.copyOf(kinds, newCapacity);
+			starts = Arrays.copyOf(starts, newCapacity);
+			ends = Arrays.copyOf(ends, newCapacity);
+			sourceOffsets = Arrays.copyOf(sourceOffsets, newCapacity);
+			identifiers = Arrays.copyOf(identifiers, newCapacity);
+		}
+		kinds[tokensCount] = kind ;
+		starts[tokensCount] = start ;
+		ends[tokensCount] = end ;
+		sourceOffsets[tokensCount] = sourceOffset ;
+		tokensCount++;
+	}
+
+	//-------------------------------------------------------------------------------------------------
+	// Flat text
+	//-------------------------------------------------------------------------------------------------
+	/**
+	 * Returns the flat text buffer (only the first 'getFlatLength()' chars are significant)
+	 * @return
+	 */
+	public char[] getFlatBuffer() {
+		return flat ;
+	}
+
+	/**
+	 * Returns the length of the flat text
+	 * @return
+	 */
+	public int getFlatLength() {
+		return flatLength ;
+	}
+
+	/**
+	 * Returns the flat text as a String <br>
+	 * (same result as the former 'comments removing + text flattening')
+	 * @return
+	 */
+	public String getFlatText() {
+		return new String(flat, 0, flatLength);
+	}
+
+	/**
+	 * Returns the flat text located between the given positions
+	 * @param start first char position (included)
+	 * @param end last char position (excluded)
+	 * @return
+	 */
+	public String getFlatText(int start, int end) {
+		return new String(flat, start, end - start);
+	}
+
+	//-------------------------------------------------------------------------------------------------
+	// Tokens
+	//-------------------------------------------------------------------------------------------------
+	/**
+	 * Returns the number of tokens
+	 * @return
+	 */
+	public int getTokensCount() {
+		return tokensCount ;
+	}
+
+	/**
+	 * Returns the kind of the given token : WORD or the symbol char ( '{', ';', etc )
+	 * @param token token index
+	 * @return
+	 */
+	public char getKind(int token) {
+		return kinds[token] ;
+	}
+
+	/**
+	 * Returns true if the given token is the given symbol
+	 * @param token token index
+	 * @param symbol
+	 * @return
+	 */
+	public boolean isSymbol(int token, char symbol) {
+		return kinds[token] == symbol ;
+	}
+
+	/**
+	 * Returns true if the given token is a WORD containing only word chars 
+	 * ( valid field name, see 'IdentifierRules.isValidFieldName' )
+	 * @param token token index
+	 * @return
+	 */
+	public boolean isIdentifier(int token) {
+		return identifiers[token] ;
+	}
+
+	/**
+	 * Returns true if the given token is a valid entity name ( see 'IdentifierRules.isValidEntityName' )
+	 * @param token token index
+	 * @return
+	 */
+	public boolean isEntityName(int token) {
+		return identifiers[token] && IdentifierRules.isValidEntityName(flat, starts[token], ends[token]) ;
+	}
+
+	/**
+	 * Returns the start position of the given token in the flat text (included)
+	 * @param token token index
+	 * @return
+	 */
+	public int getStart(int token) {
+		return starts[token] ;
+	}
+
+	/**
+	 * Returns the end position of the given token in the flat text (excluded)
+	 * @param token token index
+	 * @return
+	 */
+	public int getEnd(int token) {
+		return ends[token] ;
+	}
+
+	/**
+	 * Returns the position of the given token in the original text
+	 * @param token token index
+	 * @return
+	 */
+	public int getSourceOffset(int token) {
+		return sourceOffsets[token] ;
+	}
+
+	/**
+	 * Returns the position after the last char of the given token in the original text
+	 * @param token token index
+	 * @return
+	 */
+	public int getSourceEnd(int token) {
+		return sourceOffsets[token] + ( ends[token] - starts[token] ) ;
+	}
+
+	/**
+	 * Returns the span of the given tokens in the original text
+	 * @param firstToken
+	 * @param lastToken
+	 * @return
+	 */
+	public SourceSpan getSourceSpan(int firstToken, int lastToken) {
+		int start = sourceOffsets[firstToken] ;
+		return new SourceSpan(start, getSourceEnd(lastToken), sourceLines.getLine(start), sourceLines.getColumn(start));
+	}
+
+	/**
+	 * Returns the lines table of the original text
+	 * @return
+	 */
+	public SourceLines getSourceLines() {
+		return sourceLines ;
+	}
+
+	/**
+	 * Returns the text of the given token
+	 * @param token token index
+	 * @return
+	 */
+	public String getText(int token) {
+		return getFlatText(starts[token], ends[token]);
+	}
+
+	/**
+	 * Returns the flat text from the first given token to the last given token (both included)
+	 * @param firstToken
+	 * @param lastToken
+	 * @return the text (or a void string if lastToken is before firstToken)
+	 */
+	public String getText(int firstToken, int lastToken) {
+		if ( lastToken < firstToken ) {
+			return "" ;
+		}
+		return getFlatText(starts[firstToken], ends[lastToken]);
+	}
+
+	/**
+	 * Returns the index of the first token with the given kind (or -1 if none)
+	 * @param kind
+	 * @return
+	 */
+	public int indexOf(char kind) {
+		for ( int i = 0 ; i < tokensCount ; i++ ) {
+			if ( kinds[i] == kind ) {
+				return i ;
+			}
+		}
+		return -1 ;
+	}
+
+	/**
+	 * Returns the index of the last token with the given kind (or -1 if none)
+	 * @param kind
+	 * @return
+	 */
+	public int lastIndexOf(char kind) {
+		for ( int i = tokensCount - 1 ; i >= 0 ; i-- ) {
+			if ( kinds[i] == kind ) {
+				return i ;
+			}
+		}
+		return -1 ;
+	}
+}
@@ -16,17 +16,17 @@
 package org.telosys.tools.dsl.parser;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 
+import org.telosys.tools.dsl.AnnotationKind;
 import org.telosys.tools.dsl.DslModelUtil;
 import org.telosys.tools.dsl.EntityParserException;
 import org.telosys.tools.dsl.parser.model.DomainEntity;
 import org.telosys.tools.dsl.parser.model.DomainEntityField;
 import org.telosys.tools.dsl.parser.model.DomainModel;
 import org.telosys.tools.dsl.parser.model.DomainNeutralTypes;
-import org.telosys.tools.dsl.parser.utils.StringUtils;
 
 /**
  * First entry point for the Telosys entity parser
@@ -42,9 +42,53 @@ public class EntityParser extends AbstractParser {
      */
     private FieldParser fieldParser;
 
+    /**
+     * Recovery mode : the parsing goes on after an error in a field
+     */
+    private final boolean recoveryMode ;
+
+    /**
+     * Reader for the entity files (given to the constructor or created on the first file)
+     */
+    private EntityFileReader fileReader ;
+
+    /**
+     * Constructor (the parsing stops at the first error)
+     * @param model
+     */
     public EntityParser(DomainModel model) {
+        this(model, false);
+    }
+
+    /**
+     * Constructor 
+     * @param model
+     * @param recoveryMode if true, after an error in a field the parser skips to the next ';' and goes on, 
+     *   all the errors are reported and a partial entity (with only the valid fields) is returned 
+     */
+    public EntityParser(DomainModel model, boolean recoveryMode) {
+        this(model, recoveryMode, null);
+    }
+
+    /**
+     * Constructor with a reader to be reused ( e.g. the reader of the current thread ) 
+     * @param model
+     * @param recoveryMode 
+     * @param fileReader the reader for the entity files (or null to create a reader on the first file)
+     */
+    public EntityParser(DomainModel model, boolean recoveryMode, EntityFileReader fileReader) {
     	//super(LoggerFactory.getLogger(EntityParser.class));
         this.fieldParser = new FieldParser(model);
+        this.recoveryMode = recoveryMode ;
+        this.fileReader = fileReader ;
+    }
+
+    /**
+     * Returns true if the parser is in 'recovery mode'
+     * @return
+     */
+    public boolean isRecoveryMode() {
+        return recoveryMode ;
     }
 
     /**
@@ -59,129 +103,300 @@ public class EntityParser extends AbstractParser {
     /**
      * Parse the entity defined in the given File
      * @param file
+     * @throws EntityParserException if the file cannot be read or if the entity is invalid
      */
     protected DomainEntity parse(File file) {
-    	InputStream is ;
-        try {
-            is = new FileInputStream(file);
-        } catch (FileNotFoundException e) {
+        if ( ! file.exists() ) {
             throw new EntityParserException( "File Not found : "+ file.getAbsolutePath() );
         }
-        String entityNameFromFileName = DslModelUtil.getEntityName(file);
-        return this.parse(is, entityNameFromFileName);
+        DiagnosticCollector diagnostics = new DiagnosticCollector(file.getName(), null);
+        DomainEntity domainEntity = parse(file, diagnostics);
+        diagnostics.throwIfErrors();
+        return domainEntity ;
+    }
+
+    /**
+     * Parse the entity defined in the given File <br>
+     * The file is read with NIO in reusable buffers (UTF-8) <br>
+     * The errors are reported in the given collector (no exception)
+     * @param file
+     * @param diagnostics the collector for the errors
+     * @return the entity (or null if errors, or a partial entity in recovery mode)
+     */
+    protected DomainEntity parse(File file, DiagnosticCollector diagnostics) {
+        CharBuffer content ;
+        try {
+            content = getFileReader().read(file);
+        } catch (IOException e) {
+            diagnostics.report(DiagnosticCode.FILE_ERROR, -1, "Cannot read file : "+ file.getAbsolutePath());
+            return null ;
+        }
+        return parseContent(content, DslModelUtil.getEntityName(file), diagnostics) ;
+    }
+
+    /**
+     * Parse the entity defined in the given file content <br>
+     * The errors are reported in the given collector (no exception)
+     * @param content the file content (UTF-8)
+     * @param entityNameFromFileName
+     * @param diagnostics the collector for the errors
+     * @return the entity (or null if errors, or a partial entity in recovery mode)
+     */
+    protected DomainEntity parseContent(byte[] content, String entityNameFromFileName, DiagnosticCollector diagnostics) {
+        return parseContent(getFileReader().decode(content), entityNameFromFileName, diagnostics) ;
+    }
+
+    private EntityFileReader getFileReader() {
+        if ( fileReader == null ) {
+            fileReader = new EntityFileReader();
+        }
+        return fileReader ;
     }
 
     /**
-     * Parse the entity defined in the given InputStream
-     * @param is
+     * Parse the entity defined in the given content (the original file content)
+     * @param content
+     * @param entityNameFromFileName
+     * @return
+     * @throws EntityParserException if the entity is invalid
      */
-    private DomainEntity parse(InputStream is, String entityNameFromFileName) {
+    protected DomainEntity parseContent(CharSequence content, String entityNameFromFileName) {
+        DiagnosticCollector diagnostics = new DiagnosticCollector(entityNameFromFileName, content);
+        DomainEntity domainEntity = parseContent(content, entityNameFromFileName, diagnostics) ;
+        diagnostics.throwIfErrors();
+        return domainEntity ;
+    }
 
-        String originalContent = StringUtils.readStream(is);
-        String flattenContent = ParserUtil.preprocessText(originalContent);
+    /**
+     * Parse the entity defined in the given content (the original file content) <br>
+     * The errors are reported in the given collector (no exception)
+     * @param content
+     * @param entityNameFromFileName
+     * @param diagnostics the collector for the errors (built with the same content)
+     * @return the entity (or null if errors, or a partial entity in recovery mode)
+     */
+    protected DomainEntity parseContent(CharSequence content, String entityNameFromFileName, DiagnosticCollector diagnostics) {
+        EntityLexer lexer = new EntityLexer(content);
         
-        return parseFlattenContent(flattenContent, entityNameFromFileName) ;
+        return parseFlattenContent(lexer, entityNameFromFileName, diagnostics) ;
     }
 
     /**
      * @param flattenContent the file content after flatten
      * @param entityNameFromFileName
      * @return
+     * @throws EntityParserException if the entity is invalid
      */
     protected DomainEntity parseFlattenContent(String flattenContent, String entityNameFromFileName) {
+        return parseFlattenContent(new EntityLexer(flattenContent), entityNameFromFileName) ;
+    }
 
-        // get index of first and last open brackets
-        int bodyStart = flattenContent.indexOf('{');
-        int bodyEnd = flattenContent.lastIndexOf('}');
+    /**
+     * @param lexer the lexer holding the file content tokens
+     * @param entityNameFromFileName
+     * @return
+     * @throws EntityParserException if the entity is invalid
+     */
+    protected DomainEntity parseFlattenContent(EntityLexer lexer, String entityNameFromFileName) {
+        DiagnosticCollector diagnostics = new DiagnosticCollector(entityNameFromFileName, null);
+        DomainEntity domainEntity = parseFlattenContent(lexer, entityNameFromFileName, diagnostics) ;
+        diagnostics.throwIfErrors();
+        return domainEntity ;
+    }
 
-        checkStructure(entityNameFromFileName, bodyStart, bodyEnd);
+    /**
+     * @param lexer the lexer holding the file content tokens
+     * @param entityNameFromFileName
+     * @param diagnostics the collector for the errors
+     * @return the entity (or null if errors, or a partial entity in recovery mode)
+     */
+    protected DomainEntity parseFlattenContent(EntityLexer lexer, String entityNameFromFileName, DiagnosticCollector diagnostics) {
 
-        if (bodyEnd - bodyStart == 1) {
-            throwParsingError(entityNameFromFileName, "An entity must contain at least one field");
+        // lines table built by the lexer (no other scan of the content to locate the errors)
+        diagnostics.setSourceLines(lexer.getSourceLines());
+
+        // text lost in a comment not closed 
+        lexer.reportErrors(diagnostics, entityNameFromFileName);
+        if ( lexer.getUnclosedCommentOffset() >= 0 && ! recoveryMode ) {
+        	return null ;
         }
 
-        String entityNameInFile = flattenContent.substring(0, bodyStart).trim();
+        // get index of first and last open brackets tokens
+        int bodyStart = lexer.indexOf('{');
+        int bodyEnd = lexer.lastIndexOf('}');
 
-        // the filename must be equal to entity name
-        if (!entityNameInFile.equals(entityNameFromFileName)) {
-            throwParsingError(entityNameFromFileName, "Entity name '" + entityNameInFile +"' doesn't match with file name ");
+        if ( ! checkStructure(lexer, entityNameFromFileName, bodyStart, bodyEnd, diagnostics) ) {
+        	return null ;
         }
 
-        // the first later of an entity must be upper case
-        if (!Character.isUpperCase(flattenContent.charAt(0))) {
-            throwParsingError(entityNameFromFileName, "Entity name must start with an upper case");
+        if (bodyEnd - bodyStart == 1) {
+            reportParsingError(diagnostics, DiagnosticCode.ENTITY_STRUCTURE, lexer.getSourceOffset(bodyStart), 
+            		entityNameFromFileName, "An entity must contain at least one field");
+            return null ;
         }
 
-        // only simple chars are allowed
-        if (!entityNameInFile.matches("^[A-Z][\\w]*$")) {
-            throwParsingError(entityNameFromFileName, "Entity name '" + entityNameInFile +"' must not contains special char ");
+        // all the tokens before the body (trimmed text)
+        String entityNameInFile = lexer.getText(0, bodyStart - 1);
+        if ( ! checkEntityName(lexer, entityNameFromFileName, entityNameInFile, diagnostics) ) {
+        	if ( ! recoveryMode ) {
+        		return null ;
+        	}
+        	// recovery : go on with the name expected for this file 
+        	entityNameInFile = entityNameFromFileName ;
         }
 
         // create object
         DomainEntity domainEntity = new DomainEntity(entityNameInFile);
+        domainEntity.setSourceSpan(lexer.getSourceSpan(0, bodyEnd));
 
-        // find all fields
-        String body = flattenContent.substring(bodyStart + 1, bodyEnd).trim();
-        if (body.lastIndexOf(';') != body.length() - 1) {
-            throwParsingError(entityNameFromFileName, "Semicolon is missing");
+        // find all fields ( the body is supposed to end with a ';' )
+        int lastFieldEnd = bodyEnd ;
+        if (!lexer.isSymbol(bodyEnd - 1, ';')) {
+            reportParsingError(diagnostics, DiagnosticCode.ENTITY_STRUCTURE, lexer.getSourceOffset(bodyEnd), 
+            		entityNameFromFileName, "Semicolon is missing");
+            if ( ! recoveryMode ) {
+            	return null ;
+            }
+            // recovery : the last tokens are considered as a field terminated by the '}' 
+            lastFieldEnd = bodyEnd + 1 ;
         }
 
-        String[] fieldList = body.split(";");
-
-        // extract fields
-        for (String field : fieldList) {
-            DomainEntityField f = fieldParser.parseField(entityNameFromFileName, field.trim());
-            domainEntity.addField(f);
+        // extract fields ( tokens between 2 ';' )
+        int[] fieldsOffsets = new int[16] ;
+        int fieldsCount = 0 ;
+        int fieldStart = bodyStart + 1 ;
+        for (int token = fieldStart ; token < lastFieldEnd ; token++ ) {
+            if ( lexer.isSymbol(token, ';') || token == bodyEnd ) {
+                int fieldOffset = lexer.getSourceOffset(fieldStart);
+                DomainEntityField f = fieldParser.parseField(entityNameFromFileName, lexer, fieldStart, token - 1, diagnostics);
+                fieldStart = token + 1 ;
+                if ( f == null ) {
+                	if ( ! recoveryMode ) {
+                		return null ;
+                	}
+                	continue ; // recovery : skip to the next ';'
+                }
+                if ( domainEntity.getField(f.getName()) != null ) {
+                	// same message as 'DomainEntity.addField'
+                	diagnostics.report(DiagnosticCode.FIELD_DUPLICATED, fieldOffset, "Field '" + f.getName() + "' already defined");
+                	if ( ! recoveryMode ) {
+                		return null ;
+                	}
+                	continue ; // recovery : the first definition is kept
+                }
+                domainEntity.addField(f);
+                if ( fieldsCount == fieldsOffsets.length ) {
+                	fieldsOffsets = Arrays.copyOf(fieldsOffsets, fieldsCount * 2);
+                }
+                fieldsOffsets[fieldsCount++] = fieldOffset ;
+            }
+        }
+        if ( ! verifyEntityStructure(domainEntity, entityNameFromFileName, fieldsOffsets, diagnostics) && ! recoveryMode ) {
+        	return null ;
         }
-        verifyEntityStructure(domainEntity, entityNameFromFileName);
         return domainEntity;
     }
 
+    /**
+     * Checks the entity name found in the file
+     * @param lexer
+     * @param entityNameFromFileName
+     * @param entityNameInFile
+     * @param diagnostics
+     * @return true if valid, false if an error has been reported
+     */
+    private boolean checkEntityName(EntityLexer lexer, String entityNameFromFileName, String entityNameInFile, DiagnosticCollector diagnostics) {
+        int entityNameOffset = lexer.getSourceOffset(0);
+
+        // the filename must be equal to entity name
+        if (!entityNameInFile.equals(entityNameFromFileName)) {
+            reportParsingError(diagnostics, DiagnosticCode.ENTITY_NAME, entityNameOffset, 
+            		entityNameFromFileName, "Entity name '" + entityNameInFile +"' doesn't match with file name ");
+            return false ;
+        }
+
+        // the first later of an entity must be upper case
+        if (entityNameInFile.length() == 0 || !Character.isUpperCase(entityNameInFile.charAt(0))) {
+            reportParsingError(diagnostics, DiagnosticCode.ENTITY_NAME, entityNameOffset, 
+            		entityNameFromFileName, "Entity name must start with an upper case");
+            return false ;
+        }
+
+        // only simple chars are allowed ( a single identifier token before the body )
+        if (lexer.indexOf('{') != 1 || !lexer.isEntityName(0)) {
+            reportParsingError(diagnostics, DiagnosticCode.ENTITY_NAME, entityNameOffset, 
+            		entityNameFromFileName, "Entity name '" + entityNameInFile +"' must not contains special char ");
+            return false ;
+        }
+        return true ;
+    }
+
     /**
      * Check if the main structure of the file correspond to the specifications
      *
-     * @param bodyStart first bracket index
-     * @param bodyEnd   last bracket index
+     * @param lexer
+     * @param entityNameFromFileName
+     * @param bodyStart first bracket token index
+     * @param bodyEnd   last bracket token index
+     * @param diagnostics
+     * @return true if valid, false if an error has been reported
      */
-    private void checkStructure(String entityNameFromFileName, int bodyStart, int bodyEnd) {
+    private boolean checkStructure(EntityLexer lexer, String entityNameFromFileName, int bodyStart, int bodyEnd, DiagnosticCollector diagnostics) {
         // name required before body
         if (bodyStart < 0) {
-            throwParsingError(entityNameFromFileName, "There's something wrong at the beginning of the body");
+            reportParsingError(diagnostics, DiagnosticCode.ENTITY_STRUCTURE, 0, 
+            		entityNameFromFileName, "There's something wrong at the beginning of the body");
+            return false ;
         }
 
-        // end of body required
-        if (bodyEnd < 1) {
-            throwParsingError(entityNameFromFileName, "There's something wrong at the end of the body");
+        // end of body required (after the beginning)
+        if (bodyEnd <= bodyStart) {
+            reportParsingError(diagnostics, DiagnosticCode.ENTITY_STRUCTURE, lexer.getSourceOffset(bodyStart), 
+            		entityNameFromFileName, "There's something wrong at the end of the body");
+            return false ;
         }
+        return true ;
     }
 
     /**
      * Verify the structure of an entity
      * @param entity
      * @param entityNameFromFileName
-     * @throws EntityParserException
+     * @param fieldsOffsets the position of each field in the original content
+     * @param diagnostics
+     * @return true if valid, false if an error has been reported
      */
-    private void verifyEntityStructure(DomainEntity entity, String entityNameFromFileName) throws EntityParserException {
+    private boolean verifyEntityStructure(DomainEntity entity, String entityNameFromFileName, int[] fieldsOffsets, DiagnosticCollector diagnostics) {
+        boolean valid = true ;
         DomainEntityField fieldWithId = null;
+        int fieldIndex = 0 ;
         for (DomainEntityField tmp : entity.getFields()) {
-            if (tmp.getAnnotationNames().contains("Id")) {
+            int fieldOffset = fieldsOffsets[fieldIndex++] ;
+            if (tmp.hasAnnotation(AnnotationKind.ID)) {
+                String error = null ;
                 if (fieldWithId != null) {
-                    throw new EntityParserException(entityNameFromFileName + " : The Id is defined more than once"
-                    			+ " (entity " + entity.getName() + ")" );
+                    error = "The Id is defined more than once" ;
                 }
-                if (tmp.getCardinality() != 1) {
-                    throw new EntityParserException(entityNameFromFileName + " : The Id cannot be an array"
-                    			+ " (entity " + entity.getName() + ")" );
+                else if (tmp.getCardinality() != 1) {
+                    error = "The Id cannot be an array" ;
                 }
-                if (tmp.isNeutralType()) {
-                    if (tmp.getTypeName().equals(DomainNeutralTypes.BINARY_BLOB) ) {
-                        throw new EntityParserException(entityNameFromFileName + " : The Id cannot be a binary"
-                    			+ " (entity " + entity.getName() + ")" );
+                else if (tmp.isNeutralType() && tmp.getTypeName().equals(DomainNeutralTypes.BINARY_BLOB) ) {
+                    error = "The Id cannot be a binary" ;
+                }
+                if ( error != null ) {
+                    reportParsingError(diagnostics, DiagnosticCode.ENTITY_ID, fieldOffset, 
+                    		entityNameFromFileName, error + " (entity " + entity.getName() + ")");
+                    if ( ! recoveryMode ) {
+                    	return false ;
                     }
+                    valid = false ; // recovery : check the other fields 
+                }
+                else {
+                    fieldWithId = tmp;
                 }
-                fieldWithId = tmp;
             }
         }
+        return valid ;
     }
 
 }
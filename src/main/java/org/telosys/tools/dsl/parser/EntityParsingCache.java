@@ -0,0 +1,359 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import org.telosys.tools.dsl.AnnotationDefinition;
+import org.telosys.tools.dsl.DslModelUtil;
+import org.telosys.tools.dsl.KeyWords;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
+import org.telosys.tools.dsl.parser.model.DomainEntityField;
+import org.telosys.tools.dsl.parser.model.DomainEntityFieldAnnotation;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.dsl.parser.model.DomainNeutralTypes;
+import org.telosys.tools.dsl.parser.model.DomainType;
+import org.telosys.tools.dsl.parser.model.SourceSpan;
+
+/**
+ * Persistent cache for the parsed entities <br>
+ * Each entity successfully parsed is stored in a binary file ( 'Car.entity' -> 'Car.bin' ) 
+ * with the content hash of the entity file and the parser version. <br>
+ * The cached entity is reused only if the entity file content and the parser version are unchanged. <br>
+ * <br>
+ * The cache folder is located next to the model folder ( 'foo_model.cache' for 'foo_model' ) 
+ * or in a specific root folder ( 'root/foo' for 'foo.model' ) <br>
+ * <br>
+ * A cache entry that cannot be read (corrupted, other format or parser version, unknown type, etc) 
+ * is just ignored : the entity is parsed and the entry is rebuilt. <br>
+ * The cache is stateless and can be used by concurrent parsing tasks.
+ *
+ */
+public class EntityParsingCache {
+
+	private static final String MODEL_FOLDER_CACHE_SUFFIX = ".cache" ;
+	private static final String DOT_CACHE_ENTRY = ".bin" ;
+	private static final String DOT_TMP = ".tmp" ;
+
+	private static final int MAGIC = 0x54454E54 ; // "TENT" (Telosys ENTity)
+	private static final int FORMAT_VERSION = 2 ; // 2 : source spans
+
+	//--- Types natures
+	private static final byte NEUTRAL_TYPE = 1 ;
+	private static final byte ENTITY_TYPE  = 2 ;
+
+	//--- Annotation parameter kinds 
+	private static final byte NO_PARAMETER      = 0 ;
+	private static final byte STRING_PARAMETER  = 1 ;
+	private static final byte INTEGER_PARAMETER = 2 ;
+	private static final byte DECIMAL_PARAMETER = 3 ;
+	private static final byte NULL_PARAMETER    = 4 ;
+
+	/*
+	 * Root folder for all the models (or null for a cache folder next to each model folder)
+	 */
+	private final File cacheRootFolder ;
+
+	/**
+	 * Constructor for a cache folder located next to the model folder <br>
+	 * ( e.g. 'foo_model.cache' for 'foo_model' )
+	 */
+	public EntityParsingCache() {
+		this(null);
+	}
+
+	/**
+	 * Constructor for a specific cache location <br>
+	 * ( the entities of model 'foo.model' are stored in 'cacheRootFolder/foo' )
+	 * @param cacheRootFolder the root folder (or null for the default location)
+	 */
+	public EntityParsingCache(File cacheRootFolder) {
+		super();
+		this.cacheRootFolder = cacheRootFolder;
+	}
+
+	/**
+	 * Returns the cache folder used for the given model file
+	 * @param modelFile the ".model" file 
+	 * @return
+	 */
+	public File getCacheFolder(File modelFile) {
+		if ( cacheRootFolder != null ) {
+			return new File(cacheRootFolder, DslModelUtil.getModelName(modelFile));
+		}
+		else {
+			File modelFolder = DslModelUtil.getModelFolder(modelFile);
+			return new File(modelFolder.getParentFile(), modelFolder.getName() + MODEL_FOLDER_CACHE_SUFFIX);
+		}
+	}
+
+	private File getEntryFile(File modelFile, String entityName) {
+		return new File(getCacheFolder(modelFile), entityName + DOT_CACHE_ENTRY);
+	}
+
+	/**
+	 * Loads the given entity from the cache 
+	 * @param modelFile the ".model" file 
+	 * @param entityName
+	 * @param contentHash the hash of the current entity file content
+	 * @param model the model used to resolve the entities referenced by the fields
+	 * @return the entity (or null if not in the cache, not up to date or not readable)
+	 */
+	public DomainEntity load(File modelFile, String entityName, byte[] contentHash, DomainModel model) {
+		File entryFile = getEntryFile(modelFile, entityName);
+		if ( ! entryFile.isFile() ) {
+			return null ;
+		}
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(entryFile)));
+			try {
+				return readEntity(in, entityName, contentHash, model);
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			// corrupted entry => the entity will be parsed and stored again
+			return null ;
+		} catch (RuntimeException e) {
+			// invalid data (unknown neutral type, duplicated field, etc) => same as corrupted
+			return null ;
+		}
+	}
+
+	/**
+	 * Stores the given entity in the cache <br>
+	 * ( the entry is written in a temporary file and then renamed, a failure is just ignored )
+	 * @param modelFile the ".model" file 
+	 * @param entity the entity resulting from the parsing 
+	 * @param contentHash the hash of the entity file content
+	 */
+	public void store(File modelFile, DomainEntity entity, byte[] contentHash) {
+		File entryFile = getEntryFile(modelFile, entity.getName());
+		File folder = entryFile.getParentFile();
+		if ( ! folder.isDirectory() && ! folder.mkdirs() && ! folder.isDirectory() ) {
+			return ; // cannot create the cache folder => no cache
+		}
+		File tmpFile = null ;
+		try {
+			tmpFile = File.createTempFile(entity.getName(), DOT_TMP, folder);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+			try {
+				writeEntity(out, entity, contentHash);
+			} finally {
+				out.close();
+			}
+			try {
+				Files.move(tmpFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmpFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			// the cache is only an optimization : the entity will be parsed again next time
+			if ( tmpFile != null ) {
+				tmpFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Removes all the cache entries for the given model
+	 * @param modelFile the ".model" file 
+	 */
+	public void clear(File modelFile) {
+		File folder = getCacheFolder(modelFile);
+		File[] files = folder.listFiles();
+		if ( files != null ) {
+			for ( File file : files ) {
+				file.delete();
+			}
+		}
+	}
+
+	//-------------------------------------------------------------------------------------------------
+	// Binary format
+	//-------------------------------------------------------------------------------------------------
+	private void writeEntity(DataOutputStream out, DomainEntity entity, byte[] contentHash) throws IOException {
+		//--- Header 
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeUTF(ParserVersion.VERSION);
+		out.writeShort(contentHash.length);
+		out.write(contentHash);
+		out.writeUTF(entity.getName());
+		writeSourceSpan(out, entity.getSourceSpan());
+		//--- Fields
+		out.writeInt(entity.getNumberOfFields());
+		for ( DomainEntityField field : entity.getFields() ) {
+			out.writeUTF(field.getName());
+			out.writeByte(field.isEntity() ? ENTITY_TYPE : NEUTRAL_TYPE);
+			out.writeUTF(field.getTypeName());
+			out.writeInt(field.getCardinality());
+			writeSourceSpan(out, field.getSourceSpan());
+			//--- Annotations
+			out.writeInt(field.getAnnotations().size());
+			for ( DomainEntityFieldAnnotation annotation : field.getAnnotations().values() ) {
+				writeAnnotation(out, annotation);
+			}
+		}
+	}
+
+	private void writeSourceSpan(DataOutputStream out, SourceSpan sourceSpan) throws IOException {
+		if ( sourceSpan != null ) {
+			out.writeBoolean(true);
+			out.writeInt(sourceSpan.getStartOffset());
+			out.writeInt(sourceSpan.getEndOffset());
+			out.writeInt(sourceSpan.getLine());
+			out.writeInt(sourceSpan.getColumn());
+		}
+		else {
+			out.writeBoolean(false);
+		}
+	}
+
+	private void writeAnnotation(DataOutputStream out, DomainEntityFieldAnnotation annotation) throws IOException {
+		out.writeUTF(annotation.getName());
+		writeSourceSpan(out, annotation.getSourceSpan());
+		if ( annotation.getParameterAsInteger() != null ) {
+			out.writeByte(INTEGER_PARAMETER);
+			out.writeInt(annotation.getParameterAsInteger());
+		}
+		else if ( annotation.getParameterAsBigDecimal() != null ) {
+			out.writeByte(DECIMAL_PARAMETER);
+			out.writeUTF(annotation.getParameterAsBigDecimal().toString());
+		}
+		else if ( annotation.getParameter() != null ) {
+			out.writeByte(STRING_PARAMETER);
+			out.writeUTF(annotation.getParameter());
+		}
+		else if ( annotation.hasParameter() ) {
+			out.writeByte(NULL_PARAMETER);
+		}
+		else {
+			out.writeByte(NO_PARAMETER);
+		}
+	}
+
+	private DomainEntity readEntity(DataInputStream in, String entityName, byte[] contentHash, DomainModel model) throws IOException {
+		//--- Header : returns null as soon as the entry is not usable 
+		if ( in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION ) {
+			return null ;
+		}
+		if ( ! ParserVersion.VERSION.equals(in.readUTF()) ) {
+			return null ;
+		}
+		byte[] storedHash = new byte[in.readUnsignedShort()];
+		in.readFully(storedHash);
+		if ( ! Arrays.equals(storedHash, contentHash) ) {
+			return null ;
+		}
+		if ( ! entityName.equals(in.readUTF()) ) {
+			return null ;
+		}
+		//--- Fields
+		DomainEntity entity = new DomainEntity(entityName);
+		entity.setSourceSpan(readSourceSpan(in));
+		int fieldsCount = in.readInt();
+		for ( int i = 0 ; i < fieldsCount ; i++ ) {
+			String fieldName = model.getSymbolTable().intern(in.readUTF());
+			byte typeNature = in.readByte();
+			String typeName = in.readUTF();
+			int cardinality = in.readInt();
+			SourceSpan fieldSpan = readSourceSpan(in);
+			DomainType type ;
+			if ( typeNature == ENTITY_TYPE ) {
+				type = model.getEntity(typeName);
+				if ( type == null ) {
+					return null ; // the referenced entity doesn't exist anymore => parsing required (error)
+				}
+			}
+			else if ( typeNature == NEUTRAL_TYPE ) {
+				type = DomainNeutralTypes.getType(typeName);
+			}
+			else {
+				return null ;
+			}
+			DomainEntityField field = new DomainEntityField(fieldName, type, cardinality);
+			field.setSourceSpan(fieldSpan);
+			//--- Annotations
+			int annotationsCount = in.readInt();
+			for ( int j = 0 ; j < annotationsCount ; j++ ) {
+				DomainEntityFieldAnnotation annotation = readAnnotation(in);
+				if ( annotation == null ) {
+					return null ;
+				}
+				field.addAnnotation(annotation);
+			}
+			entity.addField(field);
+		}
+		//--- Nothing after the last field
+		if ( in.read() != -1 ) {
+			return null ;
+		}
+		return entity ;
+	}
+
+	private SourceSpan readSourceSpan(DataInputStream in) throws IOException {
+		if ( in.readBoolean() ) {
+			return new SourceSpan(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+		}
+		return null ;
+	}
+
+	private DomainEntityFieldAnnotation readAnnotation(DataInputStream in) throws IOException {
+		String name = in.readUTF();
+		// shared instance of the annotation name ( the name of the definition if any )
+		AnnotationDefinition definition = KeyWords.getAnnotationDefinition(name);
+		if ( definition != null ) {
+			name = definition.getName();
+		}
+		SourceSpan sourceSpan = readSourceSpan(in);
+		byte parameterKind = in.readByte();
+		DomainEntityFieldAnnotation annotation ;
+		switch (parameterKind) {
+		case NO_PARAMETER :
+			annotation = new DomainEntityFieldAnnotation(name);
+			break;
+		case STRING_PARAMETER :
+			annotation = new DomainEntityFieldAnnotation(name, in.readUTF());
+			break;
+		case INTEGER_PARAMETER :
+			annotation = new DomainEntityFieldAnnotation(name, Integer.valueOf(in.readInt()));
+			break;
+		case DECIMAL_PARAMETER :
+			annotation = new DomainEntityFieldAnnotation(name, new BigDecimal(in.readUTF()));
+			break;
+		case NULL_PARAMETER :
+			annotation = new DomainEntityFieldAnnotation(name, (String) null);
+			break;
+		default :
+			return null ;
+		}
+		annotation.setSourceSpan(sourceSpan);
+		return annotation ;
+	}
+}
@@ -17,6 +17,8 @@ package org.telosys.tools.dsl.parser;
 
 import java.util.List;
 
+import org.telosys.tools.dsl.EntityParserException;
+import org.telosys.tools.dsl.IdentifierRules;
 import org.telosys.tools.dsl.parser.model.DomainEntityField;
 import org.telosys.tools.dsl.parser.model.DomainEntityFieldAnnotation;
 import org.telosys.tools.dsl.parser.model.DomainModel;
@@ -31,6 +33,11 @@ import org.telosys.tools.dsl.parser.model.DomainType;
  */
 public class FieldParser  extends AbstractParser  {
 
+    /**
+     * Cardinality returned when the cardinality is invalid (error reported)
+     */
+    private static final int INVALID_CARDINALITY = Integer.MIN_VALUE ;
+
     /**
      * Single parser for field annotations
      */
@@ -53,13 +60,26 @@ public class FieldParser  extends AbstractParser  {
     }
 
     /**
-     * Throws a field parsing exception
+     * Reports a field parsing error
+     * @param diagnostics
+     * @param code
+     * @param sourceOffset
      * @param entityNameFromFileName
      * @param fieldDescription
      * @param message
      */
-    private void throwFieldParsingError(String entityNameFromFileName, String fieldDescription, String message) {
-    	throwParsingError(entityNameFromFileName, "Field error '" + fieldDescription + "' (" + message + ")");
+    private void reportFieldParsingError(DiagnosticCollector diagnostics, DiagnosticCode code, int sourceOffset,
+    		String entityNameFromFileName, String fieldDescription, String message) {
+    	reportParsingError(diagnostics, code, sourceOffset, entityNameFromFileName, "Field error '" + fieldDescription + "' (" + message + ")");
+    }
+    
+    /**
+     * Creates a new collector for the methods throwing an exception
+     * @param entityNameFromFileName
+     * @return
+     */
+    private DiagnosticCollector newDiagnosticCollector(String entityNameFromFileName) {
+    	return new DiagnosticCollector(entityNameFromFileName, null);
     }
     
     /**
@@ -67,119 +87,285 @@ public class FieldParser  extends AbstractParser  {
      * @param entityNameFromFileName
      * @param fieldInfo field definition including annotations, eg 'id:integer', 'id:Country', 'name : integer { @Max(3) }'
      * @return The parsed field
+     * @throws EntityParserException if the field is invalid
      */
     protected DomainEntityField parseField(String  entityNameFromFileName, String fieldInfo) {
+    	DiagnosticCollector diagnostics = newDiagnosticCollector(entityNameFromFileName);
+    	DomainEntityField field = parseField(entityNameFromFileName, fieldInfo, diagnostics, -1);
+    	diagnostics.throwIfErrors();
+    	return field ;
+    }
+    
+    /**
+     * Parse a single field with its own informations <br>
+     * The errors are reported in the given collector (no exception)
+     * @param entityNameFromFileName
+     * @param fieldInfo field definition including annotations, eg 'id:integer', 'id:Country', 'name : integer { @Max(3) }'
+     * @param diagnostics the collector for the errors
+     * @param sourceOffset the position of the field in the original content (or -1 if unknown)
+     * @return The parsed field (or null if errors)
+     */
+    protected DomainEntityField parseField(String  entityNameFromFileName, String fieldInfo, 
+    		DiagnosticCollector diagnostics, int sourceOffset) {
+    	char[] buffer = fieldInfo.toCharArray();
+    	return parseField(entityNameFromFileName, buffer, 0, buffer.length, diagnostics, sourceOffset, null, 0, 0);
+    }
+
+    /**
+     * Parse a single field defined by the given tokens <br>
+     * The field is parsed directly in the flat text buffer of the lexer (no copy of the field definition) <br>
+     * The field and its annotations are linked to their position in the original content <br>
+     * The errors are reported in the given collector (no exception)
+     * @param entityNameFromFileName
+     * @param lexer the lexer holding the file content tokens
+     * @param firstToken first token of the field 
+     * @param lastToken last token of the field (before ';')
+     * @param diagnostics the collector for the errors
+     * @return The parsed field (or null if errors)
+     */
+    protected DomainEntityField parseField(String  entityNameFromFileName, EntityLexer lexer, int firstToken, int lastToken, 
+    		DiagnosticCollector diagnostics) {
+    	int sourceOffset = firstToken < lexer.getTokensCount() ? lexer.getSourceOffset(firstToken) : -1 ;
+    	if ( lastToken < firstToken ) {
+    		// no token => void field description 
+    		return parseField(entityNameFromFileName, lexer.getFlatBuffer(), 0, 0, diagnostics, sourceOffset, null, 0, 0);
+    	}
+    	return parseField(entityNameFromFileName, lexer.getFlatBuffer(), lexer.getStart(firstToken), lexer.getEnd(lastToken), 
+    			diagnostics, sourceOffset, lexer, firstToken, lastToken);
+    }
+
+    /**
+     * Parse the field defined in the given slice of the buffer <br>
+     * Only the field name, the type name and the annotations string are copied from the buffer 
+     * ( the field definition is materialized only to report an error )
+     */
+    private DomainEntityField parseField(String  entityNameFromFileName, char[] buffer, int start, int end, 
+    		DiagnosticCollector diagnostics, int sourceOffset, EntityLexer lexer, int firstToken, int lastToken) {
     	
-    	checkSyntax(entityNameFromFileName, fieldInfo);
+    	if ( ! checkSyntax(entityNameFromFileName, buffer, start, end, diagnostics, sourceOffset) ) {
+    		return null ;
+    	}
     	
-        String fieldName = getFieldName(entityNameFromFileName, fieldInfo);
+        String fieldName = getFieldName(entityNameFromFileName, buffer, start, end, diagnostics, sourceOffset);
+        if ( fieldName == null ) {
+        	return null ;
+        }
         
-        String fieldType = getFieldType(entityNameFromFileName, fieldInfo);
+        String fieldType = getFieldType(entityNameFromFileName, buffer, start, end, diagnostics, sourceOffset);
+        if ( fieldType == null ) {
+        	return null ;
+        }
 
-        int fieldCardinality = getCardinality(entityNameFromFileName, fieldInfo);
-        
-        DomainType domainType = getFieldDomainType(entityNameFromFileName, fieldInfo, fieldType) ;
+        int fieldCardinality = getCardinality(entityNameFromFileName, buffer, start, end, diagnostics, sourceOffset);
+        if ( fieldCardinality == INVALID_CARDINALITY ) {
+        	return null ;
+        }
         
-        String annotationsString = getAnnotations(entityNameFromFileName, fieldInfo);
+        DomainType domainType = getFieldDomainType(entityNameFromFileName, buffer, start, end, fieldType, diagnostics, sourceOffset) ;
+        if ( domainType == null ) {
+        	return null ;
+        }
         
-        List<DomainEntityFieldAnnotation> annotationsList = 
-        		this.annotationParser.parseAnnotations(entityNameFromFileName, fieldName, annotationsString);
-
         // create with previous informations
         DomainEntityField field = new DomainEntityField(fieldName, domainType, fieldCardinality);
-        field.setAnnotationList(annotationsList);
+
+        String annotationsString = getAnnotations(buffer, start, end);
+        if ( annotationsString != null ) {
+            List<DomainEntityFieldAnnotation> annotationsList = 
+            		this.annotationParser.parseAnnotations(entityNameFromFileName, fieldName, annotationsString, diagnostics, sourceOffset);
+            if ( annotationsList == null ) {
+            	return null ;
+            }
+            for ( DomainEntityFieldAnnotation annotation : annotationsList ) {
+            	if ( field.hasAnnotation(annotation.getName()) ) {
+            		// same message as 'DomainEntityField.addAnnotation'
+            		diagnostics.report(DiagnosticCode.ANNOTATION_DUPLICATED, sourceOffset, 
+            				"The annotation " + annotation.getName() + " is already define in the field " + fieldName);
+            		return null ;
+            	}
+            	field.addAnnotation(annotation);
+            }
+            if ( lexer != null ) {
+            	setAnnotationsSpans(annotationsList, lexer, firstToken, lastToken);
+            }
+        }
+        if ( lexer != null ) {
+        	field.setSourceSpan(lexer.getSourceSpan(firstToken, lastToken));
+        }
 
         return field;
     }
 
     /**
-     * Checks field name validity
-     * @param entityNameFromFileName
-     * @param fieldInfo
-     * @param fieldName
+     * Links each annotation to its tokens ( the annotations are in the same order as the segments between ',' )
+     * @param annotationsList
+     * @param lexer
+     * @param firstToken first token of the field 
+     * @param lastToken last token of the field 
      */
-    private void checkFieldName(String entityNameFromFileName, String fieldInfo, String fieldName) {
-        if (fieldName.length() == 0) {
-        	throwFieldParsingError(entityNameFromFileName, fieldInfo, "field name is missing");
-        }
-        if (!fieldName.matches("^[\\w]*$")) {
-        	throwFieldParsingError(entityNameFromFileName, fieldInfo, "field name must not contains special char");
-        }
+    private void setAnnotationsSpans(List<DomainEntityFieldAnnotation> annotationsList, EntityLexer lexer, int firstToken, int lastToken) {
+    	int token = firstToken ;
+    	while ( token <= lastToken && ! lexer.isSymbol(token, '{') ) {
+    		token++ ;
+    	}
+    	int segmentStart = token + 1 ;
+    	int annotationIndex = 0 ;
+    	for ( token = segmentStart ; token <= lastToken && annotationIndex < annotationsList.size() ; token++ ) {
+    		if ( lexer.isSymbol(token, ',') || lexer.isSymbol(token, '}') ) {
+    			if ( token > segmentStart ) {
+    				annotationsList.get(annotationIndex++).setSourceSpan(lexer.getSourceSpan(segmentStart, token - 1));
+    			}
+    			segmentStart = token + 1 ;
+    		}
+    	}
     }
-    
+
+    //-------------------------------------------------------------------------------------------------
+    // Slices of the field definition ( start included, end excluded )
+    //-------------------------------------------------------------------------------------------------
+    private static int indexOf(char[] buffer, int start, int end, char c) {
+    	for ( int i = start ; i < end ; i++ ) {
+    		if ( buffer[i] == c ) {
+    			return i ;
+    		}
+    	}
+    	return -1 ;
+    }
+
+    private static int lastIndexOf(char[] buffer, int start, int end, char c) {
+    	for ( int i = end - 1 ; i >= start ; i-- ) {
+    		if ( buffer[i] == c ) {
+    			return i ;
+    		}
+    	}
+    	return -1 ;
+    }
+
+    /**
+     * Returns the start of the slice without the leading blank chars (same definition as String.trim())
+     */
+    private static int trimStart(char[] buffer, int start, int end) {
+    	while ( start < end && buffer[start] <= ' ' ) {
+    		start++ ;
+    	}
+    	return start ;
+    }
+
+    /**
+     * Returns the end of the slice without the trailing blank chars (same definition as String.trim())
+     */
+    private static int trimEnd(char[] buffer, int start, int end) {
+    	while ( end > start && buffer[end-1] <= ' ' ) {
+    		end-- ;
+    	}
+    	return end ;
+    }
+
+    private void reportFieldParsingError(DiagnosticCollector diagnostics, DiagnosticCode code, int sourceOffset,
+    		String entityNameFromFileName, char[] buffer, int start, int end, String message) {
+    	// the field definition is only materialized here
+    	reportFieldParsingError(diagnostics, code, sourceOffset, entityNameFromFileName, new String(buffer, start, end - start), message);
+    }
+
     /**
      * Checks the global syntax of the field definition : <br>
      * Position and coherence with ':', '[]' and '{}'
      * @param entityNameFromFileName
      * @param fieldInfo
+     * @throws EntityParserException if the syntax is invalid
      */
     /* package */ void checkSyntax(String entityNameFromFileName, String fieldInfo) {
-    	if ( fieldInfo.trim().length() == 0 ) {
-			throwFieldParsingError(entityNameFromFileName, fieldInfo, "field description is void");
+    	DiagnosticCollector diagnostics = newDiagnosticCollector(entityNameFromFileName);
+    	char[] buffer = fieldInfo.toCharArray();
+    	checkSyntax(entityNameFromFileName, buffer, 0, buffer.length, diagnostics, -1);
+    	diagnostics.throwIfErrors();
+    }
+    
+    /**
+     * Checks the global syntax of the field definition : <br>
+     * Position and coherence with ':', '[]' and '{}'
+     * @return true if valid, false if an error has been reported
+     */
+    private boolean checkSyntax(String entityNameFromFileName, char[] buffer, int start, int end, 
+    		DiagnosticCollector diagnostics, int sourceOffset) {
+    	if ( trimStart(buffer, start, end) == end ) {
+    		return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "field description is void");
     	}
     	int colonIndex = -1 ;
     	int cardinalityOpen = -1 ;
     	int cardinalityClose = -1 ;
     	int annotationsOpen = -1 ;
     	int annotationsClose = -1 ;
-        for ( int i = 0 ; i < fieldInfo.length() ; i++ ) {
-        	char c = fieldInfo.charAt(i);
-        	switch (c) {
+        for ( int i = start ; i < end ; i++ ) {
+        	switch (buffer[i]) {
         	case ':' :
         		if ( colonIndex >= 0 ) {
-        			throwFieldParsingError(entityNameFromFileName, fieldInfo, "multiple ':'");
+        			return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "multiple ':'");
         		}
         		colonIndex = i ;
         		break;
         	case '[' :
         		if ( cardinalityOpen >= 0 ) {
-        			throwFieldParsingError(entityNameFromFileName, fieldInfo, "multiple '['");
+        			return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "multiple '['");
         		}
         		cardinalityOpen = i ;
         		break;
         	case ']' :
         		if ( cardinalityClose >= 0 ) {
-        			throwFieldParsingError(entityNameFromFileName, fieldInfo, "multiple ']'");
+        			return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "multiple ']'");
         		}
         		cardinalityClose = i ;
         		break;
         	case '{' :
         		if ( annotationsOpen >= 0 ) {
-        			throwFieldParsingError(entityNameFromFileName, fieldInfo, "multiple '{'");
+        			return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "multiple '{'");
         		}
         		annotationsOpen = i ;
         		break;
         	case '}' :
         		if ( annotationsClose >= 0 ) {
-        			throwFieldParsingError(entityNameFromFileName, fieldInfo, "multiple '}'");
+        			return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "multiple '}'");
         		}
         		annotationsClose = i ;
         		break;
         	}
         }
         if ( colonIndex < 0 ) {
-			throwFieldParsingError(entityNameFromFileName, fieldInfo, "':' missing");
+        	return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "':' missing");
+        }
+        if ( ! checkOpenClose( entityNameFromFileName, buffer, start, end, cardinalityOpen, cardinalityClose, '[', ']', diagnostics, sourceOffset ) ) {
+        	return false ;
+        }
+        if ( ! checkOpenClose( entityNameFromFileName, buffer, start, end, annotationsOpen, annotationsClose, '{', '}', diagnostics, sourceOffset ) ) {
+        	return false ;
         }
-        checkOpenClose( entityNameFromFileName, fieldInfo, cardinalityOpen, cardinalityClose, '[', ']' ); 
-        checkOpenClose( entityNameFromFileName, fieldInfo, annotationsOpen, annotationsClose, '{', '}' ); 
         if ( cardinalityOpen >= 0 && cardinalityOpen < colonIndex ) {
-			throwFieldParsingError(entityNameFromFileName, fieldInfo, "'[' before ':'");
+        	return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "'[' before ':'");
         }
         if ( annotationsOpen >= 0 && annotationsOpen < colonIndex ) {
-			throwFieldParsingError(entityNameFromFileName, fieldInfo, "'{' before ':'");
+        	return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "'{' before ':'");
         }
+        return true ;
     }
     
-    private void checkOpenClose(String entityNameFromFileName, String fieldInfo, int openIndex, int closeIndex, char openChar, char closeChar ) {
+    private boolean syntaxError(DiagnosticCollector diagnostics, int sourceOffset, String entityNameFromFileName, 
+    		char[] buffer, int start, int end, String message) {
+    	reportFieldParsingError(diagnostics, DiagnosticCode.FIELD_SYNTAX, sourceOffset, entityNameFromFileName, buffer, start, end, message);
+    	return false ;
+    }
+    
+    private boolean checkOpenClose(String entityNameFromFileName, char[] buffer, int start, int end, 
+    		int openIndex, int closeIndex, char openChar, char closeChar, DiagnosticCollector diagnostics, int sourceOffset ) {
         if (   ( openIndex < 0 ) &&  ! ( closeIndex < 0 ) ) {
-    		throwFieldParsingError(entityNameFromFileName, fieldInfo, "'" + closeChar + "' without '" + openChar + "'" );
+        	return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "'" + closeChar + "' without '" + openChar + "'" );
         }
         if ( ! ( openIndex < 0 ) &&    ( closeIndex < 0 ) ) {
-    		throwFieldParsingError(entityNameFromFileName, fieldInfo, "'" + openChar + "' without '" + closeChar + "'" );
+        	return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "'" + openChar + "' without '" + closeChar + "'" );
         }
         if ( openIndex > closeIndex ) {
-    		throwFieldParsingError(entityNameFromFileName, fieldInfo, "'" + openChar + "' and '" + closeChar + "' inverted" );
+        	return syntaxError(diagnostics, sourceOffset, entityNameFromFileName, buffer, start, end, "'" + openChar + "' and '" + closeChar + "' inverted" );
         }
+        return true ;
     }
     
     /**
@@ -187,13 +373,36 @@ public class FieldParser  extends AbstractParser  {
      * @param entityNameFromFileName
      * @param fieldInfo
      * @return
+     * @throws EntityParserException if the name is invalid
      */
     /* package */ String getFieldName(String entityNameFromFileName, String fieldInfo) {
+    	DiagnosticCollector diagnostics = newDiagnosticCollector(entityNameFromFileName);
+    	char[] buffer = fieldInfo.toCharArray();
+    	String fieldName = getFieldName(entityNameFromFileName, buffer, 0, buffer.length, diagnostics, -1);
+    	diagnostics.throwIfErrors();
+    	return fieldName ;
+    }
+    
+    /**
+     * Returns the field name ( located before ':', only word chars expected )
+     * @return the name (or null if error)
+     */
+    private String getFieldName(String entityNameFromFileName, char[] buffer, int start, int end, 
+    		DiagnosticCollector diagnostics, int sourceOffset) {
         // search colon (':') position
-        int colonPosition = fieldInfo.indexOf(':');
-        String fieldName = fieldInfo.substring(0, colonPosition).trim();
-        checkFieldName(entityNameFromFileName, fieldInfo, fieldName);
-        return fieldName ;
+        int colonPosition = indexOf(buffer, start, end, ':');
+        int nameStart = trimStart(buffer, start, colonPosition);
+        int nameEnd = trimEnd(buffer, nameStart, colonPosition);
+        if ( nameStart == nameEnd ) {
+        	reportFieldParsingError(diagnostics, DiagnosticCode.FIELD_NAME, sourceOffset, entityNameFromFileName, buffer, start, end, "field name is missing");
+        	return null ;
+        }
+        if ( ! IdentifierRules.isValidFieldName(buffer, nameStart, nameEnd) ) {
+        	reportFieldParsingError(diagnostics, DiagnosticCode.FIELD_NAME, sourceOffset, entityNameFromFileName, buffer, start, end, "field name must not contains special char");
+        	return null ;
+        }
+        // shared instance ( the same names are used in many entities )
+        return model.getSymbolTable().intern(buffer, nameStart, nameEnd) ;
     }
     
     /**
@@ -201,26 +410,35 @@ public class FieldParser  extends AbstractParser  {
      * @param entityNameFromFileName
      * @param fieldInfo
      * @return
+     * @throws EntityParserException if the type is missing
      */
     /* package */ String getFieldType(String entityNameFromFileName, String fieldInfo) {
-    	StringBuffer sb = new StringBuffer();
-        int start = fieldInfo.indexOf(':') + 1;
-        int end = fieldInfo.length() - 1 ;
-        for ( int i = start ; i <= end ; i++ ) {
-        	char c = fieldInfo.charAt(i);
-    		if ( c == '[' || c == '{' ) {
-    			break;
-    		}
-    		else {
-        		sb.append(c);
-    		}
+    	DiagnosticCollector diagnostics = newDiagnosticCollector(entityNameFromFileName);
+    	char[] buffer = fieldInfo.toCharArray();
+    	String fieldType = getFieldType(entityNameFromFileName, buffer, 0, buffer.length, diagnostics, -1);
+    	diagnostics.throwIfErrors();
+    	return fieldType ;
+    }
+    
+    /**
+     * Returns the field type ( located between ':' and the first '[' or '{' )
+     * @return the type (or null if error)
+     */
+    private String getFieldType(String entityNameFromFileName, char[] buffer, int start, int end, 
+    		DiagnosticCollector diagnostics, int sourceOffset) {
+        int typeStart = indexOf(buffer, start, end, ':') + 1;
+        int typeEnd = typeStart ;
+        while ( typeEnd < end && buffer[typeEnd] != '[' && buffer[typeEnd] != '{' ) {
+        	typeEnd++ ;
         }
-        String fieldType = sb.toString().trim();
+        typeStart = trimStart(buffer, typeStart, typeEnd);
+        typeEnd = trimEnd(buffer, typeStart, typeEnd);
         // the type is required
-        if (fieldType.length() == 0) {
-            throwFieldParsingError(entityNameFromFileName, fieldInfo, "field type is missing");
+        if ( typeStart == typeEnd ) {
+            reportFieldParsingError(diagnostics, DiagnosticCode.FIELD_TYPE, sourceOffset, entityNameFromFileName, buffer, start, end, "field type is missing");
+            return null ;
         }
-        return fieldType ;
+        return model.getSymbolTable().intern(buffer, typeStart, typeEnd) ;
     }
     
     /**
@@ -228,26 +446,37 @@ public class FieldParser  extends AbstractParser  {
      * @param entityNameFromFileName
      * @param fieldInfo
      * @return
+     * @throws EntityParserException if the cardinality is invalid
      */
     /* package */ int getCardinality(String entityNameFromFileName, String fieldInfo) {
-    	if ( fieldInfo.contains("[") && fieldInfo.contains("]") ) {
-            int startArray = fieldInfo.lastIndexOf('[');
-            int endArray = fieldInfo.lastIndexOf(']');
+    	DiagnosticCollector diagnostics = newDiagnosticCollector(entityNameFromFileName);
+    	char[] buffer = fieldInfo.toCharArray();
+    	int cardinality = getCardinality(entityNameFromFileName, buffer, 0, buffer.length, diagnostics, -1);
+    	diagnostics.throwIfErrors();
+    	return cardinality ;
+    }
+    
+    /**
+     * Returns the field cardinality : 1 if no '[]', -1 for '[]', the value for '[n]' 
+     * @return the cardinality (or INVALID_CARDINALITY if error)
+     */
+    private int getCardinality(String entityNameFromFileName, char[] buffer, int start, int end, 
+    		DiagnosticCollector diagnostics, int sourceOffset) {
+        int startArray = lastIndexOf(buffer, start, end, '[');
+        int endArray = lastIndexOf(buffer, start, end, ']');
+    	if ( startArray >= 0 && endArray > startArray ) {
             // * cardinality
-            String figure = fieldInfo.substring(startArray + 1, endArray).trim();
-            if (figure.length() == 0 ) {
+    		int figureStart = trimStart(buffer, startArray + 1, endArray);
+    		int figureEnd = trimEnd(buffer, figureStart, endArray);
+            if ( figureStart == figureEnd ) {
             	// Void : "[]" => undefined cardinality
                 return -1;
             } else {
-                // specific cardinality : "[something]" => try to cast 
-            	int cardinality = 0 ;
-                try {
-                    cardinality = Integer.parseInt(figure.trim());
-                } catch (Exception e) {
-                    throwFieldParsingError(entityNameFromFileName, fieldInfo, "invalid cardinality");
-                }
+                // specific cardinality : "[something]" => only digits expected (no NumberFormatException)
+            	int cardinality = parsePositiveInt(buffer, figureStart, figureEnd);
                 if ( cardinality <= 0 ) {
-                    throwFieldParsingError(entityNameFromFileName, fieldInfo, "invalid cardinality");
+                    reportFieldParsingError(diagnostics, DiagnosticCode.FIELD_CARDINALITY, sourceOffset, entityNameFromFileName, buffer, start, end, "invalid cardinality");
+                    return INVALID_CARDINALITY ;
                 }
                 return cardinality ;
             }    		
@@ -257,6 +486,34 @@ public class FieldParser  extends AbstractParser  {
     	}
     }
     
+    /**
+     * Returns the int value of the given digits with an optional '+' (or -1 if invalid or overflow)
+     * @param buffer
+     * @param start
+     * @param end
+     * @return
+     */
+    private int parsePositiveInt(char[] buffer, int start, int end) {
+    	if ( buffer[start] == '+' ) {
+    		start++ ;
+    	}
+    	if ( start == end ) {
+    		return -1 ;
+    	}
+    	long value = 0 ;
+    	for ( int i = start ; i < end ; i++ ) {
+    		char c = buffer[i];
+    		if ( c < '0' || c > '9' ) {
+    			return -1 ;
+    		}
+    		value = value * 10 + ( c - '0' ) ;
+    		if ( value > Integer.MAX_VALUE ) {
+    			return -1 ;
+    		}
+    	}
+    	return (int) value ;
+    }
+    
     /**
      * Returns the field annotations string without '{' and '}' (or a void string if none)
      * @param entityNameFromFileName
@@ -264,31 +521,57 @@ public class FieldParser  extends AbstractParser  {
      * @return
      */
     /* package */ String getAnnotations(String entityNameFromFileName, String fieldInfo) {
+    	char[] buffer = fieldInfo.toCharArray();
+    	String annotations = getAnnotations(buffer, 0, buffer.length);
+    	return annotations != null ? annotations : "" ;
+    }
+    
+    /**
+     * Returns the field annotations string without '{' and '}' (or null if no annotation)
+     * @param buffer
+     * @param start
+     * @param end
+     * @return
+     */
+    private String getAnnotations(char[] buffer, int start, int end) {
         // get index of first and last open brackets
-        int openIndex = fieldInfo.indexOf('{');
-        int closeIndex = fieldInfo.lastIndexOf('}');
-		if ( openIndex >= 0 ) { // field has annotations
-			return fieldInfo.substring(openIndex+1, closeIndex).trim();
+        int openIndex = indexOf(buffer, start, end, '{');
+		if ( openIndex < 0 ) { 
+			return null ; // no annotation
 		}
-		return "";
+        int closeIndex = lastIndexOf(buffer, start, end, '}');
+        if ( closeIndex < openIndex ) {
+        	closeIndex = end ; // not closed (syntax error)
+        }
+        int annotationsStart = trimStart(buffer, openIndex + 1, closeIndex);
+        int annotationsEnd = trimEnd(buffer, annotationsStart, closeIndex);
+        if ( annotationsStart == annotationsEnd ) {
+        	return null ; // "{}" : no annotation
+        }
+		return new String(buffer, annotationsStart, annotationsEnd - annotationsStart);
     }
     
     /**
      * Returns the DomainType for the given field type name
      * @param entityNameFromFileName
-     * @param fieldInfo
+     * @param buffer the buffer containing the field definition (for the error message)
+     * @param start
+     * @param end
      * @param typeName eg 'string', 'date', 'Book', 'Country', etc
-     * @return
+     * @param diagnostics
+     * @param sourceOffset
+     * @return the type (or null if error)
      */
-    private DomainType getFieldDomainType(String entityNameFromFileName, String fieldInfo, String typeName) {
+    private DomainType getFieldDomainType(String entityNameFromFileName, char[] buffer, int start, int end, String typeName,
+    		DiagnosticCollector diagnostics, int sourceOffset) {
     	DomainType type = null ;
         if (DomainNeutralTypes.exists(typeName)) { // Simple type ( string, int, date, etc )
             type = DomainNeutralTypes.getType(typeName);
 
         } else { // Entity name (it is supposed to be known ) eg : 'Book', 'Car', etc
-            if (!model.getEntityNames().contains(typeName)) {
+            if (!model.hasEntity(typeName)) {
             	// Reference to an unknown entity => ERROR
-                throwFieldParsingError(entityNameFromFileName, fieldInfo, "invalid type '" + typeName  + "'" );
+                reportFieldParsingError(diagnostics, DiagnosticCode.FIELD_TYPE, sourceOffset, entityNameFromFileName, buffer, start, end, "invalid type '" + typeName  + "'" );
             } else {
             	// Reference to a valid entity : OK
                 type = model.getEntity(typeName);
@@ -0,0 +1,342 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.telosys.tools.commons.PropertiesManager;
+import org.telosys.tools.dsl.DslModelUtil;
+import org.telosys.tools.dsl.EntityFileDescriptor;
+import org.telosys.tools.dsl.EntityParserException;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
+import org.telosys.tools.dsl.parser.model.DomainEntityField;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.dsl.parser.model.SymbolTable;
+import org.telosys.tools.dsl.parser.utils.HashUtils;
+
+/**
+ * Incremental DSL model parser <br>
+ * Same result as 'DomainModelParser' but the parser keeps the state of the previous parsing <br>
+ * in order to re-parse only the entities files that have changed : <br>
+ * . a file is considered as unchanged if its size and its last modification time are unchanged <br>
+ * ( or if its content hash is unchanged ) <br>
+ * . a file modified less than 'TIMESTAMP_GRANULARITY' before its last check is always hashed 
+ * ( a change in the same second keeps the same modification time on some file systems ) <br>
+ * . a new file is parsed <br>
+ * . a removed file causes the re-parsing of the entities referencing it <br>
+ * . the entities in error are re-parsed if the entities names have changed <br>
+ * <br>
+ * Each entity is always represented by the same 'DomainEntity' instance (its fields are replaced 
+ * after a re-parsing) so the references to a changed entity remain valid in the other entities. <br>
+ * As a consequence the model returned by a call is only valid until the next call : 
+ * the next call changes its entities in place (the model must not be read by another thread during a call, 
+ * a model to be kept or shared must be converted before the next call, e.g. with 'DslModelManager.load'). <br>
+ * A call that fails ( e.g. file not readable ) changes nothing : the next call starts from the state of the last successful call. <br>
+ * <br>
+ * A parser instance is supposed to be used for a single model file.
+ *
+ */
+public class IncrementalDomainModelParser {
+
+	/**
+	 * Resolution of the files modification time on the worst file systems ( FAT, HFS+, network mounts ), in milliseconds 
+	 */
+	public static final long TIMESTAMP_GRANULARITY = 2000 ;
+
+	/*
+	 * State of an entity file after the last parsing 
+	 * ( never changed once kept : a call works on copies until the end of the parsing )
+	 */
+	private static class EntityFileState {
+		long   lastModified ;
+		long   size ;
+		long   checkTime ;                      // time of the last hash computation
+		byte[] contentHash ;
+		String parsingError ;                   // null if no error
+		List<Diagnostic> diagnostics ;          // null if no error
+		Set<String> referencedEntities ; // names of the entities referenced by this entity
+
+		EntityFileState() {
+			super();
+		}
+
+		EntityFileState(EntityFileState other) {
+			super();
+			this.lastModified = other.lastModified ;
+			this.size = other.size ;
+			this.checkTime = other.checkTime ;
+			this.contentHash = other.contentHash ;
+			this.parsingError = other.parsingError ;
+			this.diagnostics = other.diagnostics ;
+			this.referencedEntities = other.referencedEntities ;
+		}
+	}
+
+	/*
+	 * Result of the parsing of an entity file ( applied to the model once all the files are parsed )
+	 */
+	private static class EntityParsingOutcome {
+		final String entityName ;
+		final DomainEntity parsedEntity ;
+		final DiagnosticCollector diagnostics ;
+
+		EntityParsingOutcome(String entityName, DomainEntity parsedEntity, DiagnosticCollector diagnostics) {
+			super();
+			this.entityName = entityName ;
+			this.parsedEntity = parsedEntity ;
+			this.diagnostics = diagnostics ;
+		}
+	}
+
+	/*
+	 * Entities files with errors 
+	 * Key   : entity file name 
+	 * Value : parsing error
+	 */
+	private Map<String,String> entitiesErrors = Collections.emptyMap();
+
+	/*
+	 * All the errors of the last parsing ( in the entities files order ) 
+	 */
+	private List<Diagnostic> diagnostics = new ArrayList<Diagnostic>();
+
+	/*
+	 * The state of each entity file (Key : entity name)
+	 */
+	private Map<String, EntityFileState> filesStates = new HashMap<String, EntityFileState>();
+
+	/*
+	 * The entities instances (kept from a parsing to another)
+	 */
+	private Map<String, DomainEntity> entities = new HashMap<String, DomainEntity>();
+
+	/*
+	 * The names used in the entities (kept from a parsing to another, shared by all the versions of the model)
+	 */
+	private final SymbolTable symbolTable = new SymbolTable();
+
+	/*
+	 * The names of the entities parsed during the last call
+	 */
+	private List<String> lastParsedEntities = new ArrayList<String>();
+
+    /**
+     * Parse the given model file ( only the changes since the previous call are parsed )
+     *
+     * @param file the ".model" file 
+     * @return the model ( valid until the next call : its entities are reused and changed by the next call )
+     * @throws EntityParserException if at least one entity is invalid
+     */
+	public synchronized DomainModel parse(File file) {
+		DomainModelParsingResult result = parseModel(file);
+        if ( result.hasErrors() ) {
+        	throw new EntityParserException(result.getErrorMessage()) ;
+        }
+        return result.getModel();
+	}
+
+    /**
+     * Parse the given model file ( only the changes since the previous call are parsed ) <br>
+     * without exception for the parsing errors 
+     *
+     * @param file the ".model" file 
+     * @return the result containing the model or the errors 
+     * ( the model is valid until the next call : its entities are reused and changed by the next call )
+     */
+	public synchronized DomainModelParsingResult parseModel(File file) {
+    	ParserUtil.checkModelFile(file);
+
+        PropertiesManager propertiesManager = new PropertiesManager(file);
+        Properties properties = propertiesManager.load();
+        DomainModel model = new DomainModel(properties, symbolTable);
+
+        // sorted by file name, with the size and the modification time of each file (single scan)
+        long checkTime = System.currentTimeMillis(); // before the scan 
+        List<EntityFileDescriptor> entitiesFiles = DslModelUtil.getEntitiesFiles(file, null);
+
+        //--- Step 1 : detect the changes 
+        Map<String, EntityFileState> previousStates = filesStates ;
+        Map<String, EntityFileState> newStates = new HashMap<String, EntityFileState>();
+        Map<String, byte[]> changedContents = new HashMap<String, byte[]>(); // Key : entity name
+        Map<String, EntityFileDescriptor> descriptors = new HashMap<String, EntityFileDescriptor>(); // Key : entity name
+        for (EntityFileDescriptor entityFile : entitiesFiles) {
+            String entityName = entityFile.getEntityName();
+            descriptors.put(entityName, entityFile);
+            EntityFileState state = previousStates.get(entityName);
+            long lastModified = entityFile.getLastModified() ;
+            long size = entityFile.getSize() ;
+            if ( state == null || state.lastModified != lastModified || state.size != size 
+            		|| state.checkTime - lastModified < TIMESTAMP_GRANULARITY ) {
+            	// new file, changed file or file modified just before the last check (changes not visible in its date)
+            	byte[] content = readEntityFile(entityFile);
+            	byte[] contentHash = HashUtils.hash(content);
+            	if ( state == null || ! Arrays.equals(state.contentHash, contentHash) ) {
+            		// new or changed file 
+            		state = new EntityFileState();
+            		state.contentHash = contentHash ;
+            		changedContents.put(entityName, content);
+            	}
+            	else {
+            		// unchanged content : the previous state is kept as is if the parsing fails
+            		state = new EntityFileState(state);
+            	}
+            	state.lastModified = lastModified ;
+            	state.size = size ;
+            	state.checkTime = checkTime ;
+            }
+            newStates.put(entityName, state);
+        }
+        Set<String> removedEntities = new HashSet<String>(previousStates.keySet());
+        removedEntities.removeAll(newStates.keySet());
+        boolean entitiesNamesChanged = ( ! removedEntities.isEmpty() ) || ( ! previousStates.keySet().containsAll(newStates.keySet()) ) ;
+
+        //--- Step 2 : build the model with the existing entities (or new void entities)
+        Map<String, DomainEntity> newEntities = new HashMap<String, DomainEntity>();
+        for (EntityFileDescriptor entityFile : entitiesFiles) {
+            String entityName = entityFile.getEntityName();
+            DomainEntity domainEntity = entities.get(entityName);
+            if ( domainEntity == null ) {
+            	domainEntity = new DomainEntity(entityName);
+            }
+            model.addEntity(domainEntity);
+            newEntities.put(entityName, domainEntity);
+        }
+
+        //--- Step 3 : determine the entities to be parsed
+        List<String> entitiesToParse = new ArrayList<String>();
+        for (EntityFileDescriptor entityFile : entitiesFiles) {
+            String entityName = entityFile.getEntityName();
+            EntityFileState state = newStates.get(entityName);
+            if ( changedContents.containsKey(entityName) ) {
+            	entitiesToParse.add(entityName); // new or changed
+            }
+            else if ( state.parsingError != null && entitiesNamesChanged ) {
+            	entitiesToParse.add(entityName); // the error can be due to a missing entity
+            }
+            else if ( state.referencedEntities != null && ! Collections.disjoint(state.referencedEntities, removedEntities) ) {
+            	entitiesToParse.add(entityName); // references a removed entity 
+            }
+        }
+
+        //--- Step 4 : parse ( nothing changed in the entities and in the states : a failure keeps the previous state )
+        // recovery mode : all the errors of each file are reported
+        EntityParser entityParser = new EntityParser(model, true);
+        List<EntityParsingOutcome> outcomes = new ArrayList<EntityParsingOutcome>(entitiesToParse.size());
+        for (String entityName : entitiesToParse) {
+        	EntityFileDescriptor entityFile = descriptors.get(entityName);
+        	byte[] content = changedContents.get(entityName);
+        	if ( content == null ) {
+        		content = readEntityFile(entityFile);
+        	}
+        	DiagnosticCollector entityDiagnostics = new DiagnosticCollector(entityFile.getFileName(), null);
+        	DomainEntity parsedEntity = entityParser.parseContent(content, entityName, entityDiagnostics);
+        	outcomes.add(new EntityParsingOutcome(entityName, parsedEntity, entityDiagnostics));
+        }
+
+        //--- Step 5 : apply the parsing results to the entities and keep the new state 
+        for (EntityParsingOutcome outcome : outcomes) {
+        	EntityFileState state = new EntityFileState(newStates.get(outcome.entityName));
+        	newStates.put(outcome.entityName, state);
+        	newEntities.get(outcome.entityName).removeAllFields();
+        	state.parsingError = null ;
+        	state.diagnostics = null ;
+        	state.referencedEntities = null ;
+        	if ( ! outcome.diagnostics.hasErrors() ) {
+	            model.populateEntityFileds(outcome.entityName, outcome.parsedEntity.getFields() );
+	            state.referencedEntities = getReferencedEntities(outcome.parsedEntity);
+        	}
+        	else {
+				state.parsingError = outcome.diagnostics.getFirstError().getMessage() ;
+				state.diagnostics = new ArrayList<Diagnostic>(outcome.diagnostics.getDiagnostics()) ;
+        	}
+        }
+        filesStates = newStates ;
+        entities = newEntities ;
+        lastParsedEntities = entitiesToParse ;
+        Map<String,String> errors = new LinkedHashMap<String,String>(); // in the files order
+        diagnostics = new ArrayList<Diagnostic>();
+        for (EntityFileDescriptor entityFile : entitiesFiles) {
+        	EntityFileState state = newStates.get(entityFile.getEntityName());
+        	if ( state.parsingError != null ) {
+        		errors.put(entityFile.getFileName(), state.parsingError );
+				diagnostics.addAll(state.diagnostics);
+        	}
+        }
+        entitiesErrors = Collections.unmodifiableMap(errors);
+        if ( errors.isEmpty() ) {
+            return new DomainModelParsingResult(model, null, errors, diagnostics);
+        }
+        else {
+        	return new DomainModelParsingResult(null, 
+        			"Parsing error(s) : " + errors.size() + " invalid entity(ies) ", errors, diagnostics);
+        }
+    }
+
+	/**
+	 * Reads the content of the given entity file 
+	 * @param entityFile
+	 * @return
+	 * @throws EntityParserException if the file cannot be read 
+	 */
+    byte[] readEntityFile(EntityFileDescriptor entityFile) {
+    	return ParserUtil.readFile(entityFile.getFile());
+    }
+
+	/**
+	 * Returns the errors of the last parsing
+	 * @return
+	 */
+    public synchronized Hashtable<String,String> getErrors() {
+    	return new Hashtable<String,String>(entitiesErrors) ;
+    }
+
+	/**
+	 * Returns all the errors of the last parsing (with file, line and column)
+	 * @return
+	 */
+    public synchronized List<Diagnostic> getDiagnostics() {
+    	return Collections.unmodifiableList(diagnostics) ;
+    }
+
+	/**
+	 * Returns the names of the entities parsed during the last call
+	 * @return
+	 */
+    public synchronized List<String> getLastParsedEntities() {
+    	return Collections.unmodifiableList(lastParsedEntities) ;
+    }
+
+    private Set<String> getReferencedEntities(DomainEntity domainEntity) {
+    	Set<String> referencedEntities = new HashSet<String>();
+    	for ( DomainEntityField field : domainEntity.getFields() ) {
+    		if ( field.isEntity() ) {
+    			referencedEntities.add(field.getTypeName());
+    		}
+    	}
+    	return referencedEntities ;
+    }
+}
@@ -16,55 +16,24 @@
 package org.telosys.tools.dsl.parser;
 
 import java.io.File;
-import java.util.StringTokenizer;
+import java.io.IOException;
+import java.nio.file.Files;
 
 import org.telosys.tools.dsl.EntityParserException;
 
 public class ParserUtil {
 	
-    private final static String COMMENT_REGEXP = "(?:/\\*(?:[^*]|(?:\\*+[^*/]))*\\*+/)|(?://.*)" ;
-	
     /**
-     * Removes the comments from the given text ( single-line and multi-line comments )
-     * @param initialText
-     * @return
-     */
-    private static String removeComments (String initialText) {
-    	return initialText.replaceAll(COMMENT_REGEXP,"");
-    }
-    
-    /**
-     * Flattens the given text : <br>
+     * Removes the comments ( single-line and multi-line comments ) and flattens the given text : <br>
      * - removes all EOL characters (CR-LF) <br>
      * - removes whitespaces and TABS at the beginning/end of each line (trim) <br>
+     * ( "whitespace" and TAB can be still present in the middle of the string ) <br>
      * 
      * @param initialText
      * @return
      */
-    private static String flattenText (String initialText) {
-        StringTokenizer tokenizer = new StringTokenizer(initialText, "\r\n");
-        StringBuilder stringBuilder = new StringBuilder();
-        while (tokenizer.hasMoreElements()) {
-            String line = tokenizer.nextElement().toString();
-
-// Already done before
-//            //--- Remove the right part of each single-line comment ( "//" )
-//            if (line.contains(KeyWords.getSingleLineComment())) {
-//                line = line.substring(0, line.indexOf(KeyWords.getSingleLineComment() ) );
-//            }
-
-            //--- Remove every "whitespace" (including TAB) at the beginning and at the end
-            if (line.length() > 0) {
-                stringBuilder.append(line.trim());
-            }
-            
-            // At this step "whitespace" and TAB can be still present in the middle of the string
-        }
-        return stringBuilder.toString();
-    }
-
     protected static String preprocessText (String initialText) {
-        return flattenText( removeComments(initialText) );
+        return new EntityLexer(initialText).getFlatText();
     }
 
     //-------------------------------------------------------------------------------------------------
@@ -90,4 +59,17 @@ public class ParserUtil {
         }
     }
 
+    /**
+     * Returns the whole content of the given file
+     * @param file
+     * @return
+     */
+    protected static byte[] readFile(File file) {
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new EntityParserException( "Cannot read file : "+ file.getAbsolutePath() );
+        }
+    }
+
 }
@@ -0,0 +1,153 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser;
+
+import java.util.Arrays;
+
+/**
+ * Lines table for an entity file content : the offset of the first char of each line <br>
+ * ( a single int[], built in one pass, used to convert an offset to a line/column ) <br>
+ * <br>
+ * The line separators are '\n', "\r\n" or a single '\r' 
+ *
+ */
+public final class SourceLines {
+
+	private final int[] lineStarts ;
+	private final int   linesCount ;
+	private final int   length ;
+
+	/**
+	 * Constructor 
+	 * @param lineStarts the start offset of each line ( the first one is 0, only 'linesCount' values are significant )
+	 * @param linesCount
+	 * @param length the content length 
+	 */
+	SourceLines(int[] lineStarts, int linesCount, int length) {
+		super();
+		this.lineStarts = lineStarts;
+		this.linesCount = linesCount;
+		this.length = length;
+	}
+
+	/**
+	 * Builds the lines table for the given content 
+	 * @param text
+	 * @return
+	 */
+	public static SourceLines build(CharSequence text) {
+		Builder builder = new Builder(text.length());
+		for ( int i = 0 ; i < text.length() ; i++ ) {
+			builder.check(text, i);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the number of lines 
+	 * @return
+	 */
+	public int getLinesCount() {
+		return linesCount;
+	}
+
+	/**
+	 * Returns the offset of the first char of the given line 
+	 * @param line the line number (starting at 1)
+	 * @return
+	 */
+	public int getLineStart(int line) {
+		return lineStarts[line - 1];
+	}
+
+	/**
+	 * Returns the line of the given offset 
+	 * @param offset position in the content 
+	 * @return the line number (starting at 1, or 0 if the offset is out of the content)
+	 */
+	public int getLine(int offset) {
+		if ( offset < 0 || offset > length ) {
+			return 0 ;
+		}
+		// binary search for the last line start <= offset
+		int low = 0 ;
+		int high = linesCount - 1 ;
+		while ( low < high ) {
+			int middle = ( low + high + 1 ) >>> 1 ;
+			if ( lineStarts[middle] <= offset ) {
+				low = middle ;
+			}
+			else {
+				high = middle - 1 ;
+			}
+		}
+		return low + 1 ;
+	}
+
+	/**
+	 * Returns the column of the given offset 
+	 * @param offset position in the content 
+	 * @return the column number (starting at 1, or 0 if the offset is out of the content)
+	 */
+	public int getColumn(int offset) {
+		int line = getLine(offset);
+		if ( line == 0 ) {
+			return 0 ;
+		}
+		return offset - lineStarts[line - 1] + 1 ;
+	}
+
+	/**
+	 * Lines table builder : called for each char of the content (in the content order) 
+	 */
+	static final class Builder {
+
+		private static final int MIN_CAPACITY = 16 ;
+
+		// average number of chars per line (used to size the table)
+		private static final int CHARS_PER_LINE = 32 ;
+
+		private final int length ;
+		private int[] lineStarts ;
+		private int   linesCount ;
+
+		Builder(int length) {
+			this.length = length ;
+			this.lineStarts = new int[Math.max(MIN_CAPACITY, length / CHARS_PER_LINE)];
+			this.lineStarts[0] = 0 ;
+			this.linesCount = 1 ;
+		}
+
+		/**
+		 * Registers a new line if the char at the given position ends a line
+		 * @param text
+		 * @param i
+		 */
+		void check(CharSequence text, int i) {
+			char c = text.charAt(i);
+			if ( c == '\n' || ( c == '\r' && ( i + 1 >= length || text.charAt(i+1) != '\n' ) ) ) {
+				if ( linesCount == lineStarts.length ) {
+					lineStarts = Arrays.copyOf(lineStarts, linesCount * 2);
+				}
+				lineStarts[linesCount++] = i + 1 ;
+			}
+		}
+
+		SourceLines build() {
+			return new SourceLines(lineStarts, linesCount, length);
+		}
+	}
+}
@@ -15,6 +15,7 @@
  */
 package org.telosys.tools.dsl.parser.model;
 
+import org.telosys.tools.dsl.AnnotationKind;
 import org.telosys.tools.dsl.EntityParserException;
 
 import java.util.*;
@@ -32,6 +33,22 @@ public class DomainEntity extends DomainType {
      * Map of fields used for direct access by field name and to check uniqueness 
      */
     private final Map<String, DomainEntityField> fieldsMap;
+
+    /*
+     * Fields list (immutable), built on demand and reset when the fields are changed
+     */
+    private volatile List<DomainEntityField> fields = null ;
+
+    /*
+     * Fields with an '@Id' annotation (immutable), built on demand, reset when the fields are changed 
+     * and when an '@Id' annotation is added to one of the fields ( notified by the field )
+     */
+    private volatile List<DomainEntityField> idFields = null ;
+
+    /**
+     * Position in the entity file ( not used in 'equals' )
+     */
+    private SourceSpan sourceSpan ;
     
 
     /**
@@ -50,14 +67,67 @@ public class DomainEntity extends DomainType {
             throw new EntityParserException("Field '" + field.getName() + "' already defined");
         }
         fieldsMap.put(field.getName(), field);
+        field.addOwner(this);
+        resetCachedLists();
     }
 
     /**
-     * Returns a list containing all the fields
+     * Removes all the fields <br>
+     * ( the entity can then be populated again, e.g. after a new parsing of its file )
+     */
+    public void removeAllFields() {
+        for (DomainEntityField field : fieldsMap.values()) {
+            field.removeOwner(this);
+        }
+        fieldsMap.clear();
+        resetCachedLists();
+    }
+
+    private void resetCachedLists() {
+        fields = null ;
+        idFields = null ;
+    }
+
+    /**
+     * Called by a field of this entity when it becomes an '@Id' field 
+     */
+    void idFieldChanged() {
+        idFields = null ;
+    }
+
+    /**
+     * Returns a list containing all the fields (in the definition order) <br>
+     * The returned list is immutable (it is shared until the next change of the fields)
      * @return
      */
     public List<DomainEntityField> getFields() {
-        return new LinkedList<DomainEntityField>(fieldsMap.values());
+        List<DomainEntityField> list = fields ;
+        if ( list == null ) {
+            list = Collections.unmodifiableList(new ArrayList<DomainEntityField>(fieldsMap.values()));
+            fields = list ;
+        }
+        return list;
+    }
+
+    /**
+     * Returns the fields with an '@Id' annotation (in the definition order) <br>
+     * The returned list is immutable (it is shared until the next change of the fields 
+     * or the next '@Id' annotation added to one of the fields of this entity)
+     * @return
+     */
+    public List<DomainEntityField> getIdFields() {
+        List<DomainEntityField> list = idFields ;
+        if ( list == null ) {
+            List<DomainEntityField> ids = new ArrayList<DomainEntityField>(1);
+            for ( DomainEntityField field : getFields() ) {
+                if ( field.hasAnnotation(AnnotationKind.ID) ) {
+                    ids.add(field);
+                }
+            }
+            list = Collections.unmodifiableList(ids);
+            idFields = list ;
+        }
+        return list;
     }
 
     /**
@@ -128,4 +198,19 @@ public class DomainEntity extends DomainType {
         return result;
     }
 
+    /**
+     * Returns the position of the entity in the entity file ( or null if unknown )
+     * @return
+     */
+    public SourceSpan getSourceSpan() {
+        return sourceSpan;
+    }
+
+    /**
+     * Sets the position of the entity in the entity file 
+     * @param sourceSpan
+     */
+    public void setSourceSpan(SourceSpan sourceSpan) {
+        this.sourceSpan = sourceSpan;
+    }
 }
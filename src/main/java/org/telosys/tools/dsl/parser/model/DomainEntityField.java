@@ -15,6 +15,7 @@
  */
 package org.telosys.tools.dsl.parser.model;
 
+import org.telosys.tools.dsl.AnnotationKind;
 import org.telosys.tools.dsl.EntityParserException;
 
 import java.util.*;
@@ -32,7 +33,33 @@ public class DomainEntityField {
       TODO : final
       */
 
-    private final Map<String, DomainEntityFieldAnnotation> annotations = new Hashtable<String, DomainEntityFieldAnnotation>();
+    private static final DomainEntityFieldAnnotation[] NO_ANNOTATION = new DomainEntityFieldAnnotation[0];
+
+    private static final DomainEntity[] NO_OWNER = new DomainEntity[0];
+
+    /*
+     * Entities holding the field ( usually only one ), notified when an '@Id' annotation is added 
+     * after 'DomainEntity.addField' in order to invalidate their '@Id' fields 
+     */
+    private DomainEntity[] owners = NO_OWNER ;
+
+    /*
+     * Compact storage : a small array kept in the definition order ( no map for each field ) 
+     * not synchronized (populated by the parsing thread), 
+     * the array is replaced (never modified) when an annotation is added 
+     */
+    private DomainEntityFieldAnnotation[] annotations = NO_ANNOTATION ;
+
+    // kinds of the annotations ( one bit for each known annotation kind )
+    private int annotationsMask = 0 ;
+
+    // read-only map view of the annotations ( created on the first call of 'getAnnotations' )
+    private Map<String, DomainEntityFieldAnnotation> annotationsView ;
+
+    /**
+     * Position in the entity file ( not used in 'equals' )
+     */
+    private SourceSpan sourceSpan ;
 
     /**
      * Constructor with default cardinality of 1
@@ -66,13 +93,122 @@ public class DomainEntityField {
     }
 
     public void addAnnotation(DomainEntityFieldAnnotation annotation) {
-        if (!annotations.containsKey(annotation.getName())) {
-            annotations.put(annotation.getName(), annotation);
+        if (indexOfAnnotation(annotation.getName()) < 0) {
+            DomainEntityFieldAnnotation[] newAnnotations = Arrays.copyOf(annotations, annotations.length + 1);
+            newAnnotations[annotations.length] = annotation;
+            annotations = newAnnotations;
+            if (annotation.getKind() != null) {
+                annotationsMask |= annotation.getKind().getMask();
+                if (annotation.getKind() == AnnotationKind.ID) {
+                    for (DomainEntity owner : owners) {
+                        owner.idFieldChanged();
+                    }
+                }
+            }
         } else {
             throw new EntityParserException("The annotation " + annotation.getName() + " is already define in the field " + this.getName());
         }
     }
 
+    /**
+     * Registers an entity holding the field ( called by 'DomainEntity.addField' )
+     * @param entity
+     */
+    void addOwner(DomainEntity entity) {
+        for (DomainEntity owner : owners) {
+            if (owner == entity) {
+                return;
+            }
+        }
+        DomainEntity[] newOwners = Arrays.copyOf(owners, owners.length + 1);
+        newOwners[owners.length] = entity;
+        owners = newOwners;
+    }
+
+    /**
+     * Unregisters an entity that no longer holds the field ( called by 'DomainEntity.removeAllFields' )
+     * @param entity
+     */
+    void removeOwner(DomainEntity entity) {
+        for (int i = 0; i < owners.length; i++) {
+            if (owners[i] == entity) {
+                DomainEntity[] newOwners = new DomainEntity[owners.length - 1];
+                System.arraycopy(owners, 0, newOwners, 0, i);
+                System.arraycopy(owners, i + 1, newOwners, i, owners.length - i - 1);
+                owners = newOwners.length == 0 ? NO_OWNER : newOwners;
+                return;
+            }
+        }
+    }
+
+    private int indexOfAnnotation(String annotationName) {
+        // a field has only a few annotations : linear search
+        for (int i = 0; i < annotations.length; i++) {
+            if (annotations[i].getName().equals(annotationName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the annotation with the given name (or null if none)
+     * @param annotationName
+     * @return
+     */
+    public final DomainEntityFieldAnnotation getAnnotation(String annotationName) {
+        int i = indexOfAnnotation(annotationName);
+        return i >= 0 ? annotations[i] : null;
+    }
+
+    /**
+     * Returns true if the field has an annotation with the given name
+     * @param annotationName
+     * @return
+     */
+    public final boolean hasAnnotation(String annotationName) {
+        return indexOfAnnotation(annotationName) >= 0;
+    }
+
+    /**
+     * Returns true if the field has an annotation of the given kind ( single bit test )
+     * @param kind
+     * @return
+     */
+    public final boolean hasAnnotation(AnnotationKind kind) {
+        return (annotationsMask & kind.getMask()) != 0;
+    }
+
+    /**
+     * Returns the kinds of the annotations ( bit mask, see 'AnnotationKind.getMask()' )
+     * @return
+     */
+    public final int getAnnotationsMask() {
+        return annotationsMask;
+    }
+
+    /**
+     * Returns the kinds of the annotations ( the unknown annotations are ignored )
+     * @return a new set 
+     */
+    public final Set<AnnotationKind> getAnnotationKinds() {
+        Set<AnnotationKind> kinds = EnumSet.noneOf(AnnotationKind.class);
+        for (AnnotationKind kind : AnnotationKind.values()) {
+            if (hasAnnotation(kind)) {
+                kinds.add(kind);
+            }
+        }
+        return kinds;
+    }
+
+    /**
+     * Returns the number of annotations
+     * @return
+     */
+    public final int getNumberOfAnnotations() {
+        return annotations.length;
+    }
+
     public final String getName() {
         return name;
     }
@@ -129,12 +265,12 @@ public class DomainEntityField {
     	}
     	String annotationsString= "";
     	
-    	for (String mapKey : annotations.keySet()) {
+    	for (DomainEntityFieldAnnotation annotation : annotations) {
     		String parameter = "";
-    		if(annotations.get(mapKey).hasParameter()){
-    			parameter = "("+ annotations.get(mapKey).getParameter() +")";
+    		if(annotation.hasParameter()){
+    			parameter = "("+ annotation.getParameter() +")";
     		}
-    		annotationsString += "\n\t\t\t\t" + annotations.get(mapKey).getName()+parameter;
+    		annotationsString += "\n\t\t\t\t" + annotation.getName()+parameter;
     	}
         return  fieldString + '{' +
                  	annotationsString +
@@ -152,7 +288,8 @@ public class DomainEntityField {
 
         DomainEntityField field = (DomainEntityField) o;
 
-        if (!annotations.equals(field.annotations)) {
+        // same annotations whatever the order (as the former map)
+        if (!sameAnnotations(field)) {
             return false;
         }
         if (!name.equals(field.name)) {
@@ -172,26 +309,140 @@ public class DomainEntityField {
     public int hashCode() {
         int result = name != null ? name.hashCode() : 0;
         result = THIRTY_ONE * result + (type != null ? type.hashCode() : 0);
-        result = THIRTY_ONE * result + (annotations != null ? annotations.hashCode() : 0);
+        result = THIRTY_ONE * result + annotationsHashCode();
         return result;
     }
 
+    private boolean sameAnnotations(DomainEntityField other) {
+        if (annotations.length != other.annotations.length || annotationsMask != other.annotationsMask) {
+            return false;
+        }
+        // unique names : each annotation must have an equal annotation with the same name in the other field
+        for (DomainEntityFieldAnnotation annotation : annotations) {
+            if (!annotation.equals(other.getAnnotation(annotation.getName()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int annotationsHashCode() {
+        // same value as the hash code of the map view ( independent of the order )
+        int hash = 0;
+        for (DomainEntityFieldAnnotation annotation : annotations) {
+            hash += annotation.getName().hashCode() ^ annotation.hashCode();
+        }
+        return hash;
+    }
+
     /**
-     * Returns all the annotation names (in alphabetical order)
+     * Returns all the annotation names (in alphabetical order) <br>
+     * NB : a new list is built for each call, use 'hasAnnotation' to check an annotation
      *
      * @return
      */
     public final List<String> getAnnotationNames() {
-        List<String> names = new LinkedList<String>(annotations.keySet());
+        List<String> names = new LinkedList<String>();
+        for (DomainEntityFieldAnnotation annotation : annotations) {
+            names.add(annotation.getName());
+        }
         Collections.sort(names);
         return names;
     }
 
     /**
-     * Return annotations
+     * Return annotations <br>
+     * The map is a READ-ONLY view of the field annotations (no copy, always the same instance for a field, 
+     * the annotations added later are visible in the view), the annotations are in the definition order <br>
+     * Any change attempt throws an UnsupportedOperationException : use 'addAnnotation' to add an annotation 
      * @return annotations
      */
     public Map<String, DomainEntityFieldAnnotation> getAnnotations() {
-        return this.annotations;
+        Map<String, DomainEntityFieldAnnotation> view = annotationsView ;
+        if (view == null) {
+            // stateless view : a concurrent creation is harmless
+            view = new AnnotationsView();
+            annotationsView = view ;
+        }
+        return view;
+    }
+
+    /**
+     * Unmodifiable map view of the annotations array ( key : annotation name )
+     */
+    private final class AnnotationsView extends AbstractMap<String, DomainEntityFieldAnnotation> {
+
+        private DomainEntityFieldAnnotation find(Object key) {
+            return key instanceof String ? getAnnotation((String) key) : null;
+        }
+
+        @Override
+        public int size() {
+            return annotations.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return find(key) != null;
+        }
+
+        @Override
+        public DomainEntityFieldAnnotation get(Object key) {
+            return find(key);
+        }
+
+        @Override
+        public Collection<DomainEntityFieldAnnotation> values() {
+            return Collections.unmodifiableList(Arrays.asList(annotations));
+        }
+
+        @Override
+        public Set<Map.Entry<String, DomainEntityFieldAnnotation>> entrySet() {
+            return new AbstractSet<Map.Entry<String, DomainEntityFieldAnnotation>>() {
+                @Override
+                public int size() {
+                    return annotations.length;
+                }
+                @Override
+                public Iterator<Map.Entry<String, DomainEntityFieldAnnotation>> iterator() {
+                    final DomainEntityFieldAnnotation[] array = annotations ; // current annotations
+                    return new Iterator<Map.Entry<String, DomainEntityFieldAnnotation>>() {
+                        private int index = 0;
+                        @Override
+                        public boolean hasNext() {
+                            return index < array.length;
+                        }
+                        @Override
+                        public Map.Entry<String, DomainEntityFieldAnnotation> next() {
+                            if (index >= array.length) {
+                                throw new NoSuchElementException();
+                            }
+                            DomainEntityFieldAnnotation annotation = array[index++];
+                            return new AbstractMap.SimpleImmutableEntry<String, DomainEntityFieldAnnotation>(annotation.getName(), annotation);
+                        }
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * Returns the position of the field in the entity file ( or null if unknown )
+     * @return
+     */
+    public SourceSpan getSourceSpan() {
+        return sourceSpan;
+    }
+
+    /**
+     * Sets the position of the field in the entity file 
+     * @param sourceSpan
+     */
+    public void setSourceSpan(SourceSpan sourceSpan) {
+        this.sourceSpan = sourceSpan;
     }
 }
@@ -17,6 +17,8 @@ package org.telosys.tools.dsl.parser.model;
 
 import java.math.BigDecimal;
 
+import org.telosys.tools.dsl.AnnotationKind;
+
 /**
  * @author Jonathan Goncalves, Mathieu Herbert, Thomas Legendre, Laurent Guerin
  * @version 1.0
@@ -24,10 +26,19 @@ import java.math.BigDecimal;
  */
 public class DomainEntityFieldAnnotation {
 
+    // parameter value for an annotation without parameter ( a null parameter is a parameter )
+    private static final Object NO_PARAMETER = new Object();
+
     private final String  name;
-    private final String  stringParameter;
-    private final Number  numberParameter;
-    private final boolean hasParameter;
+    // single parameter field ( String, Number, null or NO_PARAMETER ) to keep the annotation compact
+    private final Object  parameter;
+    // resolved once from the name ( null if the annotation is unknown )
+    private final AnnotationKind kind;
+
+    /**
+     * Position in the entity file ( not used in 'equals' )
+     */
+    private SourceSpan sourceSpan ;
 //    public static final int THIRTY_ONE = 31;
 
     /**
@@ -36,9 +47,8 @@ public class DomainEntityFieldAnnotation {
      */
     public DomainEntityFieldAnnotation(String name) {
         this.name = name;
-        this.stringParameter = null;
-        this.numberParameter = null;
-        this.hasParameter = false;
+        this.parameter = NO_PARAMETER;
+        this.kind = AnnotationKind.fromName(name);
     }
 
     /**
@@ -48,9 +58,8 @@ public class DomainEntityFieldAnnotation {
      */
     public DomainEntityFieldAnnotation(String name, String param) {
         this.name = name;
-        this.stringParameter = param;
-        this.numberParameter = null;
-        this.hasParameter = true;
+        this.parameter = param;
+        this.kind = AnnotationKind.fromName(name);
     }
 
     /**
@@ -60,9 +69,8 @@ public class DomainEntityFieldAnnotation {
      */
     public DomainEntityFieldAnnotation(String name, Number param) {
         this.name = name;
-        this.stringParameter = null;
-        this.numberParameter = param;
-        this.hasParameter = true;
+        this.parameter = param;
+        this.kind = AnnotationKind.fromName(name);
     }
 
     /**
@@ -74,11 +82,20 @@ public class DomainEntityFieldAnnotation {
     }
 
     /**
-     * Returns true if the annotation has a parameter
+     * Returns the kind of the annotation 
+     * @return the kind (or null if the annotation is unknown)
+     */
+    public AnnotationKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns true if the annotation has a parameter <br>
+     * ( true for an annotation created with a parameter, even if this parameter is null )
      * @return
      */
-    boolean hasParameter() {
-        return this.hasParameter;
+    public boolean hasParameter() {
+        return parameter != NO_PARAMETER ;
     }
 
     /**
@@ -87,7 +104,10 @@ public class DomainEntityFieldAnnotation {
      * @return
      */
     public String getParameter() {
-        return stringParameter;
+    	if ( parameter instanceof String ) {
+            return (String) parameter;
+    	}
+    	return null ;
     }
 
     /**
@@ -96,8 +116,8 @@ public class DomainEntityFieldAnnotation {
      * @return
      */
     public BigDecimal getParameterAsBigDecimal() {
-    	if ( numberParameter != null && numberParameter instanceof BigDecimal ) {
-            return (BigDecimal) numberParameter;
+    	if ( parameter instanceof BigDecimal ) {
+            return (BigDecimal) parameter;
     	}
     	return null ;
     }
@@ -108,8 +128,8 @@ public class DomainEntityFieldAnnotation {
      * @return
      */
     public Integer getParameterAsInteger() {
-    	if ( numberParameter != null && numberParameter instanceof Integer ) {
-            return (Integer) numberParameter;
+    	if ( parameter instanceof Integer ) {
+            return (Integer) parameter;
     	}
     	return null ;
     }
@@ -165,16 +185,27 @@ public class DomainEntityFieldAnnotation {
     	StringBuilder sb = new StringBuilder();
     	sb.append("@");
     	sb.append(name);
-    	if ( this.hasParameter ) {
+    	if ( hasParameter() ) {
         	sb.append("(");
-        	if ( numberParameter != null ) {
-            	sb.append(numberParameter);
-        	}
-        	else {
-            	sb.append(stringParameter);
-        	}
+        	sb.append(parameter);
         	sb.append(")");
     	}
     	return sb.toString();
     }
+
+    /**
+     * Returns the position of the annotation in the entity file ( or null if unknown )
+     * @return
+     */
+    public SourceSpan getSourceSpan() {
+        return sourceSpan;
+    }
+
+    /**
+     * Sets the position of the annotation in the entity file 
+     * @param sourceSpan
+     */
+    public void setSourceSpan(SourceSpan sourceSpan) {
+        this.sourceSpan = sourceSpan;
+    }
 }
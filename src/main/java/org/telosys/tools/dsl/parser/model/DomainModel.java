@@ -15,10 +15,10 @@
  */
 package org.telosys.tools.dsl.parser.model;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Hashtable;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -41,7 +41,22 @@ public class DomainModel {
     NB :
         Do not accept an entity and an enumeration with the same name /!\
      */
-    private final Map<String, DomainEntity> entities = new Hashtable<String, DomainEntity>();
+    /*
+     * Not synchronized : the model is populated by a single thread ( the parsing thread ) 
+     * then it is only read (possibly by several threads after its publication) 
+     * The entities are kept in the insertion order ( the entities files order ) 
+     */
+    private final Map<String, DomainEntity> entities = new LinkedHashMap<String, DomainEntity>();
+
+    /*
+     * Sorted entity names (immutable), built on demand and reset when an entity is added
+     */
+    private volatile List<String> entityNames = null ;
+
+    /*
+     * Shared instances of the names used in the model ( entity names, field names, etc )
+     */
+    private final SymbolTable symbolTable ;
 
 //    private final Map<String, DomainEnumeration<?>> enumerations = new Hashtable<String, DomainEnumeration<?>>();
 
@@ -57,6 +72,7 @@ public class DomainModel {
 //        this.modelVersion = "" ;
 //        this.modelDescription = "" ;
         domainModelInfo = new DomainModelInfo();
+        symbolTable = new SymbolTable();
     }
 
 //    public DomainModel(String modelName, Properties properties) {
@@ -66,6 +82,20 @@ public class DomainModel {
 //        this.modelVersion = properties.getProperty("version", "");
 //        this.modelDescription = properties.getProperty("description", "");
         domainModelInfo = new DomainModelInfo(properties);
+        symbolTable = new SymbolTable();
+    }
+
+    /**
+     * Constructor with an existing symbol table <br>
+     * ( to share the names with a previous version of the model )
+     *
+     * @param properties
+     * @param symbolTable
+     */
+    public DomainModel(Properties properties, SymbolTable symbolTable) {
+    	super();
+        domainModelInfo = new DomainModelInfo(properties);
+        this.symbolTable = symbolTable ;
     }
 
     /**
@@ -97,6 +127,14 @@ public class DomainModel {
 		return domainModelInfo.getDescription();
 	}
 
+    /**
+     * Returns the symbol table of the model ( shared instances of the names )
+     * @return
+     */
+    public final SymbolTable getSymbolTable() {
+        return symbolTable ;
+    }
+
 	private final void checkName(String name) {
         // Do not accept an entity/enumeration with a "neutral type" name
         if (DomainNeutralTypes.exists(name)) {
@@ -124,7 +162,19 @@ public class DomainModel {
      */
     public final void addEntity(DomainEntity entity) {
         checkName(entity.getName());
-        entities.put(entity.getName(), entity);
+        // the entity name is also used as a type name in the fields referencing this entity
+        entities.put(symbolTable.intern(entity.getName()), entity);
+        entityNames = null ;
+    }
+
+    /**
+     * Returns true if an entity is defined with the given name
+     *
+     * @param entityName
+     * @return
+     */
+    public final boolean hasEntity(String entityName) {
+        return entities.containsKey(entityName);
     }
 
     /**
@@ -155,13 +205,19 @@ public class DomainModel {
     }
 
     /**
-     * Returns all the entity names (in alphabetical order)
+     * Returns all the entity names (in alphabetical order) <br>
+     * The returned list is immutable (it is shared until the next entity addition)
      *
      * @return
      */
     public final List<String> getEntityNames() {
-        List<String> names = new LinkedList<String>(entities.keySet());
-        Collections.sort(names);
+        List<String> names = entityNames ;
+        if ( names == null ) {
+            List<String> list = new ArrayList<String>(entities.keySet());
+            Collections.sort(list);
+            names = Collections.unmodifiableList(list);
+            entityNames = names ;
+        }
         return names;
     }
 
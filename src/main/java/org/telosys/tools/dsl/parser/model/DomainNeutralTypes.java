@@ -55,13 +55,16 @@ public final class DomainNeutralTypes {
     	BINARY_BLOB };
     	//, LONGTEXT_CLOB};
 
-    private static final Map<String, DomainNeutralType> NEUTRAL_TYPES = new Hashtable<String, DomainNeutralType>();
+    // read-only after the class initialization (no synchronization required), in the NAMES order
+    private static final Map<String, DomainNeutralType> NEUTRAL_TYPES = buildNeutralTypes();
 
-    static {
+    private static Map<String, DomainNeutralType> buildNeutralTypes() {
+    	Map<String, DomainNeutralType> map = new LinkedHashMap<String, DomainNeutralType>();
         for (String name : NAMES) {
             DomainNeutralType type = new DomainNeutralType(name);
-            NEUTRAL_TYPES.put(type.getName(), type);
+            map.put(type.getName(), type);
         }
+        return Collections.unmodifiableMap(map);
     }
 
     public static final boolean exists(String typeName) {
@@ -69,8 +72,9 @@ public final class DomainNeutralTypes {
     }
 
     public static final DomainNeutralType getType(String typeName) {
-        if (NEUTRAL_TYPES.containsKey(typeName)) {
-            return NEUTRAL_TYPES.get(typeName);
+        DomainNeutralType type = NEUTRAL_TYPES.get(typeName);
+        if (type != null) {
+            return type;
         } else {
             throw new EntityParserException("Invalid neutral type name '" + typeName + "'");
         }
@@ -0,0 +1,110 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser.model;
+
+/**
+ * Position of an element (entity, field, annotation) in the original entity file <br>
+ * ( offsets in the file content, line and column of the first char ) 
+ *
+ */
+public final class SourceSpan {
+
+	private final int startOffset ;
+	private final int endOffset ;
+	private final int line ;
+	private final int column ;
+
+	/**
+	 * Constructor
+	 * @param startOffset position of the first char in the file content
+	 * @param endOffset position after the last char in the file content
+	 * @param line line of the first char (starting at 1)
+	 * @param column column of the first char (starting at 1)
+	 */
+	public SourceSpan(int startOffset, int endOffset, int line, int column) {
+		super();
+		this.startOffset = startOffset;
+		this.endOffset = endOffset;
+		this.line = line;
+		this.column = column;
+	}
+
+	/**
+	 * Returns the position of the first char in the file content
+	 * @return
+	 */
+	public int getStartOffset() {
+		return startOffset;
+	}
+
+	/**
+	 * Returns the position after the last char in the file content
+	 * @return
+	 */
+	public int getEndOffset() {
+		return endOffset;
+	}
+
+	/**
+	 * Returns the number of chars (including the comments and EOL located inside the element) 
+	 * @return
+	 */
+	public int getLength() {
+		return endOffset - startOffset;
+	}
+
+	/**
+	 * Returns the line of the first char (starting at 1)
+	 * @return
+	 */
+	public int getLine() {
+		return line;
+	}
+
+	/**
+	 * Returns the column of the first char (starting at 1)
+	 * @return
+	 */
+	public int getColumn() {
+		return column;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( this == obj ) {
+			return true ;
+		}
+		if ( ! ( obj instanceof SourceSpan ) ) {
+			return false ;
+		}
+		SourceSpan other = (SourceSpan) obj ;
+		return startOffset == other.startOffset && endOffset == other.endOffset 
+				&& line == other.line && column == other.column ;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 31 + startOffset ;
+		result = 31 * result + endOffset ;
+		result = 31 * result + line ;
+		return 31 * result + column ;
+	}
+
+	@Override
+	public String toString() {
+		return line + ":" + column + " [" + startOffset + "-" + endOffset + "]" ;
+	}
+}
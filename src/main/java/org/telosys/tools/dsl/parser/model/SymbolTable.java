@@ -0,0 +1,199 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser.model;
+
+/**
+ * Symbol table of a model : a single String instance for each identifier 
+ * ( field names, type names, entity names, etc ) <br>
+ * Large models repeat the same names ("id", "name", "code", etc) in many entities, 
+ * with this table all the occurrences share the same instance <br>
+ * <br>
+ * A slice of a char buffer can be looked up without creating a String 
+ * (a new String is created only for the first occurrence of a name) <br>
+ * <br>
+ * Thread-safe : the entities of a model can be parsed by several threads <br>
+ * The lookups are lock-free ( most of the names are already known ), only the new symbols are added under a lock : 
+ * a lookup that doesn't see a symbol being added by another thread just goes on with the lock <br>
+ * NB : the table only grows, it lives as long as its model 
+ *
+ */
+public final class SymbolTable {
+
+	private static final int INITIAL_CAPACITY = 256 ; // must be a power of 2
+
+	/*
+	 * Open addressing (linear probing), the load factor is kept under 0.5 <br>
+	 * A slot is only changed once ( from null to a symbol ) and the arrays are replaced as a whole 
+	 * when the table grows, so the arrays can be read without lock 
+	 */
+	private static final class Table {
+		final String[] symbols ;
+		final int[]    hashes ;
+		Table(int capacity) {
+			this.symbols = new String[capacity];
+			this.hashes = new int[capacity];
+		}
+	}
+
+	private volatile Table table ;
+
+	private int size = 0 ; // guarded by 'this'
+
+	/**
+	 * Constructor
+	 */
+	public SymbolTable() {
+		super();
+		this.table = new Table(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Returns the number of symbols
+	 * @return
+	 */
+	public synchronized int size() {
+		return size ;
+	}
+
+	/**
+	 * Returns the shared instance for the given String ( the String itself if it is a new symbol )
+	 * @param s
+	 * @return the shared instance (or null if the given String is null)
+	 */
+	public String intern(String s) {
+		if ( s == null ) {
+			return null ;
+		}
+		// same hash as the slices ( String.hashCode() definition )
+		int hash = s.hashCode();
+		String symbol = find(table, hash, s);
+		if ( symbol != null ) {
+			return symbol ;
+		}
+		synchronized (this) {
+			Table current = table ;
+			symbol = find(current, hash, s);
+			if ( symbol != null ) {
+				return symbol ;
+			}
+			add(current, hash, s);
+			return s ;
+		}
+	}
+
+	/**
+	 * Returns the shared instance for the given chars <br>
+	 * No String is created if the symbol is already known
+	 * @param buffer
+	 * @param start first char position (included)
+	 * @param end last char position (excluded)
+	 * @return
+	 */
+	public String intern(char[] buffer, int start, int end) {
+		int hash = 0 ;
+		for ( int k = start ; k < end ; k++ ) {
+			hash = 31 * hash + buffer[k] ;
+		}
+		String symbol = find(table, hash, buffer, start, end);
+		if ( symbol != null ) {
+			return symbol ;
+		}
+		synchronized (this) {
+			Table current = table ;
+			symbol = find(current, hash, buffer, start, end);
+			if ( symbol != null ) {
+				return symbol ;
+			}
+			symbol = new String(buffer, start, end - start);
+			add(current, hash, symbol);
+			return symbol ;
+		}
+	}
+
+	private static String find(Table t, int hash, String s) {
+		String[] symbols = t.symbols ;
+		int mask = symbols.length - 1 ;
+		int i = hash & mask ;
+		String symbol ;
+		while ( ( symbol = symbols[i] ) != null ) {
+			if ( t.hashes[i] == hash && symbol.equals(s) ) {
+				return symbol ;
+			}
+			i = ( i + 1 ) & mask ;
+		}
+		return null ;
+	}
+
+	private static String find(Table t, int hash, char[] buffer, int start, int end) {
+		String[] symbols = t.symbols ;
+		int mask = symbols.length - 1 ;
+		int i = hash & mask ;
+		String symbol ;
+		while ( ( symbol = symbols[i] ) != null ) {
+			if ( t.hashes[i] == hash && sameChars(symbol, buffer, start, end) ) {
+				return symbol ;
+			}
+			i = ( i + 1 ) & mask ;
+		}
+		return null ;
+	}
+
+	private static boolean sameChars(String symbol, char[] buffer, int start, int end) {
+		if ( symbol.length() != end - start ) {
+			return false ;
+		}
+		for ( int k = start ; k < end ; k++ ) {
+			if ( symbol.charAt(k - start) != buffer[k] ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	// called with the lock
+	private void add(Table t, int hash, String symbol) {
+		size++ ;
+		if ( size * 2 > t.symbols.length ) {
+			t = rehash(t);
+			insert(t, hash, symbol);
+			table = t ; // the new arrays are published when complete
+		}
+		else {
+			insert(t, hash, symbol);
+		}
+	}
+
+	private static void insert(Table t, int hash, String symbol) {
+		int mask = t.symbols.length - 1 ;
+		int i = hash & mask ;
+		while ( t.symbols[i] != null ) {
+			i = ( i + 1 ) & mask ;
+		}
+		// hash first : a reader seeing the symbol without its hash just misses it ( then uses the lock )
+		t.hashes[i] = hash ;
+		t.symbols[i] = symbol ;
+	}
+
+	private static Table rehash(Table old) {
+		Table t = new Table(old.symbols.length * 2);
+		for ( int k = 0 ; k < old.symbols.length ; k++ ) {
+			if ( old.symbols[k] != null ) {
+				insert(t, old.hashes[k], old.symbols[k]);
+			}
+		}
+		return t ;
+	}
+}
@@ -0,0 +1,61 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.dsl.parser.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Content hash utilities (used to detect the entities files changes)
+ *
+ */
+public final class HashUtils {
+
+	private static final String ALGORITHM = "SHA-1" ;
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private HashUtils(){}
+
+	/**
+	 * Returns the hash of the given content
+	 * @param content
+	 * @return
+	 */
+	public static byte[] hash(byte[] content) {
+		try {
+			// MessageDigest instances are not thread-safe : one instance per call
+			return MessageDigest.getInstance(ALGORITHM).digest(content);
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-1 is supported by every Java platform
+			throw new IllegalStateException("Hash algorithm '" + ALGORITHM + "' not available", e);
+		}
+	}
+
+	/**
+	 * Returns the hexadecimal representation of the given hash
+	 * @param hash
+	 * @return
+	 */
+	public static String toHex(byte[] hash) {
+		char[] chars = new char[hash.length * 2];
+		for ( int i = 0 ; i < hash.length ; i++ ) {
+			chars[i*2]   = HEX_DIGITS[ ( hash[i] >> 4 ) & 0x0F ];
+			chars[i*2+1] = HEX_DIGITS[ hash[i] & 0x0F ];
+		}
+		return new String(chars);
+	}
+}
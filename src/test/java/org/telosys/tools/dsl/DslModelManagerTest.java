@@ -3,11 +3,20 @@ package org.telosys.tools.dsl;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
+import org.telosys.tools.dsl.parser.IncrementalDomainModelParser;
 import org.telosys.tools.generic.model.Attribute;
 import org.telosys.tools.generic.model.Entity;
 import org.telosys.tools.generic.model.Model;
@@ -211,4 +220,75 @@ public class DslModelManagerTest {
         	}
         }
     }
+
+    @Test
+    public void testLoadResult() {
+        DslModelManager modelManager = new DslModelManager();
+        ModelLoadResult result = modelManager.load(new File("src/test/resources/model_test/valid/FourEntities.model"));
+        assertFalse(result.hasErrors());
+        assertEquals(4, result.getModel().getEntities().size());
+        assertTrue(result.getParsingTime() > 0);
+        assertEquals(result.getParsingTime() + result.getConversionTime(), result.getTotalTime());
+
+        result = modelManager.load(new File("src/test/resources/model_test/invalid/FourEntities.model"));
+        assertTrue(result.hasErrors());
+        assertNull(result.getModel());
+        assertEquals(2, result.getErrors().size());
+        assertNotNull(result.getErrors().get("Gender.entity"));
+        assertEquals(0, result.getConversionTime());
+        // stateless loading : nothing kept in the manager
+        assertNull(modelManager.getParsingErrors());
+        assertNull(modelManager.getErrorMessage());
+    }
+
+    @Test
+    public void testMissingModelFile() {
+        File modelFile = new File("src/test/resources/model_test/valid/NoSuchModel.model");
+        DslModelManager modelManager = new DslModelManager();
+        ModelLoadResult result = modelManager.load(modelFile);
+        assertTrue(result.hasErrors());
+        assertNull(result.getModel());
+        assertTrue(result.getErrorMessage().contains("not found"));
+        assertEquals(0, result.getErrors().size());
+        // same result with the incremental parser
+        result = modelManager.load(modelFile, new IncrementalDomainModelParser());
+        assertTrue(result.hasErrors());
+        assertTrue(result.getErrorMessage().contains("not found"));
+        // no exception : error kept in the manager
+        assertNull(modelManager.loadModel(modelFile));
+        assertTrue(modelManager.getErrorMessage().contains("not found"));
+        assertEquals(0, modelManager.getParsingErrors().size());
+    }
+
+    @Test
+    public void testConcurrentLoading() throws Exception {
+        final DslModelManager modelManager = new DslModelManager();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+        	List<Future<ModelLoadResult>> futures = new ArrayList<Future<ModelLoadResult>>();
+        	for ( int i = 0 ; i < 20 ; i++ ) {
+        		final String modelFile = ( i % 2 == 0 ) ? "src/test/resources/model_test/valid/FourEntities.model" 
+        				: "src/test/resources/model_test/invalid/FourEntities.model" ;
+        		futures.add(executor.submit(new Callable<ModelLoadResult>() {
+					@Override
+					public ModelLoadResult call() {
+						return modelManager.load(new File(modelFile));
+					}
+				}));
+        	}
+        	for ( int i = 0 ; i < futures.size() ; i++ ) {
+        		ModelLoadResult result = futures.get(i).get();
+        		if ( i % 2 == 0 ) {
+        			assertFalse(result.hasErrors());
+        			assertEquals(4, result.getModel().getEntities().size());
+        		}
+        		else {
+        			assertTrue(result.hasErrors());
+        			assertEquals(2, result.getErrors().size());
+        		}
+        	}
+        } finally {
+        	executor.shutdown();
+        }
+    }
 }
@@ -6,7 +6,13 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 import org.telosys.tools.commons.env.TelosysToolsEnv;
@@ -52,6 +58,67 @@ public class DslModelUtilTest {
     	assertEquals(4, list.size());
     }
     
+    @Test
+    public void testGetEntitiesFiles() {
+    	File modelFile = new File("src/test/resources/model_test/valid/FourEntities.model");
+    	List<EntityFileDescriptor> list = DslModelUtil.getEntitiesFiles(modelFile, null);
+    	assertEquals(4, list.size());
+    	// sorted by file name
+    	assertEquals("Country", list.get(0).getEntityName());
+    	assertEquals("Person.entity", list.get(3).getFileName());
+    	File personFile = new File("src/test/resources/model_test/valid/FourEntities_model/Person.entity");
+    	assertEquals(personFile.getAbsoluteFile(), list.get(3).getFile());
+    	assertEquals(personFile.length(), list.get(3).getSize());
+    	assertEquals(personFile.lastModified(), list.get(3).getLastModified());
+    	// same names as the absolute file names 
+    	List<String> fileNames = DslModelUtil.getEntitiesAbsoluteFileNames(modelFile);
+    	for ( int i = 0 ; i < list.size() ; i++ ) {
+    		assertEquals(list.get(i).getPath().toString(), fileNames.get(i));
+    	}
+    }
+    
+    @Test
+    public void testGetEntitiesFilesConcurrently() throws IOException {
+    	File modelsFolder = TestFileProvider.getTargetTmpFile("scan/TelosysTools");
+    	File modelFile = new File(modelsFolder, "many.model");
+    	File modelFolder = DslModelUtil.getModelFolder(modelFile);
+    	modelFolder.mkdirs();
+    	for ( int i = 0 ; i < 200 ; i++ ) {
+    		Files.write(new File(modelFolder, "E" + ( 1000 + i ) + ".entity").toPath(), ("E" + i + " { id : int ; }").getBytes());
+    	}
+    	Files.write(new File(modelFolder, "readme.txt").toPath(), "not an entity".getBytes());
+    	ExecutorService executor = Executors.newFixedThreadPool(4);
+    	try {
+    		List<EntityFileDescriptor> list = DslModelUtil.getEntitiesFiles(modelFile, executor);
+    		assertEquals(200, list.size());
+    		for ( int i = 0 ; i < list.size() ; i++ ) {
+    			assertEquals("E" + ( 1000 + i ), list.get(i).getEntityName());
+    		}
+    	} finally {
+    		executor.shutdown();
+    	}
+    	assertEquals(new File(modelFolder, "Foo.entity").getAbsoluteFile(), DslModelUtil.buildEntityFile(modelFile, "Foo"));
+    }
+    
+    @Test
+    public void testReadEntitiesFilesErrors() throws IOException {
+    	File folder = TestFileProvider.getTargetTmpFile("scan/errors");
+    	folder.mkdirs();
+    	File file = new File(folder, "Foo.entity");
+    	Files.write(file.toPath(), "Foo { id : int ; }".getBytes());
+    	List<Path> paths = new ArrayList<Path>();
+    	paths.add(file.toPath());
+    	paths.add(new File(folder, "Removed.entity").toPath()); // removed after the listing
+    	paths.add(new File(file, "Bar.entity").toPath()); // not a directory : cannot be 'stat-ed'
+    	List<EntityFileDescriptor> list = DslModelUtil.readEntitiesFiles(paths, 0, paths.size());
+    	assertEquals(2, list.size());
+    	assertEquals("Foo", list.get(0).getEntityName());
+    	assertEquals(file.length(), list.get(0).getSize());
+    	assertEquals("Bar", list.get(1).getEntityName());
+    	assertEquals(EntityFileDescriptor.UNKNOWN, list.get(1).getSize());
+    	assertEquals(EntityFileDescriptor.UNKNOWN, list.get(1).getLastModified());
+    }
+    
     @Test
     public void testRenameEntity() {
     	String newName = "Country2" ;
@@ -68,6 +135,12 @@ public class DslModelUtilTest {
     	assertTrue( newFile.exists() );
     }
     
+    @Test(expected = IllegalArgumentException.class)
+    public void testRenameEntityWithInvalidName() {
+    	File entityFile = TestFileProvider.copyAndGetTargetTmpFile("model_test/valid/TwoEntities_model/Country.entity");
+    	DslModelUtil.renameEntity(entityFile, "Country-2");
+    }
+    
     private File getFile(String fileFullPath) {
     	File file = new File(fileFullPath) ;
     	System.out.println("File getAbsolutePath() : " + file.getAbsolutePath() );
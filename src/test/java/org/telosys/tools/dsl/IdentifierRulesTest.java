@@ -0,0 +1,44 @@
+package org.telosys.tools.dsl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IdentifierRulesTest {
+
+	private static final String[] NAMES = { "", "a", "A", "_", "9", "id", "Car", "car", "firstName", "first_name", "Field12",
+			"na-me", "na me", "n@me", "Caf\u00e9", "\u00c9t\u00e9", "A$", "Car.Driver", " Car", "Car " } ;
+
+	@Test
+	public void testSameResultsAsRegex() {
+		for ( String name : NAMES ) {
+			assertEquals(name, name.length() > 0 && name.matches("^[\\w]*$"), IdentifierRules.isValidFieldName(name));
+			assertEquals(name, name.matches("^[A-Z][\\w]*$"), IdentifierRules.isValidEntityName(name));
+		}
+	}
+
+	@Test
+	public void testSlices() {
+		char[] buffer = "xx Car.first_name-Bad".toCharArray();
+		assertTrue(IdentifierRules.isValidEntityName(buffer, 3, 6));
+		assertFalse(IdentifierRules.isValidEntityName(buffer, 7, 17));
+		assertTrue(IdentifierRules.isValidFieldName(buffer, 7, 17));
+		assertFalse(IdentifierRules.isValidFieldName(buffer, 7, 18));
+		assertFalse(IdentifierRules.isValidFieldName(buffer, 7, 7));
+		assertFalse(IdentifierRules.isValidEntityName(buffer, 3, 3));
+	}
+
+	@Test
+	public void testNull() {
+		assertFalse(IdentifierRules.isValidFieldName(null));
+		assertFalse(IdentifierRules.isValidEntityName(null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCheckEntityName() {
+		IdentifierRules.checkEntityName("Car");
+		IdentifierRules.checkEntityName("My Car");
+	}
+}
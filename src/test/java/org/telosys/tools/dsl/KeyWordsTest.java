@@ -0,0 +1,64 @@
+package org.telosys.tools.dsl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+public class KeyWordsTest {
+
+	@Test
+	public void testAnnotationDefinitions() {
+		assertEquals(AnnotationParameterKind.NONE, KeyWords.getAnnotationDefinition("Id").getParameterKind());
+		assertEquals(AnnotationParameterKind.DECIMAL, KeyWords.getAnnotationDefinition("Min").getParameterKind());
+		assertEquals(AnnotationParameterKind.INTEGER, KeyWords.getAnnotationDefinition("SizeMax").getParameterKind());
+		assertEquals("SizeMax", KeyWords.getAnnotationDefinition("SizeMax").getName());
+		assertNull(KeyWords.getAnnotationDefinition("Mi"));
+		assertNull(KeyWords.getAnnotationDefinition("SizeMax%"));
+		assertNull(KeyWords.getAnnotationDefinition(""));
+		// one definition for each annotation keyword 
+		for ( String annotation : KeyWords.getAnnotations() ) {
+			String name = annotation.endsWith("%") || annotation.endsWith("#") ? annotation.substring(0, annotation.length()-1) : annotation ;
+			assertEquals(name, KeyWords.getAnnotationDefinition(name).getName());
+		}
+	}
+
+	@Test
+	public void testAnnotationKinds() {
+		assertEquals(AnnotationKind.ID, AnnotationKind.fromName("Id"));
+		assertEquals("SizeMax", AnnotationKind.SIZE_MAX.getAnnotationName());
+		assertNull(AnnotationKind.fromName("Pattern"));
+		assertNull(AnnotationKind.fromName(null));
+		// one kind for each annotation keyword 
+		for ( String annotation : KeyWords.getAnnotations() ) {
+			String name = annotation.endsWith("%") || annotation.endsWith("#") ? annotation.substring(0, annotation.length()-1) : annotation ;
+			assertEquals(name, AnnotationKind.fromName(name).getAnnotationName());
+		}
+		assertEquals(KeyWords.getAnnotations().size(), AnnotationKind.values().length);
+		// a distinct bit for each kind
+		int mask = 0 ;
+		for ( AnnotationKind kind : AnnotationKind.values() ) {
+			assertEquals(0, mask & kind.getMask());
+			mask |= kind.getMask();
+		}
+		assertTrue(AnnotationKind.values().length < 32);
+	}
+
+	@Test
+	public void testAnnotationParameterValidators() {
+		assertNull(KeyWords.getAnnotationDefinition("Id").getParameterValidator());
+		AnnotationParameterValidator integerValidator = KeyWords.getAnnotationDefinition("SizeMax").getParameterValidator();
+		assertSame(AnnotationParameterValidators.INTEGER, integerValidator);
+		assertEquals(Integer.valueOf(20), integerValidator.validate("20"));
+		assertNull(integerValidator.validate("2.5"));
+		assertNull(integerValidator.validate(null));
+		AnnotationParameterValidator decimalValidator = KeyWords.getAnnotationDefinition("Min").getParameterValidator();
+		assertSame(AnnotationParameterValidators.DECIMAL, decimalValidator);
+		assertEquals(new BigDecimal("0.5"), decimalValidator.validate("0.5"));
+		assertNull(decimalValidator.validate("abc"));
+	}
+}
@@ -0,0 +1,103 @@
+package org.telosys.tools.dsl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.junit.utils.TestFileProvider;
+
+public class ModelWatcherTest {
+
+	private static final String ERROR = "error" ;
+
+	private File modelFile ;
+	private File modelFolder ;
+
+	@Before
+	public void setUp() throws IOException {
+		// Copy of "FourEntities" model (Country, Employee, Gender, Person)
+		File testFolder = TestFileProvider.getTargetTmpFile("watcher");
+		if ( testFolder.exists() ) {
+			DirUtil.deleteDirectory(testFolder);
+		}
+		modelFolder = new File(testFolder, "FourEntities_model");
+		modelFolder.mkdirs();
+		File srcFolder = new File("src/test/resources/model_test/valid/FourEntities_model");
+		for ( File file : srcFolder.listFiles() ) {
+			Files.copy(file.toPath(), new File(modelFolder, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		modelFile = new File(testFolder, "FourEntities.model");
+		Files.copy(new File("src/test/resources/model_test/valid/FourEntities.model").toPath(), modelFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/*
+	 * Listener keeping the published models (or the error messages)
+	 */
+	private static class QueueListener implements ModelListener {
+		final BlockingQueue<Object> results = new LinkedBlockingQueue<Object>();
+		@Override
+		public void modelLoaded(Model model) {
+			results.add(model);
+		}
+		@Override
+		public void modelLoadingFailed(String errorMessage, Map<String, String> errors) {
+			results.add(ERROR);
+		}
+		Object next() throws InterruptedException {
+			Object result = results.poll(30, TimeUnit.SECONDS);
+			assertNotNull("no notification", result);
+			return result ;
+		}
+	}
+
+	@Test
+	public void testReloading() throws Exception {
+		QueueListener listener = new QueueListener();
+		ModelWatcher watcher = new ModelWatcher(modelFile, 100);
+		watcher.addListener(listener);
+		watcher.start();
+		try {
+			assertTrue(watcher.isStarted());
+			//--- Initial loading 
+			Model model1 = (Model) listener.next();
+			assertSame(model1, watcher.getModel());
+			assertEquals(2, model1.getEntityByClassName("Country").getAttributes().size());
+
+			//--- Entity changed => new model 
+			Files.write(new File(modelFolder, "Country.entity").toPath(), 
+					"Country {\n id : int {@Id};\n name : string;\n code : string;\n}\n".getBytes());
+			Model model2 = (Model) listener.next();
+			assertEquals(3, model2.getEntityByClassName("Country").getAttributes().size());
+			// the previous model is unchanged
+			assertEquals(2, model1.getEntityByClassName("Country").getAttributes().size());
+
+			//--- Invalid entity => error, the last valid model is kept
+			Files.write(new File(modelFolder, "Gender.entity").toPath(), "Gender { id : foo ; }".getBytes());
+			assertEquals(ERROR, listener.next());
+			assertSame(model2, watcher.getModel());
+
+			//--- Other files are ignored
+			Files.write(new File(modelFolder, "readme.txt").toPath(), "not an entity".getBytes());
+			Thread.sleep(500);
+			assertTrue(listener.results.isEmpty());
+		} finally {
+			watcher.stop();
+		}
+		assertFalse(watcher.isStarted());
+	}
+}
@@ -4,9 +4,17 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 import org.telosys.tools.dsl.AnnotationName;
@@ -473,6 +481,7 @@ public class ConverterTest {
 		Link driver = carEntity.getLinks().get(0);
 		assertEquals(Cardinality.MANY_TO_ONE, driver.getCardinality() );
 		assertEquals("Driver", driver.getTargetEntityClassName());
+		assertEquals("Car.driver", driver.getId());
 		
 	}
 	
@@ -494,6 +503,7 @@ public class ConverterTest {
 		Link car = driverEntity.getLinks().get(0);
 		assertEquals(Cardinality.MANY_TO_ONE, car.getCardinality() );
 		assertEquals("Car", car.getTargetEntityClassName());
+		assertEquals("Driver.car", car.getId());
 	}
 	
 	/**
@@ -538,8 +548,248 @@ public class ConverterTest {
 		Link drivers = groupEntity.getLinks().get(0);
 		assertEquals(Cardinality.ONE_TO_MANY, drivers.getCardinality() );
 		assertEquals("Driver", drivers.getTargetEntityClassName());
+		assertEquals("Group.drivers", drivers.getId());
 	}
 	
+	@Test
+	public void testEmbeddedLink() {
+		DomainModel domainModel = new DomainModel("domainModel");
+		DomainEntity address = new DomainEntity("Address");
+		DomainEntityField addressId = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+		addressId.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.ID));
+		address.addField(addressId);
+		DomainEntity person = new DomainEntity("Person");
+		DomainEntityField personId = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+		personId.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.ID));
+		person.addField(personId);
+		DomainEntityField home = new DomainEntityField("home", address);
+		home.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.EMBEDDED));
+		person.addField(home);
+		person.addField(new DomainEntityField("work", address));
+		domainModel.addEntity(address);
+		domainModel.addEntity(person);
+
+		Entity personEntity = converter.convertToGenericModel(domainModel).getEntityByClassName("Person");
+		assertEquals(2, personEntity.getLinks().size());
+		assertEquals("home", personEntity.getLinks().get(0).getFieldName());
+		assertTrue(personEntity.getLinks().get(0).isEmbedded());
+		assertEquals("work", personEntity.getLinks().get(1).getFieldName());
+		assertFalse(personEntity.getLinks().get(1).isEmbedded());
+	}
+
+	@Test
+	public void testStableLinkIds() {
+		DomainModel domainModel = buildFullModel() ;
+		Model model = converter.convertToGenericModel(domainModel);
+		// same entities in the reverse order 
+		DomainModel reverseModel = new DomainModel("TestDomainModel");
+		reverseModel.addEntity(domainModel.getEntity("Group"));
+		reverseModel.addEntity(domainModel.getEntity("Driver"));
+		reverseModel.addEntity(domainModel.getEntity("Car"));
+		Model model2 = converter.convertToGenericModel(reverseModel);
+		for ( Entity entity : model.getEntities() ) {
+			Entity entity2 = model2.getEntityByClassName(entity.getClassName());
+			assertEquals(entity.getLinks().size(), entity2.getLinks().size());
+			for ( int i = 0 ; i < entity.getLinks().size() ; i++ ) {
+				assertEquals(entity.getLinks().get(i).getId(), entity2.getLinks().get(i).getId());
+			}
+		}
+	}
+	
+	@Test
+	public void testAnnotationsEffects() {
+		DomainModel domainModel = new DomainModel("domainModel");
+		DomainEntity country = new DomainEntity("Country");
+		domainModel.addEntity(country);
+		DomainEntityField code = new DomainEntityField("code", DomainNeutralTypes.getType(DomainNeutralTypes.STRING));
+		code.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.ID));
+		code.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.SIZE_MAX, Integer.valueOf(3)));
+		code.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.NOT_BLANK));
+		code.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.SQL_TYPE));
+		country.addField(code);
+		DomainEntity person = new DomainEntity("Person");
+		domainModel.addEntity(person);
+		DomainEntityField id = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+		id.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.ID));
+		id.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.AUTO_INCREMENTED));
+		id.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.UNSIGNED_TYPE));
+		person.addField(id);
+		DomainEntityField comment = new DomainEntityField("comment", DomainNeutralTypes.getType(DomainNeutralTypes.STRING));
+		comment.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.LONG_TEXT));
+		comment.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.NOT_NULL));
+		comment.addAnnotation(new DomainEntityFieldAnnotation("Unknown")); // no effect
+		person.addField(comment);
+		person.addField(new DomainEntityField("country", country));
+
+		Model model = converter.convertToGenericModel(domainModel);
+
+		Attribute codeAttribute = getAttributeByName(model.getEntityByClassName("Country"), "code");
+		assertTrue(codeAttribute.isKeyElement());
+		assertTrue(codeAttribute.isNotNull());
+		assertTrue(codeAttribute.isDatabaseNotNull());
+		assertEquals(Integer.valueOf(3), codeAttribute.getMaxLength());
+		assertEquals(Integer.valueOf(3), codeAttribute.getDatabaseSize());
+		assertTrue(codeAttribute.isNotBlank());
+		assertTrue(codeAttribute.isSqlTypeExpected());
+
+		Entity personEntity = model.getEntityByClassName("Person");
+		Attribute idAttribute = getAttributeByName(personEntity, "id");
+		assertTrue(idAttribute.isKeyElement());
+		assertTrue(idAttribute.isAutoIncremented());
+		assertTrue(idAttribute.isUnsignedTypeExpected());
+		Attribute commentAttribute = getAttributeByName(personEntity, "comment");
+		assertFalse(commentAttribute.isKeyElement());
+		assertTrue(commentAttribute.isLongText());
+		assertTrue(commentAttribute.isNotNull());
+		assertTrue(commentAttribute.isDatabaseNotNull());
+
+		// pseudo FK : only the constraints and the type information of the referenced id 
+		Attribute countryAttribute = getAttributeByName(personEntity, "country");
+		assertTrue(countryAttribute.isFKSimple());
+		assertFalse(countryAttribute.isKeyElement());
+		assertFalse(countryAttribute.isNotNull());
+		assertFalse(countryAttribute.isDatabaseNotNull());
+		assertEquals(Integer.valueOf(3), countryAttribute.getMaxLength());
+		assertNull(countryAttribute.getDatabaseSize());
+		assertTrue(countryAttribute.isNotBlank());
+		assertTrue(countryAttribute.isSqlTypeExpected());
+	}
+
+	@Test
+	public void testStarSchema() throws Exception {
+		DomainModel domainModel = new DomainModel("domainModel");
+		DomainEntity tenant = new DomainEntity("Tenant");
+		tenant.addField(new DomainEntityField("name", DomainNeutralTypes.getType(DomainNeutralTypes.STRING)));
+		DomainEntityField code = new DomainEntityField("code", DomainNeutralTypes.getType(DomainNeutralTypes.STRING));
+		code.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.ID));
+		code.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.SIZE_MAX, Integer.valueOf(8)));
+		tenant.addField(code);
+		domainModel.addEntity(tenant);
+		for ( int i = 0 ; i < 50 ; i++ ) {
+			DomainEntity entity = new DomainEntity("Entity" + i);
+			DomainEntityField id = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+			id.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.ID));
+			entity.addField(id);
+			entity.addField(new DomainEntityField("tenant", tenant));
+			domainModel.addEntity(entity);
+		}
+		// the '@Id' field is resolved once for all the references
+		// ( even if another model is built at the same time )
+		List<DomainEntityField> idFields = tenant.getIdFields();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Model model ;
+		try {
+			Future<DomainEntity> otherEntity = executor.submit(new Callable<DomainEntity>() {
+				@Override
+				public DomainEntity call() {
+					DomainEntity entity = new DomainEntity("Other");
+					for ( int i = 0 ; i < 1000 ; i++ ) {
+						DomainEntityField field = new DomainEntityField("id" + i, DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+						entity.addField(field);
+						field.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.ID));
+					}
+					return entity;
+				}
+			});
+			model = converter.convertToGenericModel(domainModel);
+			assertSame(idFields, tenant.getIdFields());
+			assertEquals(1000, otherEntity.get().getIdFields().size());
+		} finally {
+			executor.shutdown();
+		}
+		assertSame(idFields, tenant.getIdFields());
+		for ( int i = 0 ; i < 50 ; i++ ) {
+			Attribute attribute = getAttributeByName(model.getEntityByClassName("Entity" + i), "tenant");
+			assertTrue(attribute.isFKSimple());
+			assertEquals(DomainNeutralTypes.STRING, attribute.getNeutralType());
+			assertEquals(Integer.valueOf(8), attribute.getMaxLength());
+			assertEquals("Tenant", attribute.getReferencedEntityClassName());
+		}
+
+		// referenced entity without '@Id'
+		DomainEntity country = new DomainEntity("Country");
+		country.addField(new DomainEntityField("name", DomainNeutralTypes.getType(DomainNeutralTypes.STRING)));
+		domainModel.addEntity(country);
+		domainModel.getEntity("Entity0").addField(new DomainEntityField("country", country));
+		try {
+			new Converter().convertToGenericModel(domainModel);
+			fail("exception expected");
+		} catch (IllegalStateException e) {
+			assertEquals("Entity 'Country' : no @Id", e.getMessage());
+		}
+	}
+
+	private DomainModel buildLinkedModel(int entitiesCount) {
+		DomainModel domainModel = new DomainModel("domainModel");
+		DomainEntity previous = null ;
+		for ( int i = 0 ; i < entitiesCount ; i++ ) {
+			DomainEntity entity = new DomainEntity("Entity" + i);
+			DomainEntityField id = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+			id.addAnnotation(new DomainEntityFieldAnnotation(AnnotationName.ID));
+			entity.addField(id);
+			if ( previous != null ) {
+				entity.addField(new DomainEntityField("previous", previous));
+				previous.addField(new DomainEntityField("nexts", entity, -1));
+			}
+			entity.addField(new DomainEntityField("name", DomainNeutralTypes.getType(DomainNeutralTypes.STRING)));
+			domainModel.addEntity(entity);
+			previous = entity ;
+		}
+		return domainModel ;
+	}
+
+	@Test
+	public void testParallelConversion() {
+		DomainModel domainModel = buildLinkedModel(200);
+		Model sequentialModel = new Converter().convertToGenericModel(domainModel);
+		ForkJoinPool executor = new ForkJoinPool(4);
+		try {
+			for ( int n = 0 ; n < 3 ; n++ ) {
+				Model parallelModel = new Converter(executor).convertToGenericModel(domainModel);
+				assertEquals(sequentialModel.getEntities().size(), parallelModel.getEntities().size());
+				for ( int i = 0 ; i < sequentialModel.getEntities().size() ; i++ ) {
+					Entity entity = sequentialModel.getEntities().get(i);
+					Entity parallelEntity = parallelModel.getEntities().get(i);
+					assertEquals(entity.getClassName(), parallelEntity.getClassName());
+					// same attributes in the same order
+					assertEquals(entity.getAttributes().size(), parallelEntity.getAttributes().size());
+					for ( int a = 0 ; a < entity.getAttributes().size() ; a++ ) {
+						Attribute attribute = entity.getAttributes().get(a);
+						Attribute parallelAttribute = parallelEntity.getAttributes().get(a);
+						assertEquals(attribute.getName(), parallelAttribute.getName());
+						assertEquals(attribute.getNeutralType(), parallelAttribute.getNeutralType());
+						assertEquals(attribute.isFKSimple(), parallelAttribute.isFKSimple());
+					}
+					// same links with the same ids 
+					if ( ! "Entity0".equals(entity.getClassName()) ) {
+						assertEquals(entity.getClassName() + ".previous", entity.getLinks().get(0).getId());
+					}
+					assertEquals(entity.getLinks().size(), parallelEntity.getLinks().size());
+					for ( int l = 0 ; l < entity.getLinks().size() ; l++ ) {
+						Link link = entity.getLinks().get(l);
+						Link parallelLink = parallelEntity.getLinks().get(l);
+						assertEquals(link.getId(), parallelLink.getId());
+						assertEquals(link.getTargetEntityClassName(), parallelLink.getTargetEntityClassName());
+						assertEquals(link.getCardinality(), parallelLink.getCardinality());
+					}
+				}
+			}
+			// referenced entity without '@Id' : same error as the sequential conversion
+			DomainEntity country = new DomainEntity("Country");
+			country.addField(new DomainEntityField("name", DomainNeutralTypes.getType(DomainNeutralTypes.STRING)));
+			domainModel.addEntity(country);
+			domainModel.getEntity("Entity10").addField(new DomainEntityField("country", country));
+			try {
+				new Converter(executor).convertToGenericModel(domainModel);
+				fail("exception expected");
+			} catch (IllegalStateException e) {
+				assertEquals("Entity 'Country' : no @Id", e.getMessage());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	private Attribute getAttributeByName(Entity entity, String name) {
 		for(Attribute attribute : entity.getAttributes()) {
 			if(name.equals(attribute.getName())) {
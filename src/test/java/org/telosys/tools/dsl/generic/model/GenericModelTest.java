@@ -0,0 +1,222 @@
+package org.telosys.tools.dsl.generic.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.junit.Test;
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+
+public class GenericModelTest {
+
+	private GenericEntity buildEntity(String className) {
+		GenericEntity entity = new GenericEntity();
+		entity.setClassName(className);
+		entity.setDatabaseTable(className.toUpperCase());
+		return entity;
+	}
+
+	private GenericAttribute buildAttribute(String name) {
+		GenericAttribute attribute = new GenericAttribute();
+		attribute.setName(name);
+		return attribute;
+	}
+
+	@Test
+	public void testEntityLookup() {
+		GenericModel model = new GenericModel();
+		for ( int i = 0 ; i < 1000 ; i++ ) {
+			model.getEntities().add(buildEntity("Entity" + i));
+		}
+		assertEquals("Entity500", model.getEntityByClassName("Entity500").getClassName());
+		assertEquals("Entity999", model.getEntityByTableName("ENTITY999").getClassName());
+		assertNull(model.getEntityByClassName("ENTITY999"));
+		assertNull(model.getEntityByTableName("Entity999"));
+		assertNull(model.getEntityByClassName("Foo"));
+
+		// index updated after structural changes
+		GenericEntity foo = buildEntity("Foo");
+		model.getEntities().add(foo);
+		assertSame(foo, model.getEntityByClassName("Foo"));
+		model.getEntities().remove(0);
+		assertNull(model.getEntityByClassName("Entity0"));
+		assertEquals("Entity1", model.getEntityByClassName("Entity1").getClassName());
+		model.getEntities().set(0, buildEntity("Bar"));
+		assertNull(model.getEntityByClassName("Entity1"));
+		assertEquals("Bar", model.getEntityByTableName("BAR").getClassName());
+		model.sortEntitiesByClassName();
+		assertSame(foo, model.getEntityByClassName("Foo"));
+		model.getEntities().clear();
+		assertNull(model.getEntityByClassName("Foo"));
+	}
+
+	@Test
+	public void testEntityRenamedAfterInsertion() {
+		GenericModel model = new GenericModel();
+		GenericEntity entity = buildEntity("Foo");
+		model.getEntities().add(entity);
+		model.getEntities().add(buildEntity("Bar"));
+		assertSame(entity, model.getEntityByClassName("Foo"));
+		entity.setClassName("Foo2");
+		assertNull(model.getEntityByClassName("Foo"));
+		assertSame(entity, model.getEntityByClassName("Foo2"));
+	}
+
+	@Test
+	public void testNewKeySearchedFirst() {
+		GenericModel model = new GenericModel();
+		GenericEntity entity = buildEntity("Foo");
+		model.getEntities().add(entity);
+		model.getEntities().add(buildEntity("Bar"));
+		assertSame(entity, model.getEntityByClassName("Foo")); // index built
+		// new key searched before the old one 
+		entity.setClassName("Foo2");
+		entity.setDatabaseTable("FOO2");
+		assertSame(entity, model.getEntityByClassName("Foo2"));
+		assertSame(entity, model.getEntityByTableName("FOO2"));
+		assertNull(model.getEntityByClassName("Foo"));
+
+		GenericAttribute attribute = buildAttribute("code");
+		entity.getAttributes().add(attribute);
+		entity.getAttributes().add(buildAttribute("name"));
+		assertSame(attribute, entity.getAttributeByName("code")); // index built
+		attribute.setName("codeId");
+		assertSame(attribute, entity.getAttributeByName("codeId"));
+		GenericAttribute newAttribute = buildAttribute("codeId");
+		assertSame(attribute, entity.replaceAttribute("codeId", newAttribute));
+		assertSame(newAttribute, entity.getAttributes().get(0));
+	}
+
+	@Test
+	public void testDuplicatedClassName() {
+		GenericModel model = new GenericModel();
+		GenericEntity first = buildEntity("Foo");
+		model.getEntities().add(first);
+		model.getEntities().add(buildEntity("Foo"));
+		assertSame(first, model.getEntityByClassName("Foo"));
+	}
+
+	@Test
+	public void testAttributeLookupAndReplace() {
+		GenericEntity entity = buildEntity("Car");
+		for ( int i = 0 ; i < 100 ; i++ ) {
+			entity.getAttributes().add(buildAttribute("attr" + i));
+		}
+		assertEquals("attr42", entity.getAttributeByName("attr42").getName());
+		assertNull(entity.getAttributeByName("foo"));
+
+		GenericAttribute attr42 = (GenericAttribute) entity.getAttributeByName("attr42");
+		GenericAttribute newAttr42 = buildAttribute("attr42");
+		assertSame(attr42, entity.replaceAttribute("attr42", newAttr42));
+		assertSame(newAttr42, entity.getAttributeByName("attr42"));
+		assertSame(newAttr42, entity.getAttributes().get(42));
+
+		GenericAttribute renamed = buildAttribute("attr42Id");
+		entity.replaceAttribute("attr42", renamed);
+		assertNull(entity.getAttributeByName("attr42"));
+		assertSame(renamed, entity.getAttributeByName("attr42Id"));
+		assertNull(entity.replaceAttribute("attr42", buildAttribute("x")));
+		assertEquals(100, entity.getAttributes().size());
+	}
+
+	@Test
+	public void testAttributesListSetFromOutside() {
+		GenericEntity entity = buildEntity("Car");
+		List<Attribute> attributes = new ArrayList<Attribute>();
+		entity.setAttributes(attributes);
+		attributes.add(buildAttribute("id"));
+		assertEquals("id", entity.getAttributeByName("id").getName());
+		GenericAttribute newId = buildAttribute("id");
+		entity.replaceAttribute("id", newId);
+		assertSame(newId, attributes.get(0));
+	}
+
+	@Test
+	public void testSetThroughViews() {
+		GenericModel model = new GenericModel();
+		for ( int i = 0 ; i < 10 ; i++ ) {
+			model.getEntities().add(buildEntity("Entity" + i));
+		}
+		assertEquals("Entity5", model.getEntityByClassName("Entity5").getClassName()); // index built
+		// sub-list
+		GenericEntity foo = buildEntity("Foo");
+		model.getEntities().subList(2, 8).set(3, foo);
+		assertSame(foo, model.getEntities().get(5));
+		assertSame(foo, model.getEntityByClassName("Foo"));
+		assertNull(model.getEntityByClassName("Entity5"));
+		// sub-list of a sub-list, through its iterator
+		GenericEntity bar = buildEntity("Bar");
+		ListIterator<Entity> subIterator = model.getEntities().subList(2, 8).subList(1, 3).listIterator();
+		subIterator.next();
+		subIterator.set(bar);
+		assertSame(bar, model.getEntityByTableName("BAR"));
+		assertNull(model.getEntityByTableName("ENTITY3"));
+		// list iterator
+		GenericEntity baz = buildEntity("Baz");
+		ListIterator<Entity> iterator = model.getEntities().listIterator();
+		iterator.next();
+		iterator.set(baz);
+		assertSame(baz, model.getEntityByClassName("Baz"));
+		assertNull(model.getEntityByClassName("Entity0"));
+		// structural changes through a sub-list
+		model.getEntities().subList(0, 2).clear();
+		assertNull(model.getEntityByClassName("Baz"));
+		assertEquals(8, model.getEntities().size());
+		assertSame(foo, model.getEntityByClassName("Foo"));
+	}
+
+	@Test
+	public void testMissingKeyWithoutSearch() {
+		// elements notifying their key changes : the index is trusted
+		CountingList watchedList = new CountingList(true);
+		// elements not notifying their key changes : linear search for a missing key 
+		CountingList list = new CountingList(false);
+		for ( int i = 0 ; i < 100 ; i++ ) {
+			watchedList.add(new StringBuilder("k" + i));
+			list.add(new StringBuilder("k" + i));
+		}
+		assertEquals("k50", watchedList.findFirst(0, "k50").toString());
+		assertEquals("k50", list.findFirst(0, "k50").toString());
+		watchedList.keysRead = 0 ;
+		list.keysRead = 0 ;
+		assertNull(watchedList.findFirst(0, "foo"));
+		assertNull(list.findFirst(0, "foo"));
+		assertEquals(0, watchedList.keysRead);
+		assertEquals(100, list.keysRead);
+		// key change notified 
+		watchedList.get(10).append("x");
+		assertNotNull(watchedList.keyChanges); // registered in the elements
+		KeyChanges.notifyChange(new KeyChanges[] { watchedList.keyChanges });
+		assertEquals("k10x", watchedList.findFirst(0, "k10x").toString());
+	}
+
+	/**
+	 * List of StringBuilder ( key : the current text ) counting the keys read
+	 */
+	private static class CountingList extends KeyIndexedList<StringBuilder> {
+		private static final long serialVersionUID = 1L;
+		private final boolean watched ;
+		int keysRead = 0 ;
+		KeyChanges keyChanges = null ;
+		CountingList(boolean watched) {
+			super(1);
+			this.watched = watched ;
+		}
+		@Override
+		protected String getKey(StringBuilder element, int keyNumber) {
+			keysRead++ ;
+			return element.toString();
+		}
+		@Override
+		protected boolean watchKeys(StringBuilder element, KeyChanges changes) {
+			keyChanges = changes ;
+			return watched ;
+		}
+	}
+}
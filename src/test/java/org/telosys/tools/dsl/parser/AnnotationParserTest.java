@@ -34,23 +34,40 @@ public class AnnotationParserTest {
 	private String getAnnotationName(String s) throws Exception {
         AnnotationParser annotationParser = new AnnotationParser();
         System.out.println("getAnnotationName('" + s + "')");
-        return annotationParser.getAnnotationName(s) ;
+        DiagnosticCollector diagnostics = new DiagnosticCollector(ENTITY_NAME, null);
+        String r = annotationParser.getAnnotationName(s, diagnostics, -1, ENTITY_NAME, FIELD_NAME) ;
+        checkNoError(diagnostics);
+        return r ;
 	}
 	private String getParameterValue(String s, char c1, char c2) throws Exception {
         AnnotationParser annotationParser = new AnnotationParser();
         System.out.println("getParameterValue('" + s + "')");
-        return annotationParser.getParameterValue(s, c1, c2 ) ;
+        DiagnosticCollector diagnostics = new DiagnosticCollector(ENTITY_NAME, null);
+        String r = annotationParser.getParameterValue(s, c1, c2, diagnostics, -1, ENTITY_NAME, FIELD_NAME) ;
+        checkNoError(diagnostics);
+        return r ;
+	}
+	private void checkNoError(DiagnosticCollector diagnostics) throws Exception {
+		if ( diagnostics.hasErrors() ) {
+			throw new Exception(diagnostics.getFirstError().getMessage());
+		}
 	}
 	private Number getParameterValueAsInteger(String value) throws Exception {
         AnnotationParser annotationParser = new AnnotationParser();
         System.out.println("getParameterValueAsInteger('" + value + "')");
         Number r = annotationParser.getParameterValueAsInteger(value) ;
+        if ( r == null ) {
+        	throw new Exception("Invalid integer parameter '" + value + "'");
+        }
         return r ;
 	}
 	private Number getParameterValueAsBigDecimal(String value) throws Exception {
         AnnotationParser annotationParser = new AnnotationParser();
         System.out.println("getParameterValueAsBigDecimal('" + value + "')");
         Number r = annotationParser.getParameterValueAsBigDecimal(value) ;
+        if ( r == null ) {
+        	throw new Exception("Invalid decimal parameter '" + value + "'");
+        }
         return r ;
 	}
 	private List<DomainEntityFieldAnnotation> parseAnnotations(String annotationsString) {
@@ -261,6 +278,21 @@ public class AnnotationParserTest {
         parseAnnotations("@BadAnnotation");
     }
 
+    @Test(expected = EntityParserException.class)
+    public void testParseAnnotationNamePrefix() {
+        parseAnnotations("@Mi(3)"); // not "Min"
+    }
+
+    @Test(expected = EntityParserException.class)
+    public void testParseAnnotationNamePrefix2() {
+        parseAnnotations("@Size(3)"); // not "SizeMin" or "SizeMax"
+    }
+
+    @Test(expected = EntityParserException.class)
+    public void testParseAnnotationWithoutName() {
+        parseAnnotations("@");
+    }
+
     @Test(expected = EntityParserException.class)
     public void testParseInvalidAnnotation() {
         parseAnnotations("Abcde");
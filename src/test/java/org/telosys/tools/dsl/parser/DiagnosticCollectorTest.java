@@ -0,0 +1,76 @@
+package org.telosys.tools.dsl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.telosys.tools.dsl.EntityParserException;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+
+public class DiagnosticCollectorTest {
+
+	@Test
+	public void testLineAndColumn() {
+		String source = "aa\nbbb\r\ncc\rdd" ;
+		DiagnosticCollector diagnostics = new DiagnosticCollector("Foo.entity", source);
+		assertFalse(diagnostics.hasErrors());
+		assertNull(diagnostics.getFirstError());
+		diagnostics.report(DiagnosticCode.FIELD_SYNTAX, 0, "m1");
+		diagnostics.report(DiagnosticCode.FIELD_SYNTAX, source.indexOf("bbb") + 1, "m2");
+		diagnostics.report(DiagnosticCode.FIELD_SYNTAX, source.indexOf("cc"), "m3");
+		diagnostics.report(DiagnosticCode.FIELD_SYNTAX, source.indexOf("dd") + 1, "m4");
+		diagnostics.report(DiagnosticCode.FIELD_SYNTAX, -1, "m5");
+		assertTrue(diagnostics.hasErrors());
+		assertEquals(5, diagnostics.getErrorsCount());
+		checkPosition(diagnostics.getDiagnostics().get(0), 1, 1);
+		checkPosition(diagnostics.getDiagnostics().get(1), 2, 2);
+		checkPosition(diagnostics.getDiagnostics().get(2), 3, 1);
+		checkPosition(diagnostics.getDiagnostics().get(3), 4, 2);
+		checkPosition(diagnostics.getDiagnostics().get(4), 0, 0);
+		assertEquals("Foo.entity:2:2 FIELD_SYNTAX m2", diagnostics.getDiagnostics().get(1).toString());
+	}
+
+	private void checkPosition(Diagnostic diagnostic, int line, int column) {
+		assertEquals(line, diagnostic.getLine());
+		assertEquals(column, diagnostic.getColumn());
+	}
+
+	@Test
+	public void testThrowIfErrors() {
+		DiagnosticCollector diagnostics = new DiagnosticCollector("Foo.entity", null);
+		diagnostics.throwIfErrors(); // no error => no exception
+		diagnostics.report(DiagnosticCode.ENTITY_NAME, 10, "first");
+		diagnostics.report(DiagnosticCode.FIELD_TYPE, 20, "second");
+		try {
+			diagnostics.throwIfErrors();
+			fail("exception expected");
+		} catch (EntityParserException e) {
+			assertEquals("first", e.getMessage());
+			assertEquals(2, e.getDiagnostics().size());
+			assertEquals(DiagnosticCode.FIELD_TYPE, e.getDiagnostics().get(1).getCode());
+			// no stack trace for the parsing errors
+			assertEquals(0, e.getStackTrace().length);
+		}
+	}
+
+	@Test
+	public void testEntityParserDiagnostics() {
+		String content = "Car {\n  id : int {@Id};\n  name : foo ;\n}\n" ;
+		DiagnosticCollector diagnostics = new DiagnosticCollector("Car.entity", content);
+		EntityParser parser = new EntityParser(new DomainModel("model"));
+		assertNull(parser.parseContent(content, "Car", diagnostics));
+		assertEquals(1, diagnostics.getErrorsCount());
+		Diagnostic diagnostic = diagnostics.getFirstError();
+		assertEquals(DiagnosticCode.FIELD_TYPE, diagnostic.getCode());
+		checkPosition(diagnostic, 3, 3);
+	}
+
+	@Test
+	public void testLegacyException() {
+		EntityParserException e = new EntityParserException("error");
+		assertTrue(e.getDiagnostics().isEmpty());
+	}
+}
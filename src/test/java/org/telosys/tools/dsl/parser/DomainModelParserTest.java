@@ -1,10 +1,19 @@
 package org.telosys.tools.dsl.parser;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
+import org.telosys.tools.dsl.EntityParserException;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
 import org.telosys.tools.dsl.parser.model.DomainModel;
 import org.telosys.tools.junit.utils.TestFileProvider;
 
@@ -79,4 +88,103 @@ public class DomainModelParserTest {
 //		assertEquals( "toto", model.getName() ) ;
 //	}
 
+	@Test
+	public void testParallelParsing() {
+		File file = new File("src/test/resources/model_test/valid/FourEntities.model");
+		DomainModel sequentialModel = new DomainModelParser().parse(file);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			DomainModelParser parser = new DomainModelParser(executor);
+			DomainModel parallelModel = parser.parse(file);
+			assertEquals(0, parser.getErrors().size());
+			assertEquals(sequentialModel.getNumberOfEntities(), parallelModel.getNumberOfEntities());
+			for ( DomainEntity entity : sequentialModel.getEntities() ) {
+				DomainEntity parallelEntity = parallelModel.getEntity(entity.getName());
+				assertNotNull(parallelEntity);
+				assertEquals(entity.toString(), parallelEntity.toString());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelParsingWithErrors() {
+		File file = new File("src/test/resources/model_test/invalid/FourEntities.model");
+		ForkJoinPool executor = new ForkJoinPool(2);
+		try {
+			DomainModelParser parser = new DomainModelParser(executor);
+			DomainModel model = null ;
+			try {
+				model = parser.parse(file);
+			} catch (EntityParserException e) {
+				// expected
+			}
+			assertNull(model);
+			assertEquals(2, parser.getErrors().size() );
+			assertNotNull(parser.getErrors().get("Country.entity"));
+			assertNotNull(parser.getErrors().get("Gender.entity"));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testDiagnostics() {
+		File file = new File("src/test/resources/model_test/invalid/FourEntities.model");
+		DomainModelParser parser = new DomainModelParser();
+		try {
+			parser.parse(file);
+		} catch (EntityParserException e) {
+			// expected
+		}
+		assertEquals(2, parser.getDiagnostics().size() );
+		// entities files order 
+		Diagnostic countryError = parser.getDiagnostics().get(0);
+		assertEquals("Country.entity", countryError.getFileName());
+		assertEquals(DiagnosticCode.ENTITY_NAME, countryError.getCode());
+		assertEquals(1, countryError.getLine());
+		assertEquals(1, countryError.getColumn());
+		assertEquals(parser.getErrors().get("Country.entity"), countryError.getMessage());
+		Diagnostic genderError = parser.getDiagnostics().get(1);
+		assertEquals("Gender.entity", genderError.getFileName());
+		assertEquals(DiagnosticCode.ANNOTATION_UNKNOWN, genderError.getCode());
+		assertEquals(2, genderError.getLine());
+		assertEquals(2, genderError.getColumn());
+	}
+
+	@Test
+	public void testParseModelWithoutState() {
+		DomainModelParser parser = new DomainModelParser();
+		DomainModelParsingResult result = parser.parseModel(new File("src/test/resources/model_test/invalid/FourEntities.model"));
+		assertTrue(result.hasErrors());
+		assertNull(result.getModel());
+		assertEquals("Parsing error(s) : 2 invalid entity(ies) ", result.getErrorMessage());
+		// files order
+		assertEquals("[Country.entity, Gender.entity]", result.getErrors().keySet().toString());
+		assertEquals(2, result.getDiagnostics().size());
+		// nothing kept in the parser
+		assertEquals(0, parser.getErrors().size());
+		assertEquals(0, parser.getDiagnostics().size());
+
+		result = parser.parseModel(new File("src/test/resources/model_test/valid/FourEntities.model"));
+		assertFalse(result.hasErrors());
+		assertEquals(4, result.getModel().getNumberOfEntities());
+		assertTrue(result.getErrors().isEmpty());
+	}
+
+	@Test
+	public void testErrorsReplacedAfterEachParsing() {
+		DomainModelParser parser = new DomainModelParser();
+		try {
+			parser.parse(new File("src/test/resources/model_test/invalid/FourEntities.model"));
+		} catch (EntityParserException e) {
+			// expected
+		}
+		assertEquals(2, parser.getErrors().size());
+		parser.parse(new File("src/test/resources/model_test/valid/FourEntities.model"));
+		assertEquals(0, parser.getErrors().size());
+		assertEquals(0, parser.getDiagnostics().size());
+	}
 }
@@ -0,0 +1,58 @@
+package org.telosys.tools.dsl.parser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+import org.telosys.tools.junit.utils.TestFileProvider;
+
+public class EntityFileReaderTest {
+
+	private File writeFile(String fileName, String content) throws IOException {
+		File file = TestFileProvider.getTargetTmpFile("reader/" + fileName);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file ;
+	}
+
+	@Test
+	public void testReadSmallFiles() throws IOException {
+		EntityFileReader reader = new EntityFileReader();
+		String content1 = "Car {\n  id : int {@Id}; // Identifiant \u00e9t\u00e9 \u20ac\n}\n" ;
+		assertEquals(content1, reader.read(writeFile("Car.entity", content1)).toString());
+		// the buffers are reused for a shorter file
+		String content2 = "Foo {\r\n id : int ;\r\n}" ;
+		assertEquals(content2, reader.read(writeFile("Foo.entity", content2)).toString());
+		assertEquals("", reader.read(writeFile("Void.entity", "")).toString());
+	}
+
+	@Test
+	public void testReadMappedFile() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Big {\n");
+		for ( int i = 0 ; i < 1000 ; i++ ) {
+			sb.append("  field" + i + " : string ; // \u00e9\n");
+		}
+		sb.append("}\n");
+		String content = sb.toString();
+		// threshold 1 KB : the file is memory-mapped
+		EntityFileReader reader = new EntityFileReader(1024);
+		assertEquals(content, reader.read(writeFile("Big.entity", content)).toString());
+	}
+
+	@Test
+	public void testDecodeInvalidBytes() {
+		EntityFileReader reader = new EntityFileReader();
+		byte[] content = { 'a', (byte) 0xC3, 'b' } ; // invalid UTF-8 sequence
+		assertEquals("a\ufffdb", reader.decode(content).toString());
+	}
+
+	@Test(expected = IOException.class)
+	public void testFileNotFound() throws IOException {
+		new EntityFileReader().read(new File("inexistent/Foo.entity"));
+	}
+}
@@ -0,0 +1,154 @@
+package org.telosys.tools.dsl.parser;
+
+import java.nio.CharBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.telosys.tools.dsl.IdentifierRules;
+import org.telosys.tools.dsl.parser.model.SourceSpan;
+
+public class EntityLexerTest {
+
+    @Test
+    public void testFlatText() {
+        String text = "Employee {\n" +
+                "\tid : int {@Id}; // the id\r\n" +
+                "  first Name : string ;  \n" +
+                "}\n";
+        EntityLexer lexer = new EntityLexer(text);
+        Assert.assertEquals("Employee {id : int {@Id};first Name : string ;}", lexer.getFlatText());
+    }
+
+    @Test
+    public void testMultiLineComments() {
+        String text = " aa \n bbb \n /* cccc \n ddd \n eee */ fff \n ggg /* x */\thhh // GGGG \n /* not closed \n iii" ;
+        EntityLexer lexer = new EntityLexer(text);
+        Assert.assertEquals("aabbbfffggg \thhh", lexer.getFlatText());
+    }
+
+    @Test
+    public void testCommentNotClosed() {
+        String text = "Car {\n  id : int ;\n  /* name : string ;\n  code : string ;\n}\n" ;
+        EntityLexer lexer = new EntityLexer(text);
+        Assert.assertEquals("Car {id : int ;", lexer.getFlatText());
+        Assert.assertEquals(text.indexOf("/*"), lexer.getUnclosedCommentOffset());
+        DiagnosticCollector diagnostics = new DiagnosticCollector("Car.entity", null);
+        lexer.reportErrors(diagnostics, "Car");
+        Assert.assertEquals(1, diagnostics.getErrorsCount());
+        Diagnostic diagnostic = diagnostics.getFirstError();
+        Assert.assertEquals(DiagnosticCode.COMMENT_NOT_CLOSED, diagnostic.getCode());
+        Assert.assertEquals(3, diagnostic.getLine());
+        Assert.assertEquals(3, diagnostic.getColumn());
+        // closed comments : no error
+        lexer = new EntityLexer("Car { /* a */ id : int ; } /* b */");
+        Assert.assertEquals(-1, lexer.getUnclosedCommentOffset());
+        diagnostics = new DiagnosticCollector("Car.entity", null);
+        lexer.reportErrors(diagnostics, "Car");
+        Assert.assertFalse(diagnostics.hasErrors());
+    }
+
+    @Test
+    public void testIdentifiers() {
+        EntityLexer lexer = new EntityLexer("Car { first_Name2 : string ; na-me : int ; \u00e9t\u00e9 : date ; car } 1Foo");
+        Assert.assertTrue(lexer.isIdentifier(0));
+        Assert.assertTrue(lexer.isEntityName(0));
+        Assert.assertFalse(lexer.isIdentifier(1)); // symbol
+        Assert.assertTrue(lexer.isIdentifier(2));
+        Assert.assertFalse(lexer.isEntityName(2)); // lower case
+        Assert.assertFalse(lexer.isIdentifier(6)); // '-'
+        Assert.assertFalse(lexer.isIdentifier(10)); // not ASCII 
+        Assert.assertTrue(lexer.isIdentifier(14));
+        Assert.assertFalse(lexer.isEntityName(14));
+        Assert.assertTrue(lexer.isIdentifier(16));
+        Assert.assertFalse(lexer.isEntityName(16)); // digit first
+        // same result as the rules applied to the token text
+        for ( int i = 0 ; i < lexer.getTokensCount() ; i++ ) {
+            if ( lexer.getKind(i) == EntityLexer.WORD ) {
+                Assert.assertEquals(IdentifierRules.isValidFieldName(lexer.getText(i)), lexer.isIdentifier(i));
+                Assert.assertEquals(IdentifierRules.isValidEntityName(lexer.getText(i)), lexer.isEntityName(i));
+            }
+        }
+    }
+
+    @Test
+    public void testSingleLineComments() {
+        String text = " aa // bbb /* ccc */ \n // ddd \n eee//" ;
+        EntityLexer lexer = new EntityLexer(text);
+        Assert.assertEquals("aaeee", lexer.getFlatText());
+    }
+
+    @Test
+    public void testVoidText() {
+        EntityLexer lexer = new EntityLexer(" \n // comment \n /* comment */ \r\n ");
+        Assert.assertEquals("", lexer.getFlatText());
+        Assert.assertEquals(0, lexer.getTokensCount());
+        Assert.assertEquals(-1, lexer.indexOf('{'));
+    }
+
+    @Test
+    public void testTokens() {
+        String text = "Car {\n  id : int { @Id, @Max(12) } ; // id \n  driver:Driver[] ;\n}" ;
+        EntityLexer lexer = new EntityLexer(CharBuffer.wrap(text.toCharArray()));
+        String[] expected = { "Car", "{", "id", ":", "int", "{", "@", "Id", ",", "@", "Max", "(", "12", ")", "}", ";",
+                "driver", ":", "Driver", "[", "]", ";", "}" };
+        Assert.assertEquals(expected.length, lexer.getTokensCount());
+        for ( int i = 0 ; i < expected.length ; i++ ) {
+            Assert.assertEquals(expected[i], lexer.getText(i));
+            // the source offset refers to the same text in the original content
+            Assert.assertEquals(expected[i], text.substring(lexer.getSourceOffset(i), lexer.getSourceOffset(i) + expected[i].length()));
+        }
+        Assert.assertEquals(EntityLexer.WORD, lexer.getKind(0));
+        Assert.assertTrue(lexer.isSymbol(1, '{'));
+        Assert.assertEquals(1, lexer.indexOf('{'));
+        Assert.assertEquals(22, lexer.lastIndexOf('}'));
+        Assert.assertEquals("id : int { @Id, @Max(12) }", lexer.getText(2, 14));
+        Assert.assertEquals("", lexer.getText(3, 2));
+    }
+
+    @Test
+    public void testTokensSeparatedByComment() {
+        EntityLexer lexer = new EntityLexer("aa/* x */bb");
+        Assert.assertEquals("aabb", lexer.getFlatText());
+        Assert.assertEquals(2, lexer.getTokensCount());
+        Assert.assertEquals("aa", lexer.getText(0));
+        Assert.assertEquals("bb", lexer.getText(1));
+        Assert.assertEquals(9, lexer.getSourceOffset(1));
+    }
+
+    @Test
+    public void testManyTokens() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Big {\n");
+        for ( int i = 0 ; i < 1000 ; i++ ) {
+            sb.append("  field" + i + " : string ; \n");
+        }
+        sb.append("}\n");
+        EntityLexer lexer = new EntityLexer(sb);
+        Assert.assertEquals(3 + 4 * 1000, lexer.getTokensCount());
+        Assert.assertEquals("field999", lexer.getText(lexer.getTokensCount() - 5));
+    }
+
+    @Test
+    public void testSourceLines() {
+        String text = "Car { // comment \r\n  id : int ; /* multi \n line \r comment */\n  name : string ;\n}" ;
+        EntityLexer lexer = new EntityLexer(text);
+        SourceLines lines = lexer.getSourceLines();
+        Assert.assertEquals(6, lines.getLinesCount());
+        // same table as a direct build
+        Assert.assertEquals(SourceLines.build(text).getLinesCount(), lines.getLinesCount());
+        int name = text.indexOf("name");
+        Assert.assertEquals(5, lines.getLine(name));
+        Assert.assertEquals(3, lines.getColumn(name));
+        Assert.assertEquals(1, lines.getLine(0));
+        Assert.assertEquals(6, lines.getLine(text.length()));
+        Assert.assertEquals(0, lines.getLine(-1));
+        // span of the tokens "name : string"
+        int token = 6 ;
+        Assert.assertEquals("name", lexer.getText(token));
+        SourceSpan span = lexer.getSourceSpan(token, token + 2);
+        Assert.assertEquals(name, span.getStartOffset());
+        Assert.assertEquals("name : string", text.substring(span.getStartOffset(), span.getEndOffset()));
+        Assert.assertEquals(5, span.getLine());
+        Assert.assertEquals(3, span.getColumn());
+    }
+}
@@ -2,10 +2,14 @@ package org.telosys.tools.dsl.parser;
 
 import java.io.File;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.telosys.tools.dsl.EntityParserException;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
+import org.telosys.tools.dsl.parser.model.DomainEntityField;
 import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.dsl.parser.model.SourceSpan;
 
 public class EntityParserTest {
 	@Before
@@ -116,4 +120,97 @@ public class EntityParserTest {
         EntityParser parser = new EntityParser(new DomainModel("model"));
         parser.parseFlattenContent(testMissingLastBracket, "entity");
     }
+
+    @Test
+    public void testRecoveryMode() {
+        String content = "Car {\n"
+        		+ "  id : int {@Id} ;\n"
+        		+ "  name : foo ;\n"          // invalid type
+        		+ "  code : string {@Max} ;\n" // invalid annotation
+        		+ "  color : string ;\n"
+        		+ "  id : int ;\n"              // duplicated field
+        		+ "  id2 : int {@Id} ;\n"       // second id
+        		+ "  size : int\n"              // no ';'
+        		+ "}\n" ;
+        EntityParser parser = new EntityParser(new DomainModel("model"), true);
+        Assert.assertTrue(parser.isRecoveryMode());
+        DiagnosticCollector diagnostics = new DiagnosticCollector("Car.entity", content);
+        DomainEntity entity = parser.parseContent(content, "Car", diagnostics);
+        // partial entity with the valid fields 
+        Assert.assertNotNull(entity);
+        Assert.assertEquals(4, entity.getNumberOfFields());
+        Assert.assertNotNull(entity.getField("color"));
+        Assert.assertNotNull(entity.getField("size"));
+        Assert.assertNull(entity.getField("name"));
+        // all the errors in the file order (except the id errors detected at the end) 
+        Assert.assertEquals(5, diagnostics.getErrorsCount());
+        Assert.assertEquals(DiagnosticCode.ENTITY_STRUCTURE, diagnostics.getDiagnostics().get(0).getCode());
+        Assert.assertEquals(DiagnosticCode.FIELD_TYPE,       diagnostics.getDiagnostics().get(1).getCode());
+        Assert.assertEquals(3, diagnostics.getDiagnostics().get(1).getLine());
+        Assert.assertEquals(DiagnosticCode.ANNOTATION_PARAMETER, diagnostics.getDiagnostics().get(2).getCode());
+        Assert.assertEquals(4, diagnostics.getDiagnostics().get(2).getLine());
+        Assert.assertEquals(DiagnosticCode.FIELD_DUPLICATED, diagnostics.getDiagnostics().get(3).getCode());
+        Assert.assertEquals(6, diagnostics.getDiagnostics().get(3).getLine());
+        Assert.assertEquals(DiagnosticCode.ENTITY_ID,        diagnostics.getDiagnostics().get(4).getCode());
+        Assert.assertEquals(7, diagnostics.getDiagnostics().get(4).getLine());
+    }
+
+    @Test
+    public void testRecoveryModeWithBoundaryException() {
+        EntityParser parser = new EntityParser(new DomainModel("model"), true);
+        try {
+            parser.parseFlattenContent("entity{id:foo;name:bar;}", "Entity");
+            Assert.fail("exception expected");
+        } catch (EntityParserException e) {
+            // all the errors in a single exception
+            Assert.assertEquals(3, e.getDiagnostics().size());
+        }
+    }
+
+    @Test
+    public void testSourceSpans() {
+        String content = "/* Car */\nCar {\n  id : int {@Id} ;\n  code : string { @NotNull, @SizeMax(3) } ;\n}\n" ;
+        EntityParser parser = new EntityParser(new DomainModel("model"));
+        DomainEntity entity = parser.parseContent(content, "Car");
+        SourceSpan entitySpan = entity.getSourceSpan();
+        Assert.assertEquals(2, entitySpan.getLine());
+        Assert.assertEquals(content.indexOf("Car {"), entitySpan.getStartOffset());
+        Assert.assertEquals(content.lastIndexOf('}') + 1, entitySpan.getEndOffset());
+        DomainEntityField field = entity.getField("code");
+        Assert.assertEquals("code : string { @NotNull, @SizeMax(3) }", 
+        		content.substring(field.getSourceSpan().getStartOffset(), field.getSourceSpan().getEndOffset()));
+        Assert.assertEquals(4, field.getSourceSpan().getLine());
+        Assert.assertEquals(3, field.getSourceSpan().getColumn());
+        SourceSpan annotationSpan = field.getAnnotations().get("SizeMax").getSourceSpan();
+        Assert.assertEquals("@SizeMax(3)", content.substring(annotationSpan.getStartOffset(), annotationSpan.getEndOffset()));
+        Assert.assertEquals(content.indexOf("@SizeMax") - content.indexOf("  code") + 1, annotationSpan.getColumn());
+    }
+
+    @Test
+    public void testErrorPosition() {
+        String content = "Car {\n  id : int {@Id} ;\n  code : string { @Foo } ;\n}\n" ;
+        EntityParser parser = new EntityParser(new DomainModel("model"));
+        try {
+            parser.parseContent(content, "Car");
+            Assert.fail("exception expected");
+        } catch (EntityParserException e) {
+            Assert.assertEquals(3, e.getLine());
+            Assert.assertEquals(3, e.getColumn());
+        }
+    }
+
+    @Test
+    public void testCommentNotClosed() {
+        // valid entity followed by a comment not closed
+        String content = "Car {\n  id : int {@Id} ;\n}\n/* name : string ;\n" ;
+        EntityParser parser = new EntityParser(new DomainModel("model"));
+        try {
+            parser.parseContent(content, "Car");
+            Assert.fail("exception expected");
+        } catch (EntityParserException e) {
+            Assert.assertEquals(DiagnosticCode.COMMENT_NOT_CLOSED, e.getDiagnostics().get(0).getCode());
+            Assert.assertEquals(4, e.getLine());
+            Assert.assertEquals(1, e.getColumn());
+        }
+    }
 }
@@ -0,0 +1,164 @@
+package org.telosys.tools.dsl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
+import org.telosys.tools.dsl.parser.model.DomainEntityField;
+import org.telosys.tools.dsl.parser.model.DomainEntityFieldAnnotation;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.dsl.parser.model.DomainNeutralTypes;
+import org.telosys.tools.dsl.parser.utils.HashUtils;
+import org.telosys.tools.junit.utils.TestFileProvider;
+
+public class EntityParsingCacheTest {
+
+	private File testFolder ;
+	private File modelFile ;
+
+	@Before
+	public void setUp() throws IOException {
+		// Copy of "FourEntities" model (Country, Employee, Gender, Person)
+		testFolder = TestFileProvider.getTargetTmpFile("cache");
+		if ( testFolder.exists() ) {
+			DirUtil.deleteDirectory(testFolder);
+		}
+		File modelFolder = new File(testFolder, "FourEntities_model");
+		modelFolder.mkdirs();
+		File srcFolder = new File("src/test/resources/model_test/valid/FourEntities_model");
+		for ( File file : srcFolder.listFiles() ) {
+			Files.copy(file.toPath(), new File(modelFolder, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		modelFile = new File(testFolder, "FourEntities.model");
+		Files.copy(new File("src/test/resources/model_test/valid/FourEntities.model").toPath(), modelFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	@Test
+	public void testCacheFolder() {
+		EntityParsingCache cache = new EntityParsingCache();
+		assertEquals(new File(testFolder, "FourEntities_model.cache").getAbsolutePath(), cache.getCacheFolder(modelFile).getAbsolutePath());
+		File root = new File(testFolder, "root");
+		cache = new EntityParsingCache(root);
+		assertEquals(new File(root, "FourEntities"), cache.getCacheFolder(modelFile));
+	}
+
+	@Test
+	public void testParsingWithCache() {
+		DomainModel model1 = new DomainModelParser().parse(modelFile);
+
+		EntityParsingCache cache = new EntityParsingCache();
+		DomainModel model2 = new DomainModelParser(null, cache).parse(modelFile);
+		assertEquals(model1.toString(), model2.toString());
+		File cacheFolder = cache.getCacheFolder(modelFile);
+		assertEquals(4, cacheFolder.list().length);
+		assertTrue(new File(cacheFolder, "Person.bin").isFile());
+
+		// entities loaded from the cache 
+		DomainModel model3 = new DomainModelParser(null, cache).parse(modelFile);
+		assertEquals(model1.toString(), model3.toString());
+		assertEquals(model1.getEntity("Person").toString(), model3.getEntity("Person").toString());
+		assertEquals(Integer.valueOf(3), model3.getEntity("Person").getField("firstName").getAnnotations().get("SizeMax").getParameterAsInteger());
+		// source spans kept in the cache
+		DomainEntityField parsedField = model1.getEntity("Person").getField("firstName");
+		DomainEntityField cachedField = model3.getEntity("Person").getField("firstName");
+		assertEquals(model1.getEntity("Person").getSourceSpan(), model3.getEntity("Person").getSourceSpan());
+		assertEquals(parsedField.getSourceSpan(), cachedField.getSourceSpan());
+		assertEquals(parsedField.getAnnotations().get("SizeMax").getSourceSpan(), cachedField.getAnnotations().get("SizeMax").getSourceSpan());
+	}
+
+	@Test
+	public void testChangedEntityFile() throws IOException {
+		EntityParsingCache cache = new EntityParsingCache();
+		new DomainModelParser(null, cache).parse(modelFile);
+		File countryFile = new File(new File(testFolder, "FourEntities_model"), "Country.entity");
+		Files.write(countryFile.toPath(), "Country {\n id : int {@Id};\n name : string;\n code : string;\n}\n".getBytes());
+		DomainModel model = new DomainModelParser(null, cache).parse(modelFile);
+		assertEquals(3, model.getEntity("Country").getNumberOfFields());
+	}
+
+	@Test
+	public void testCorruptedEntry() throws IOException {
+		EntityParsingCache cache = new EntityParsingCache();
+		DomainModel model1 = new DomainModelParser(null, cache).parse(modelFile);
+		File entryFile = new File(cache.getCacheFolder(modelFile), "Person.bin");
+		long validLength = entryFile.length();
+		Files.write(entryFile.toPath(), "garbage".getBytes());
+
+		// corrupted entry ignored and rebuilt 
+		DomainModel model2 = new DomainModelParser(null, cache).parse(modelFile);
+		assertEquals(model1.toString(), model2.toString());
+		assertEquals(validLength, entryFile.length());
+	}
+
+	@Test
+	public void testTruncatedEntry() throws IOException {
+		EntityParsingCache cache = new EntityParsingCache();
+		DomainModel model1 = new DomainModelParser(null, cache).parse(modelFile);
+		File entryFile = new File(cache.getCacheFolder(modelFile), "Person.bin");
+		RandomAccessFile raf = new RandomAccessFile(entryFile, "rw");
+		raf.setLength(raf.length() - 3);
+		raf.close();
+		DomainModel model2 = new DomainModelParser(null, cache).parse(modelFile);
+		assertEquals(model1.toString(), model2.toString());
+	}
+
+	@Test
+	public void testStoreAndLoad() throws IOException {
+		DomainModel model = new DomainModel("test");
+		DomainEntity country = new DomainEntity("Country");
+		model.addEntity(country);
+		DomainEntity car = new DomainEntity("Car");
+		DomainEntityField id = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+		id.addAnnotation(new DomainEntityFieldAnnotation("Id"));
+		id.addAnnotation(new DomainEntityFieldAnnotation("Max", Integer.valueOf(99)));
+		car.addField(id);
+		DomainEntityField price = new DomainEntityField("price", DomainNeutralTypes.getType(DomainNeutralTypes.DECIMAL));
+		price.addAnnotation(new DomainEntityFieldAnnotation("Min", new BigDecimal("12.50")));
+		price.addAnnotation(new DomainEntityFieldAnnotation("Pattern", "[0-9]*"));
+		car.addField(price);
+		car.addField(new DomainEntityField("countries", country, -1));
+
+		byte[] hash = HashUtils.hash("Car content".getBytes());
+		EntityParsingCache cache = new EntityParsingCache(new File(testFolder, "root"));
+		cache.store(modelFile, car, hash);
+
+		DomainEntity loaded = cache.load(modelFile, "Car", hash, model);
+		assertNotNull(loaded);
+		assertEquals(car.toString(), loaded.toString());
+		assertEquals(new BigDecimal("12.50"), loaded.getField("price").getAnnotations().get("Min").getParameterAsBigDecimal());
+		assertEquals("[0-9]*", loaded.getField("price").getAnnotations().get("Pattern").getParameter());
+		assertFalse(loaded.getField("id").getAnnotations().get("Id").hasParameter());
+		assertEquals(-1, loaded.getField("countries").getCardinality());
+
+		// other content => not usable 
+		assertNull(cache.load(modelFile, "Car", HashUtils.hash("Car content v2".getBytes()), model));
+		// referenced entity not in the model => not usable 
+		assertNull(cache.load(modelFile, "Car", hash, new DomainModel("test")));
+		// unknown entity 
+		assertNull(cache.load(modelFile, "Driver", hash, model));
+
+		// other format version => not usable 
+		File entryFile = new File(cache.getCacheFolder(modelFile), "Car.bin");
+		RandomAccessFile raf = new RandomAccessFile(entryFile, "rw");
+		raf.seek(7);
+		raf.writeByte(99);
+		raf.close();
+		assertNull(cache.load(modelFile, "Car", hash, model));
+
+		cache.clear(modelFile);
+		assertEquals(0, cache.getCacheFolder(modelFile).list().length);
+	}
+}
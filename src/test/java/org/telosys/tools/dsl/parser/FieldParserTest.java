@@ -345,4 +345,28 @@ public class FieldParserTest {
     public void testInvalidField_BadSyntax04() {
         parseField("idinteger");
     }
+    //--- Fields parsed in the lexer buffer
+    @Test
+    public void testFieldsInLexerBuffer() {
+        EntityLexer lexer = new EntityLexer("id : int [ +3 ] { @Id } ; na-me : string ; code:Country[] ;");
+        FieldParser fieldParser = new FieldParser(getDomainModel("Country"));
+        DiagnosticCollector diagnostics = new DiagnosticCollector("EntityForTest.entity", null);
+        // tokens : id : int [ +3 ] { @ Id } ;
+        DomainEntityField id = fieldParser.parseField(ENTITY_NAME, lexer, 0, 9, diagnostics);
+        Assert.assertEquals("id", id.getName());
+        Assert.assertEquals("int", id.getTypeName());
+        Assert.assertEquals(3, id.getCardinality());
+        Assert.assertTrue(id.getAnnotations().containsKey("Id"));
+        // tokens : na-me : string ;
+        Assert.assertNull(fieldParser.parseField(ENTITY_NAME, lexer, 11, 13, diagnostics));
+        // the field definition is only materialized for the error message
+        Assert.assertEquals("EntityForTest : Field error 'na-me : string' (field name must not contains special char)", 
+        		diagnostics.getFirstError().getMessage());
+        // tokens : code : Country [ ] ;
+        DomainEntityField code = fieldParser.parseField(ENTITY_NAME, lexer, 15, 19, diagnostics);
+        Assert.assertEquals("code", code.getName());
+        Assert.assertEquals(-1, code.getCardinality());
+        Assert.assertTrue(code.getAnnotations().isEmpty());
+        Assert.assertEquals(1, diagnostics.getErrorsCount());
+    }
 }
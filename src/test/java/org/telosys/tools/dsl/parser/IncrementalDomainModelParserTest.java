@@ -0,0 +1,185 @@
+package org.telosys.tools.dsl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.dsl.EntityFileDescriptor;
+import org.telosys.tools.dsl.EntityParserException;
+import org.telosys.tools.dsl.parser.model.DomainEntity;
+import org.telosys.tools.dsl.parser.model.DomainModel;
+import org.telosys.tools.junit.utils.TestFileProvider;
+
+public class IncrementalDomainModelParserTest {
+
+	private File modelFile ;
+	private File modelFolder ;
+
+	@Before
+	public void setUp() throws IOException {
+		// Copy of "FourEntities" model (Country, Employee, Gender, Person)
+		File testFolder = TestFileProvider.getTargetTmpFile("incremental");
+		if ( testFolder.exists() ) {
+			DirUtil.deleteDirectory(testFolder);
+		}
+		modelFolder = new File(testFolder, "FourEntities_model");
+		modelFolder.mkdirs();
+		File srcFolder = new File("src/test/resources/model_test/valid/FourEntities_model");
+		for ( File file : srcFolder.listFiles() ) {
+			Files.copy(file.toPath(), new File(modelFolder, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		modelFile = new File(testFolder, "FourEntities.model");
+		Files.copy(new File("src/test/resources/model_test/valid/FourEntities.model").toPath(), modelFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private void writeEntity(String entityName, String content) throws IOException {
+		File file = new File(modelFolder, entityName + ".entity");
+		long previousLastModified = file.exists() ? file.lastModified() : 0 ;
+		Files.write(file.toPath(), content.getBytes());
+		// ensure a different modification time whatever the file system precision
+		file.setLastModified(Math.max(previousLastModified, System.currentTimeMillis()) + 2000);
+	}
+
+	@Test
+	public void testNoChange() {
+		IncrementalDomainModelParser parser = new IncrementalDomainModelParser();
+		DomainModel model1 = parser.parse(modelFile);
+		assertEquals(4, model1.getNumberOfEntities());
+		assertEquals(4, parser.getLastParsedEntities().size());
+
+		DomainModel model2 = parser.parse(modelFile);
+		assertEquals(4, model2.getNumberOfEntities());
+		assertEquals(0, parser.getLastParsedEntities().size());
+		assertSame(model1.getEntity("Person"), model2.getEntity("Person"));
+		assertEquals(6, model2.getEntity("Person").getNumberOfFields());
+	}
+
+	@Test
+	public void testChangedEntity() throws IOException {
+		IncrementalDomainModelParser parser = new IncrementalDomainModelParser();
+		DomainModel model1 = parser.parse(modelFile);
+		DomainEntity country = model1.getEntity("Country");
+		assertEquals(2, country.getNumberOfFields());
+
+		writeEntity("Country", "Country {\n id : int {@Id};\n name : string;\n code : string;\n}\n");
+		DomainModel model2 = parser.parse(modelFile);
+		assertEquals(1, parser.getLastParsedEntities().size());
+		assertEquals("Country", parser.getLastParsedEntities().get(0));
+		// same instance : the references in "Person" are still valid
+		assertSame(country, model2.getEntity("Country"));
+		assertSame(country, model2.getEntity("Person").getField("country").getType());
+		assertEquals(3, country.getNumberOfFields());
+	}
+
+	@Test
+	public void testSameContentNewDate() throws IOException {
+		IncrementalDomainModelParser parser = new IncrementalDomainModelParser();
+		parser.parse(modelFile);
+		File file = new File(modelFolder, "Gender.entity");
+		file.setLastModified(file.lastModified() + 5000);
+		parser.parse(modelFile);
+		// content hash unchanged => not parsed
+		assertEquals(0, parser.getLastParsedEntities().size());
+	}
+
+	@Test
+	public void testSameSizeSameDate() throws IOException {
+		IncrementalDomainModelParser parser = new IncrementalDomainModelParser();
+		writeEntity("Country", "Country {\n id : int {@Id};\n name : string;\n}\n");
+		File file = new File(modelFolder, "Country.entity");
+		long lastModified = file.lastModified();
+		DomainModel model = parser.parse(modelFile);
+		assertEquals(2, model.getEntity("Country").getNumberOfFields());
+		// same size and same date (change in the same second) 
+		Files.write(file.toPath(), "Country {\n id : int {@Id};\n nom  : string;\n}\n".getBytes());
+		file.setLastModified(lastModified);
+		model = parser.parse(modelFile);
+		assertEquals(1, parser.getLastParsedEntities().size());
+		assertNotNull(model.getEntity("Country").getField("nom"));
+	}
+
+	@Test
+	public void testRemovedAndAddedEntity() throws IOException {
+		IncrementalDomainModelParser parser = new IncrementalDomainModelParser();
+		parser.parse(modelFile);
+
+		//--- Remove "Gender" (referenced by "Person")
+		File genderFile = new File(modelFolder, "Gender.entity");
+		byte[] genderContent = Files.readAllBytes(genderFile.toPath());
+		assertTrue(genderFile.delete());
+		DomainModel model = null ;
+		try {
+			model = parser.parse(modelFile);
+		} catch (EntityParserException e) {
+			// expected
+		}
+		assertNull(model);
+		assertEquals(1, parser.getLastParsedEntities().size());
+		assertEquals("Person", parser.getLastParsedEntities().get(0));
+		assertEquals(1, parser.getErrors().size());
+		assertNotNull(parser.getErrors().get("Person.entity"));
+
+		//--- Add "Gender" again
+		writeEntity("Gender", new String(genderContent));
+		model = parser.parse(modelFile);
+		assertEquals(0, parser.getErrors().size());
+		assertEquals(2, parser.getLastParsedEntities().size()); // "Gender" and "Person" (previously in error)
+		assertSame(model.getEntity("Gender"), model.getEntity("Person").getField("gender").getType());
+	}
+
+	@Test
+	public void testFailureDuringParsing() throws IOException {
+		// "Employee" and "Person" reference "Gender" 
+		writeEntity("Employee", "Employee {\n id : int {@Id};\n gender : Gender;\n}\n");
+		FailingParser parser = new FailingParser();
+		DomainModel model = parser.parse(modelFile);
+		assertEquals(2, model.getEntity("Employee").getNumberOfFields());
+
+		//--- Remove "Gender" : "Employee" then "Person" re-parsed, "Person" cannot be read 
+		File genderFile = new File(modelFolder, "Gender.entity");
+		byte[] genderContent = Files.readAllBytes(genderFile.toPath());
+		assertTrue(genderFile.delete());
+		parser.failingEntity = "Person" ;
+		try {
+			parser.parse(modelFile);
+			fail("exception expected");
+		} catch (EntityParserException e) {
+			// expected
+		}
+		parser.failingEntity = null ;
+
+		//--- Add "Gender" again ( same content ) : previous state still valid 
+		writeEntity("Gender", new String(genderContent));
+		model = parser.parse(modelFile);
+		assertEquals(0, parser.getErrors().size());
+		assertEquals(0, parser.getLastParsedEntities().size());
+		assertEquals(2, model.getEntity("Employee").getNumberOfFields());
+		assertEquals(6, model.getEntity("Person").getNumberOfFields());
+		assertSame(model.getEntity("Gender"), model.getEntity("Employee").getField("gender").getType());
+	}
+
+	/**
+	 * Parser failing to read a given entity file 
+	 */
+	private static class FailingParser extends IncrementalDomainModelParser {
+		String failingEntity = null ;
+		@Override
+		byte[] readEntityFile(EntityFileDescriptor entityFile) {
+			if ( entityFile.getEntityName().equals(failingEntity) ) {
+				throw new EntityParserException("Cannot read file : " + entityFile.getPath());
+			}
+			return super.readEntityFile(entityFile);
+		}
+	}
+}
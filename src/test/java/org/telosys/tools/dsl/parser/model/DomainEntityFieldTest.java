@@ -0,0 +1,138 @@
+package org.telosys.tools.dsl.parser.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.telosys.tools.dsl.AnnotationKind;
+import org.telosys.tools.dsl.EntityParserException;
+
+public class DomainEntityFieldTest {
+
+	private static DomainEntityField newField() {
+		DomainEntityField field = new DomainEntityField("code", DomainNeutralTypes.getType(DomainNeutralTypes.STRING));
+		field.addAnnotation(new DomainEntityFieldAnnotation("SizeMax", Integer.valueOf(20)));
+		field.addAnnotation(new DomainEntityFieldAnnotation("Id"));
+		field.addAnnotation(new DomainEntityFieldAnnotation("NotNull"));
+		return field ;
+	}
+
+	@Test
+	public void testAnnotations() {
+		DomainEntityField field = newField();
+		assertEquals(3, field.getNumberOfAnnotations());
+		assertTrue(field.hasAnnotation("Id"));
+		assertFalse(field.hasAnnotation("Max"));
+		assertEquals(Integer.valueOf(20), field.getAnnotation("SizeMax").getParameterAsInteger());
+		assertNull(field.getAnnotation("Max"));
+		// sorted names
+		assertEquals("[Id, NotNull, SizeMax]", field.getAnnotationNames().toString());
+		try {
+			field.addAnnotation(new DomainEntityFieldAnnotation("Id"));
+			fail("exception expected");
+		} catch (EntityParserException e) {
+			// expected
+		}
+		DomainEntityField noAnnotation = new DomainEntityField("name", DomainNeutralTypes.getType(DomainNeutralTypes.STRING));
+		assertEquals(0, noAnnotation.getNumberOfAnnotations());
+		assertTrue(noAnnotation.getAnnotations().isEmpty());
+	}
+
+	@Test
+	public void testAnnotationKinds() {
+		DomainEntityField field = newField();
+		field.addAnnotation(new DomainEntityFieldAnnotation("Pattern", "[A-Z]*")); // unknown kind
+		assertTrue(field.hasAnnotation(AnnotationKind.ID));
+		assertTrue(field.hasAnnotation(AnnotationKind.SIZE_MAX));
+		assertFalse(field.hasAnnotation(AnnotationKind.SIZE_MIN));
+		assertEquals(AnnotationKind.ID.getMask() | AnnotationKind.NOT_NULL.getMask() | AnnotationKind.SIZE_MAX.getMask(), 
+				field.getAnnotationsMask());
+		assertEquals(EnumSet.of(AnnotationKind.ID, AnnotationKind.NOT_NULL, AnnotationKind.SIZE_MAX), field.getAnnotationKinds());
+		assertEquals(AnnotationKind.SIZE_MAX, field.getAnnotation("SizeMax").getKind());
+		assertNull(field.getAnnotation("Pattern").getKind());
+	}
+
+	@Test
+	public void testAnnotationsView() {
+		DomainEntityField field = newField();
+		Map<String, DomainEntityFieldAnnotation> map = field.getAnnotations();
+		assertEquals(3, map.size());
+		// definition order
+		assertEquals("[SizeMax, Id, NotNull]", map.keySet().toString());
+		assertSame(field.getAnnotation("Id"), map.get("Id"));
+		assertTrue(map.containsKey("NotNull"));
+		assertFalse(map.containsKey("Max"));
+		assertEquals(3, map.values().size());
+		// same content as a former map
+		Map<String, DomainEntityFieldAnnotation> copy = new LinkedHashMap<String, DomainEntityFieldAnnotation>(map);
+		assertEquals(copy, map);
+		assertEquals(copy.hashCode(), map.hashCode());
+		// unmodifiable
+		try {
+			map.put("Max", new DomainEntityFieldAnnotation("Max", new BigDecimal("10")));
+			fail("exception expected");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		Iterator<DomainEntityFieldAnnotation> iterator = map.values().iterator();
+		iterator.next();
+		try {
+			iterator.remove();
+			fail("exception expected");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		// a single view for the field, reflecting the next additions
+		assertSame(map, field.getAnnotations());
+		field.addAnnotation(new DomainEntityFieldAnnotation("Max", new BigDecimal("10")));
+		assertSame(map, field.getAnnotations());
+		assertEquals(4, map.size());
+		assertEquals("[SizeMax, Id, NotNull, Max]", map.keySet().toString());
+	}
+
+	@Test
+	public void testEquals() {
+		DomainEntityFieldAnnotation id = new DomainEntityFieldAnnotation("Id");
+		DomainEntityFieldAnnotation notNull = new DomainEntityFieldAnnotation("NotNull");
+		DomainEntityField field1 = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+		field1.addAnnotation(id);
+		field1.addAnnotation(notNull);
+		DomainEntityField field2 = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+		field2.addAnnotation(notNull);
+		field2.addAnnotation(id);
+		// the order of the annotations doesn't matter
+		assertEquals(field1, field2);
+		assertEquals(field1.hashCode(), field2.hashCode());
+		DomainEntityField field3 = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+		field3.addAnnotation(id);
+		assertFalse(field1.equals(field3));
+		field3.addAnnotation(new DomainEntityFieldAnnotation("Pattern"));
+		assertFalse(field1.equals(field3));
+		field3 = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER));
+		field3.addAnnotation(id);
+		field3.addAnnotation(new DomainEntityFieldAnnotation("NotNull"));
+		assertFalse(field1.equals(field3)); // same names but other annotation
+	}
+
+	@Test
+	public void testNullParameter() {
+		// a null parameter is a parameter 
+		DomainEntityFieldAnnotation annotation = new DomainEntityFieldAnnotation("Label", (String) null);
+		assertTrue(annotation.hasParameter());
+		assertNull(annotation.getParameter());
+		assertEquals("@Label(null)", annotation.toString());
+		assertTrue(new DomainEntityFieldAnnotation("Max", (Number) null).hasParameter());
+		assertFalse(new DomainEntityFieldAnnotation("NotNull").hasParameter());
+		assertEquals("@NotNull", new DomainEntityFieldAnnotation("NotNull").toString());
+	}
+}
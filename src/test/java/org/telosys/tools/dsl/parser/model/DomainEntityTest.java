@@ -4,7 +4,16 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 import org.telosys.tools.dsl.EntityParserException;
@@ -106,4 +115,116 @@ public class DomainEntityTest {
 		entity.addField( new DomainEntityField("studentType", DomainNeutralTypes.getType(DomainNeutralTypes.STRING) ) );
 	}
 	
+	@Test
+	public void testCachedFields() {
+		DomainEntity entity = new DomainEntity("Car") ;
+		assertTrue ( entity.getFields().isEmpty() ) ;
+		assertTrue ( entity.getIdFields().isEmpty() ) ;
+		DomainEntityField id = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER) );
+		id.addAnnotation(new DomainEntityFieldAnnotation("Id"));
+		entity.addField( id );
+		entity.addField( new DomainEntityField("name", DomainNeutralTypes.getType(DomainNeutralTypes.STRING) ) );
+
+		// same list until the next change
+		List<DomainEntityField> fields = entity.getFields();
+		assertEquals ( 2, fields.size() ) ;
+		assertSame ( fields, entity.getFields() ) ;
+		assertSame ( entity.getIdFields(), entity.getIdFields() ) ;
+		assertEquals ( 1, entity.getIdFields().size() ) ;
+		assertSame ( id, entity.getIdFields().get(0) ) ;
+		try {
+			fields.add( new DomainEntityField("code", DomainNeutralTypes.getType(DomainNeutralTypes.STRING) ) );
+			fail("exception expected");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+
+		// new field => new lists
+		DomainEntityField code = new DomainEntityField("code", DomainNeutralTypes.getType(DomainNeutralTypes.STRING) );
+		code.addAnnotation(new DomainEntityFieldAnnotation("Id"));
+		entity.addField( code );
+		assertEquals ( 2, fields.size() ) ; // unchanged
+		assertEquals ( 3, entity.getFields().size() ) ;
+		assertSame ( code, entity.getFields().get(2) ) ;
+		assertEquals ( 2, entity.getIdFields().size() ) ;
+
+		// '@Id' added after 'addField' => new '@Id' list
+		DomainEntityField name = entity.getField("name");
+		name.addAnnotation(new DomainEntityFieldAnnotation("Id"));
+		assertEquals ( 3, entity.getIdFields().size() ) ;
+		assertSame ( name, entity.getIdFields().get(1) ) ;
+
+		entity.removeAllFields();
+		assertTrue ( entity.getFields().isEmpty() ) ;
+		assertTrue ( entity.getIdFields().isEmpty() ) ;
+	}
+
+	@Test
+	public void testIdFieldsOfSharedField() {
+		DomainEntity car = new DomainEntity("Car") ;
+		DomainEntity truck = new DomainEntity("Truck") ;
+		DomainEntityField code = new DomainEntityField("code", DomainNeutralTypes.getType(DomainNeutralTypes.STRING) );
+		car.addField( code );
+		truck.addField( code );
+		assertTrue ( car.getIdFields().isEmpty() ) ;
+		assertTrue ( truck.getIdFields().isEmpty() ) ;
+		// both entities notified
+		code.addAnnotation(new DomainEntityFieldAnnotation("Id"));
+		assertSame ( code, car.getIdFields().get(0) ) ;
+		assertSame ( code, truck.getIdFields().get(0) ) ;
+		// field removed from 'Car' : only 'Truck' is notified
+		car.removeAllFields();
+		List<DomainEntityField> carIdFields = car.getIdFields();
+		List<DomainEntityField> truckIdFields = truck.getIdFields();
+		code.addAnnotation(new DomainEntityFieldAnnotation("NotNull"));
+		assertSame ( carIdFields, car.getIdFields() ) ;
+		assertSame ( truckIdFields, truck.getIdFields() ) ;
+	}
+
+	@Test
+	public void testIdFieldsOfEntitiesBuiltConcurrently() throws Exception {
+		final DomainModel model1 = new DomainModel("model1") ;
+		final DomainModel model2 = new DomainModel("model2") ;
+		final DomainEntity car = new DomainEntity("Car") ;
+		DomainEntityField id = new DomainEntityField("id", DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER) );
+		car.addField( id );
+		id.addAnnotation(new DomainEntityFieldAnnotation("Id"));
+		model1.addEntity(car);
+		final List<DomainEntityField> carIdFields = car.getIdFields();
+		assertEquals ( 1, carIdFields.size() ) ;
+
+		// another model built at the same time in other threads 
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<DomainEntity>> futures = new ArrayList<Future<DomainEntity>>();
+			for ( int t = 0 ; t < 2 ; t++ ) {
+				final String entityName = "Driver" + t ;
+				futures.add( executor.submit(new Callable<DomainEntity>() {
+					@Override
+					public DomainEntity call() {
+						DomainEntity driver = new DomainEntity(entityName) ;
+						for ( int i = 0 ; i < 100 ; i++ ) {
+							DomainEntityField field = new DomainEntityField("f" + i, DomainNeutralTypes.getType(DomainNeutralTypes.INTEGER) );
+							driver.addField( field );
+							field.addAnnotation(new DomainEntityFieldAnnotation("Id"));
+							// the '@Id' fields of 'Car' are not invalidated 
+							if ( car.getIdFields() != carIdFields ) {
+								throw new IllegalStateException("'@Id' fields of Car invalidated");
+							}
+						}
+						return driver ;
+					}
+				}) );
+			}
+			for ( Future<DomainEntity> future : futures ) {
+				DomainEntity driver = future.get();
+				assertEquals ( 100, driver.getIdFields().size() ) ;
+				model2.addEntity(driver);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertSame ( carIdFields, car.getIdFields() ) ;
+		assertEquals ( 2, model2.getNumberOfEntities() ) ;
+	}
 }
@@ -1,13 +1,25 @@
 package org.telosys.tools.dsl.parser.model;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 import org.telosys.tools.dsl.EntityParserException;
+import org.telosys.tools.dsl.generic.converter.Converter;
+import org.telosys.tools.dsl.parser.DomainModelParser;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
 
 public class DomainModelTest {
 
@@ -38,6 +50,34 @@ public class DomainModelTest {
 		}
 	}
 
+	@Test
+	public void testEntityNames() {
+		DomainModel model = new DomainModel("mymodel");
+		assertFalse( model.hasEntity("Book") ) ;
+		assertEquals( 0, model.getEntityNames().size() ) ;
+
+		model.addEntity( new DomainEntity("Book") );
+		model.addEntity( new DomainEntity("Author") );
+		assertTrue( model.hasEntity("Book") ) ;
+		assertFalse( model.hasEntity("book") ) ;
+		List<String> entityNames = model.getEntityNames();
+		assertEquals( "[Author, Book]", entityNames.toString() ) ;
+		// same list until the next addition
+		assertTrue( entityNames == model.getEntityNames() ) ;
+
+		model.addEntity( new DomainEntity("Car") );
+		assertTrue( model.hasEntity("Car") ) ;
+		assertEquals( "[Author, Book, Car]", model.getEntityNames().toString() ) ;
+		assertEquals( "[Author, Book]", entityNames.toString() ) ;
+	}
+
+	@Test ( expected = UnsupportedOperationException.class )
+	public void testEntityNamesImmutable() {
+		DomainModel model = new DomainModel("mymodel");
+		model.addEntity( new DomainEntity("Book") );
+		model.getEntityNames().add("Car"); // ERROR expected
+	}
+
 	@Test ( expected = EntityParserException.class )
 	public void testEntityDuplicated() {
 		DomainModel model = new DomainModel("mymodel");
@@ -102,4 +142,62 @@ public class DomainModelTest {
 //		model.addEnumeration( new DomainEnumerationForString("Book") ); // ERROR expected
 //	}
 
+	@Test
+	public void testEntitiesOrder() {
+		DomainModel model = new DomainModel("mymodel");
+		String[] names = { "Zoo", "Book", "Author", "Car", "Man" } ;
+		for ( String name : names ) {
+			model.addEntity( new DomainEntity(name) );
+		}
+		// insertion order (deterministic)
+		int i = 0 ;
+		for ( DomainEntity entity : model.getEntities() ) {
+			assertEquals(names[i++], entity.getName());
+		}
+		// alphabetical order
+		assertEquals("[Author, Book, Car, Man, Zoo]", model.getEntityNames().toString());
+	}
+
+	@Test
+	public void testConcurrentReading() throws Exception {
+		// Stress test : a model parsed once, then read and converted by several generator threads
+		final DomainModel model = new DomainModelParser().parse(new File("src/test/resources/model_test/valid/FourEntities.model"));
+		final Model reference = new Converter().convertToGenericModel(model);
+		final String expected = describe(model, reference);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> futures = new ArrayList<Future<String>>();
+			for ( int i = 0 ; i < 200 ; i++ ) {
+				futures.add(executor.submit(new Callable<String>() {
+					@Override
+					public String call() {
+						return describe(model, new Converter().convertToGenericModel(model));
+					}
+				}));
+			}
+			for ( Future<String> future : futures ) {
+				assertEquals(expected, future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static String describe(DomainModel domainModel, Model model) {
+		StringBuilder sb = new StringBuilder();
+		for ( String entityName : domainModel.getEntityNames() ) {
+			DomainEntity entity = domainModel.getEntity(entityName);
+			sb.append(entityName).append(" {");
+			for ( DomainEntityField field : entity.getFields() ) {
+				sb.append(field.getName()).append(":").append(field.getTypeName());
+				sb.append(field.getAnnotations().keySet()).append(";");
+			}
+			sb.append("} ");
+		}
+		for ( Entity entity : model.getEntities() ) {
+			sb.append(entity.getClassName()).append("/").append(entity.getAttributes().size()).append("/")
+				.append(entity.getLinks().size()).append(" ");
+		}
+		return sb.toString();
+	}
 }
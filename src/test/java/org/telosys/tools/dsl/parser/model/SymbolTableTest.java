@@ -0,0 +1,186 @@
+package org.telosys.tools.dsl.parser.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.dsl.generic.converter.Converter;
+import org.telosys.tools.dsl.parser.DomainModelParser;
+import org.telosys.tools.generic.model.Attribute;
+import org.telosys.tools.generic.model.Entity;
+import org.telosys.tools.generic.model.Model;
+import org.telosys.tools.junit.utils.TestFileProvider;
+
+public class SymbolTableTest {
+
+	@Test
+	public void testIntern() {
+		SymbolTable symbolTable = new SymbolTable();
+		assertNull(symbolTable.intern((String) null));
+		String id = new String("id");
+		assertSame(id, symbolTable.intern(id));
+		assertSame(id, symbolTable.intern(new String("id")));
+		char[] buffer = "  id : int ; code : string".toCharArray();
+		assertSame(id, symbolTable.intern(buffer, 2, 4));
+		// new symbol from a slice
+		String code = symbolTable.intern(buffer, 13, 17);
+		assertEquals("code", code);
+		assertSame(code, symbolTable.intern("code"));
+		assertSame(code, symbolTable.intern(buffer, 13, 17));
+		// void symbol
+		assertEquals("", symbolTable.intern(buffer, 0, 0));
+		assertEquals(3, symbolTable.size());
+	}
+
+	@Test
+	public void testGrowth() {
+		SymbolTable symbolTable = new SymbolTable();
+		String[] symbols = new String[5000];
+		for ( int i = 0 ; i < symbols.length ; i++ ) {
+			symbols[i] = symbolTable.intern("field" + i);
+		}
+		assertEquals(symbols.length, symbolTable.size());
+		for ( int i = 0 ; i < symbols.length ; i++ ) {
+			char[] buffer = ("field" + i).toCharArray();
+			assertSame(symbols[i], symbolTable.intern(buffer, 0, buffer.length));
+		}
+		assertEquals(symbols.length, symbolTable.size());
+	}
+
+	@Test
+	public void testConcurrentIntern() throws Exception {
+		final SymbolTable table = new SymbolTable();
+		final int namesCount = 5000 ;
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String[]>> futures = new ArrayList<Future<String[]>>();
+			for ( int t = 0 ; t < 4 ; t++ ) {
+				futures.add(executor.submit(new Callable<String[]>() {
+					@Override
+					public String[] call() {
+						String[] result = new String[namesCount];
+						for ( int i = 0 ; i < namesCount ; i++ ) {
+							char[] chars = ( "name" + i ).toCharArray();
+							result[i] = ( i % 2 == 0 ) ? table.intern(chars, 0, chars.length) : table.intern(new String(chars));
+						}
+						return result ;
+					}
+				}));
+			}
+			String[] first = futures.get(0).get();
+			for ( Future<String[]> future : futures ) {
+				String[] result = future.get();
+				for ( int i = 0 ; i < namesCount ; i++ ) {
+					assertEquals("name" + i, result[i]);
+					assertSame(first[i], result[i]);
+				}
+			}
+			assertEquals(namesCount, table.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testModelNames() {
+		DomainModel model = new DomainModel("model");
+		String name = new String("Book");
+		model.addEntity(new DomainEntity(name));
+		// the entity name is the shared instance for the type references
+		char[] buffer = "book : Book".toCharArray();
+		assertSame(name, model.getSymbolTable().intern(buffer, 7, 11));
+		assertNotSame(model.getSymbolTable(), new DomainModel("model").getSymbolTable());
+	}
+
+	@Test
+	public void testLargeModelRetainedSize() throws IOException {
+		int entitiesCount = 2500 ;
+		File modelFile = createLargeModel(entitiesCount);
+		DomainModel model = new DomainModelParser().parse(modelFile);
+		assertEquals(entitiesCount, model.getNumberOfEntities());
+
+		// all the names of the parsed model (each name was a distinct instance before the symbol table)
+		Map<String, Boolean> instances = new IdentityHashMap<String, Boolean>();
+		long sizeWithoutSharing = 0 ;
+		int namesCount = 0 ;
+		for ( DomainEntity entity : model.getEntities() ) {
+			for ( DomainEntityField field : entity.getFields() ) {
+				sizeWithoutSharing += stringSize(field.getName());
+				instances.put(field.getName(), Boolean.TRUE);
+				namesCount++ ;
+				for ( DomainEntityFieldAnnotation annotation : field.getAnnotations().values() ) {
+					sizeWithoutSharing += stringSize(annotation.getName());
+					instances.put(annotation.getName(), Boolean.TRUE);
+					namesCount++ ;
+				}
+			}
+		}
+		long sizeWithSharing = 0 ;
+		for ( String s : instances.keySet() ) {
+			sizeWithSharing += stringSize(s);
+		}
+		System.out.println("Names retained size for " + entitiesCount + " entities (" + namesCount + " names) : " 
+				+ sizeWithoutSharing + " bytes without sharing, " + sizeWithSharing + " bytes with the symbol table" );
+		// 8 common field names + 1 specific field name per entity + 4 annotation names 
+		assertEquals(8 + entitiesCount + 4, instances.size());
+		assertTrue(sizeWithSharing * 4 < sizeWithoutSharing);
+
+		// the converted model uses the same instances
+		Model genericModel = new Converter().convertToGenericModel(model);
+		Entity entity = genericModel.getEntityByClassName("Entity1234");
+		for ( Attribute attribute : entity.getAttributes() ) {
+			assertTrue(instances.containsKey(attribute.getName()));
+		}
+	}
+
+	/**
+	 * Estimated size of a String ( 64 bits JVM with compressed oops, Latin-1 compact string )
+	 */
+	private static long stringSize(String s) {
+		return 24 + ( ( 16 + s.length() + 7 ) / 8 ) * 8 ;
+	}
+
+	private static File createLargeModel(int entitiesCount) throws IOException {
+		File folder = TestFileProvider.getTargetTmpFile("symbols");
+		if ( folder.exists() ) {
+			DirUtil.deleteDirectory(folder);
+		}
+		File modelFolder = new File(folder, "Large_model");
+		modelFolder.mkdirs();
+		File modelFile = new File(folder, "Large.model");
+		Files.write(modelFile.toPath(), "name = Large\n".getBytes());
+		for ( int i = 0 ; i < entitiesCount ; i++ ) {
+			String entityName = "Entity" + i ;
+			StringBuilder sb = new StringBuilder();
+			sb.append(entityName).append(" {\n");
+			sb.append("  id : int { @Id } ;\n");
+			sb.append("  name : string { @NotNull, @SizeMax(40) } ;\n");
+			sb.append("  code : string { @SizeMax(10) } ;\n");
+			sb.append("  description : string ;\n");
+			sb.append("  amount : decimal { @Min(0) } ;\n");
+			sb.append("  active : boolean ;\n");
+			sb.append("  createdAt : date ;\n");
+			sb.append("  updatedAt : date ;\n");
+			sb.append("  specific").append(i).append(" : string ;\n");
+			sb.append("}\n");
+			Files.write(new File(modelFolder, entityName + ".entity").toPath(), sb.toString().getBytes());
+		}
+		return modelFile ;
+	}
+}